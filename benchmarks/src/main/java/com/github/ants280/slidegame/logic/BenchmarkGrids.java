@@ -0,0 +1,79 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Random;
+
+/**
+ * Creates repeatable Grids for the benchmarks. In the logic package to arrange
+ * tiles with the package-private Grid.setTile.
+ */
+final class BenchmarkGrids {
+	static final long SEED = 1024L;
+	private static final int MAX_EXPONENT = 5;
+
+	private BenchmarkGrids() {
+	}
+
+	/**
+	 * @param count
+	 *            The number of Grids to create.
+	 * @param length
+	 *            The width and height of the Grids.
+	 * @param filledCellCount
+	 *            The number of cells of each Grid to put a random tile from 2 to
+	 *            32 in.
+	 * @return The Grids, the same every time for the same arguments.
+	 */
+	static Grid[] createGrids(int count, int length, int filledCellCount) {
+		Random random = new Random(SEED);
+		Grid[] grids = new Grid[count];
+		int cellCount = length * length;
+
+		for (int i = 0; i < count; i++) {
+			grids[i] = new Grid(length);
+
+			int[] cells = shuffledCells(cellCount, random);
+			for (int j = 0; j < filledCellCount; j++) {
+				grids[i].setTile(cells[j] % length, cells[j] / length, createTile(1 + random.nextInt(MAX_EXPONENT)));
+			}
+		}
+
+		return grids;
+	}
+
+	static int getFilledCellCount(int length, double fill) {
+		return (int) Math.round(length * length * fill);
+	}
+
+	static void copyTiles(Grid[] sources, Grid[] targets) {
+		for (int i = 0; i < sources.length; i++) {
+			int length = sources[i].getLength();
+			for (int r = 0; r < length; r++) {
+				for (int c = 0; c < length; c++) {
+					targets[i].setTile(c, r, sources[i].getTile(c, r));
+				}
+			}
+		}
+	}
+
+	private static int[] shuffledCells(int cellCount, Random random) {
+		int[] cells = new int[cellCount];
+
+		for (int i = 0; i < cellCount; i++) {
+			int j = random.nextInt(i + 1);
+			cells[i] = cells[j];
+			cells[j] = i;
+		}
+
+		return cells;
+	}
+
+	private static Tile createTile(int exponent) {
+		Tile tile = Tile.TWO;
+
+		for (int i = 1; i < exponent; i++) {
+			tile = tile.getNext();
+		}
+
+		return tile;
+	}
+}
@@ -0,0 +1,68 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the moves per second of a game on a huge ByteGrid, sliding rows or
+ * columns in parallel or sequentially. A random tile is added after each move
+ * that changed the grid, and the grid is refilled when no moves are left.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteGridMoveBenchmark {
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	@Param({ "64", "256", "1024" })
+	private int length;
+	@Param({ "true", "false" })
+	private boolean parallel;
+	@Param({ "0.5" })
+	private double fill;
+	private ByteGrid byteGrid;
+	private final MoveResult moveResult = new MoveResult();
+	private int moveIndex;
+
+	@Setup(Level.Trial)
+	public void createByteGrid() {
+		byteGrid = new ByteGrid(length, 1 << 30, parallel ? 2 : Integer.MAX_VALUE);
+		this.fillByteGrid();
+	}
+
+	@Benchmark
+	public long move() {
+		byteGrid.move(MOVE_DIRECTIONS[moveIndex++ & 3], moveResult);
+
+		if (moveResult.isChanged()) {
+			byteGrid.addRandomTile();
+		}
+		if (byteGrid.isFilled() && !byteGrid.canSlideInAnyDirection()) {
+			byteGrid.clear();
+			this.fillByteGrid();
+		}
+
+		return moveResult.getScore();
+	}
+
+	private void fillByteGrid() {
+		int filledCellCount = BenchmarkGrids.getFilledCellCount(length, fill);
+
+		for (int i = 0; i < filledCellCount; i++) {
+			byteGrid.addRandomTile();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Grid.addRandomTile on nearly full Grids, where finding an empty cell
+ * is hardest. A batch of Grids is restored before each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridAddRandomTileBenchmark {
+	private static final int BATCH_SIZE = 256;
+	@Param({ "4", "8", "16" })
+	private int length;
+	@Param({ "1", "4" })
+	private int emptyCellCount;
+	private Grid[] originalGrids;
+	private Grid[] grids;
+
+	@Setup(Level.Trial)
+	public void createGrids() {
+		originalGrids = BenchmarkGrids.createGrids(BATCH_SIZE, length, length * length - emptyCellCount);
+		grids = BenchmarkGrids.createGrids(BATCH_SIZE, length, 0);
+	}
+
+	@Setup(Level.Invocation)
+	public void restoreGrids() {
+		BenchmarkGrids.copyTiles(originalGrids, grids);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public Grid[] addRandomTile() {
+		for (Grid grid : grids) {
+			grid.addRandomTile();
+		}
+
+		return grids;
+	}
+}
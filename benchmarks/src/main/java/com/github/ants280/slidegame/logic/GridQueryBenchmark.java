@@ -0,0 +1,57 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Grid methods that only read the tiles, cycling through many
+ * Grids so that no single board stays in the branch predictor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridQueryBenchmark {
+	private static final int GRID_COUNT = 256;
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	@Param({ "4", "8", "16" })
+	private int length;
+	@Param({ "0.25", "0.5", "0.9", "1.0" })
+	private double fill;
+	private Grid[] grids;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createGrids() {
+		grids = BenchmarkGrids.createGrids(GRID_COUNT, length, BenchmarkGrids.getFilledCellCount(length, fill));
+	}
+
+	@Benchmark
+	public boolean canSlideTiles() {
+		int i = index++;
+		return grids[i & (GRID_COUNT - 1)].canSlideTiles(MOVE_DIRECTIONS[i & 3]);
+	}
+
+	@Benchmark
+	public boolean canSlideInAnyDirection() {
+		return grids[index++ & (GRID_COUNT - 1)].canSlideInAnyDirection();
+	}
+
+	@Benchmark
+	public boolean isFilled() {
+		return grids[index++ & (GRID_COUNT - 1)].isFilled();
+	}
+}
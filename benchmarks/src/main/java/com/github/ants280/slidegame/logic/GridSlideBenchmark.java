@@ -0,0 +1,78 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Grid.slideTiles and Grid.move. Sliding changes the Grids, so a batch
+ * of them is restored before each invocation and the cost is divided over the
+ * batch. Run with -prof gc to see that neither allocates (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridSlideBenchmark {
+	private static final int BATCH_SIZE = 256;
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	@Param({ "4", "8", "16" })
+	private int length;
+	@Param({ "0.25", "0.5", "0.9" })
+	private double fill;
+	private Grid[] originalGrids;
+	private Grid[] grids;
+	private final MoveResult moveResult = new MoveResult();
+	private int moveIndex;
+
+	@Setup(Level.Trial)
+	public void createGrids() {
+		originalGrids = BenchmarkGrids.createGrids(BATCH_SIZE, length, BenchmarkGrids.getFilledCellCount(length, fill));
+		grids = BenchmarkGrids.createGrids(BATCH_SIZE, length, 0);
+	}
+
+	@Setup(Level.Invocation)
+	public void restoreGrids() {
+		BenchmarkGrids.copyTiles(originalGrids, grids);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public long slideTiles() {
+		MoveDirection moveDirection = MOVE_DIRECTIONS[moveIndex++ & 3];
+		long sum = 0L;
+
+		for (Grid grid : grids) {
+			sum += grid.slideTiles(moveDirection);
+		}
+
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public long move() {
+		MoveDirection moveDirection = MOVE_DIRECTIONS[moveIndex++ & 3];
+		long sum = 0L;
+
+		for (Grid grid : grids) {
+			grid.move(moveDirection, moveResult);
+			sum += moveResult.getScore();
+		}
+
+		return sum;
+	}
+}
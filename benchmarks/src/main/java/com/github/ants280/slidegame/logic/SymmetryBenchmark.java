@@ -0,0 +1,54 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of finding the canonical form of packed 4x4 boards, against
+ * a single transpose.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymmetryBenchmark {
+	private static final int BOARD_COUNT = 1024;
+	private long[] boards;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createBoards() {
+		Grid[] grids = BenchmarkGrids.createGrids(BOARD_COUNT, BitBoard.LENGTH, 10);
+		boards = new long[BOARD_COUNT];
+		for (int i = 0; i < BOARD_COUNT; i++) {
+			boards[i] = BitBoard.pack(grids[i]);
+		}
+	}
+
+	@Benchmark
+	public long transpose() {
+		return BitBoard.transpose(boards[index++ & (BOARD_COUNT - 1)]);
+	}
+
+	@Benchmark
+	public long canonicalize() {
+		return Symmetry.canonicalize(boards[index++ & (BOARD_COUNT - 1)]);
+	}
+
+	@Benchmark
+	public Symmetry getCanonicalSymmetry() {
+		return Symmetry.getCanonicalSymmetry(boards[index++ & (BOARD_COUNT - 1)]);
+	}
+}
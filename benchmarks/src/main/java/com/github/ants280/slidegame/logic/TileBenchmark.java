@@ -0,0 +1,49 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Tile.getNext, which every merge calls, and Tile.ofExponent on tiles
+ * from 2 to 65536.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileBenchmark {
+	private static final int TILE_COUNT = 16;
+	private Tile[] tiles;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createTiles() {
+		tiles = new Tile[TILE_COUNT];
+		tiles[0] = Tile.TWO;
+		for (int i = 1; i < TILE_COUNT; i++) {
+			tiles[i] = tiles[i - 1].getNext();
+		}
+	}
+
+	@Benchmark
+	public Tile getNext() {
+		return tiles[index++ & (TILE_COUNT - 1)].getNext();
+	}
+
+	@Benchmark
+	public Tile ofExponent() {
+		return Tile.ofExponent((index++ & (TILE_COUNT - 1)) + 1);
+	}
+}
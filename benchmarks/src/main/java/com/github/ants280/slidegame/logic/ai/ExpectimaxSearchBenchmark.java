@@ -0,0 +1,72 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures searching every position of one seeded game with an emptied
+ * transposition table, keyed by each board or by its canonical form.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpectimaxSearchBenchmark {
+	private static final int POSITION_COUNT = 256;
+	@Param({ "false", "true" })
+	public boolean symmetric;
+	private long[] positions;
+	private TranspositionTable transpositionTable;
+	private ExpectimaxSearch expectimaxSearch;
+
+	@Setup(Level.Trial)
+	public void createPositions() {
+		BitBoard bitBoard = new BitBoard(BitBoard.LENGTH, 2048L, new SplittableRandom(1024L));
+		GreedyMoveStrategy greedyMoveStrategy = new GreedyMoveStrategy();
+		positions = new long[POSITION_COUNT];
+
+		for (int i = 0; i < POSITION_COUNT; i++) {
+			if (!bitBoard.canSlideInAnyDirection()) {
+				bitBoard.clear();
+				bitBoard.addRandomTile();
+			}
+			bitBoard.addRandomTile();
+			positions[i] = bitBoard.getTiles();
+
+			MoveDirection moveDirection = greedyMoveStrategy.chooseMove(bitBoard);
+			if (moveDirection != null) {
+				bitBoard.slideTiles(moveDirection);
+			}
+		}
+
+		ArrayTranspositionTable arrayTranspositionTable = new ArrayTranspositionTable(ExpectimaxSearch.DEFAULT_TABLE_CAPACITY);
+		transpositionTable = symmetric ? new SymmetricTranspositionTable(arrayTranspositionTable) : arrayTranspositionTable;
+		expectimaxSearch = new ExpectimaxSearch(new HeuristicEvaluator(), transpositionTable, ExpectimaxSearch.DEFAULT_DEPTH, ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+	}
+
+	@Benchmark
+	public float searchGame() {
+		transpositionTable.clear();
+		float totalValue = 0f;
+		for (long position : positions) {
+			totalValue += expectimaxSearch.search(position).getExpectedValue();
+		}
+		return totalValue;
+	}
+}
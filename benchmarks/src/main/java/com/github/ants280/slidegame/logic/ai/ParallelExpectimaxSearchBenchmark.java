@@ -0,0 +1,107 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures searching every position of one seeded game with a
+ * ParallelExpectimaxSearch on a pool of each number of threads, with an
+ * emptied transposition table. The table is a LocklessTranspositionTable for a
+ * table size of 0, or an OffHeapTranspositionTable of the size, such as 512m.
+ * The thread counts measured by default stop at 8; pass them with
+ * -p threads=1,2,4,8,16,... to go up to the processors of a larger machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelExpectimaxSearchBenchmark {
+	private static final int POSITION_COUNT = 64;
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+	@Param({ "0", "64m" })
+	public String tableSize;
+	@Param({ "4" })
+	public int depth;
+	private long[] positions;
+	private ForkJoinPool forkJoinPool;
+	private TranspositionTable transpositionTable;
+	private ParallelExpectimaxSearch parallelExpectimaxSearch;
+
+	@Setup(Level.Trial)
+	public void createSearch() {
+		positions = createPositions();
+		long tableBytes = OffHeapTranspositionTable.parseSize(tableSize);
+		transpositionTable = tableBytes == 0L ? new LocklessTranspositionTable(ExpectimaxSearch.DEFAULT_TABLE_CAPACITY) : new OffHeapTranspositionTable(tableBytes);
+		forkJoinPool = new ForkJoinPool(threads);
+		parallelExpectimaxSearch = new ParallelExpectimaxSearch(forkJoinPool, new HeuristicEvaluator(), transpositionTable, depth, ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdownPool() {
+		forkJoinPool.shutdown();
+	}
+
+	@Benchmark
+	public float searchGame() {
+		transpositionTable.clear();
+		float totalValue = 0f;
+		for (long position : positions) {
+			totalValue += parallelExpectimaxSearch.search(position).getExpectedValue();
+		}
+		return totalValue;
+	}
+
+	/**
+	 * Play one seeded game with a shallow sequential search and keep its
+	 * positions, starting over whenever the game is lost.
+	 */
+	private static long[] createPositions() {
+		SplittableRandom random = new SplittableRandom(2048L);
+		ExpectimaxSearch search = new ExpectimaxSearch(new HeuristicEvaluator(), new ArrayTranspositionTable(ExpectimaxSearch.DEFAULT_TABLE_CAPACITY), 2, ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+		long[] positions = new long[POSITION_COUNT];
+
+		long tiles = addRandomTile(addRandomTile(0L, random), random);
+		for (int i = 0; i < POSITION_COUNT;) {
+			MoveDirection moveDirection = search.search(tiles).getMoveDirection();
+			if (moveDirection == null) {
+				tiles = addRandomTile(addRandomTile(0L, random), random);
+			} else {
+				positions[i++] = tiles;
+				tiles = addRandomTile(BitBoard.slide(tiles, moveDirection), random);
+			}
+		}
+
+		return positions;
+	}
+
+	private static long addRandomTile(long tiles, SplittableRandom random) {
+		long exponent = random.nextInt(10) == 0 ? 2L : 1L;
+		int emptyIndex = random.nextInt(BitBoard.countEmptyCells(tiles));
+		for (int shift = 0; shift < Long.SIZE; shift += 4) {
+			if ((tiles >>> shift & 0xF) == 0 && emptyIndex-- == 0) {
+				return tiles | exponent << shift;
+			}
+		}
+
+		throw new IllegalArgumentException("Cannot add random tile");
+	}
+}
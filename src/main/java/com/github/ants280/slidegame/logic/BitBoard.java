@@ -0,0 +1,402 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * A 4x4 Board packed into a single long.
+ *
+ * Each cell is a four-bit tile exponent (0 for an empty cell, 1 for a 2 tile,
+ * 2 for a 4 tile, ...), stored row-major starting at the least significant
+ * bits. Columns are slid by transposing the board and sliding its rows, and
+ * each row is slid with a single RowTable lookup.
+ *
+ * Four bits hold exponents up to 15, so two 32768 tiles are never combined,
+ * unlike on a Grid. Goal tiles are at most 32768, so a game ends before this
+ * matters, but a search or simulation that plays on past the goal stops
+ * combining tiles there.
+ */
+public class BitBoard implements Board {
+	public static final int LENGTH = 4;
+	private static final int MAX_EXPONENT = RowTable.MAX_EXPONENT;
+	private static final int ROW_BITS = RowTable.ROW_BITS;
+	private static final int ROW_MASK = RowTable.ROW_MASK;
+	private static final long NIBBLE_LOW_BITS = 0x1111111111111111L;
+	private SplittableRandom random;
+	private long tiles;
+	private int goalTileExponent;
+	private boolean goalTileCreated;
+
+	public BitBoard() {
+		this(LENGTH);
+	}
+
+	public BitBoard(int length) {
+		this(length, 1024);
+	}
+
+	public BitBoard(int length, long goalTileValue) {
+		this(length, goalTileValue, new SplittableRandom());
+	}
+
+	/**
+	 * Creates an empty 4x4 board.
+	 *
+	 * @param length
+	 *            The width and height of the board. Must be 4.
+	 * @param goalTileValue
+	 *            The value of the Tile used to determine when the game is over.
+	 * @param random
+	 *            The source of the random tiles.
+	 */
+	public BitBoard(int length, long goalTileValue, SplittableRandom random) {
+		this.random = random;
+
+		validateLength(length);
+		this.goalTileExponent = BoardValidation.getGoalTileExponent(goalTileValue);
+		validateGoalTileExponent(goalTileExponent);
+
+		this.goalTileCreated = false;
+	}
+
+	@Override
+	public int getLength() {
+		return LENGTH;
+	}
+
+	@Override
+	public void setLength(int length) {
+		validateLength(length);
+		this.clear();
+	}
+
+	@Override
+	public boolean isSupportedLength(int length) {
+		return length == LENGTH;
+	}
+
+	@Override
+	public int getGoalTileExponent() {
+		return goalTileExponent;
+	}
+
+	@Override
+	public void setGoalTileExponent(int goalTileExponent) {
+		validateGoalTileExponent(goalTileExponent);
+		this.goalTileExponent = goalTileExponent;
+		this.clear();
+	}
+
+	private static void validateLength(int length) {
+		if (length != LENGTH) {
+			throw new IllegalArgumentException(String.format("Length must be %d.  Found: %d", LENGTH, length));
+		}
+	}
+
+	private static void validateGoalTileExponent(int goalTileExponent) {
+		BoardValidation.validateGoalTileExponent(goalTileExponent, LENGTH);
+
+		if (goalTileExponent > MAX_EXPONENT) {
+			throw new IllegalArgumentException(String.format("Goal tile of value of 2^%d is too large to store " + "on a packed board.  Must be at most 2^%d", goalTileExponent, MAX_EXPONENT));
+		}
+	}
+
+	/**
+	 * @return The packed tile exponents of the board.
+	 */
+	public long getTiles() {
+		return tiles;
+	}
+
+	@Override
+	public Tile getTile(int c, int r) {
+		return Tile.ofExponent((int) (tiles >>> getShift(c, r)) & 0xF);
+	}
+
+	@Override
+	public void clear() {
+		tiles = 0L;
+		goalTileCreated = false;
+	}
+
+	@Override
+	public void setRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * Add a random tile to an empty spot on the board. The empty spot is chosen
+	 * directly from the count of empty cells, so no retries are needed.
+	 */
+	@Override
+	public int addRandomTile() {
+		int emptyCount = countEmptyCells(tiles);
+
+		if (emptyCount == 0) {
+			throw new IllegalArgumentException("Cannot add random tile");
+		}
+
+		long exponent = random.nextInt(10) == 0 ? 2L : 1L;
+		int emptyIndex = random.nextInt(emptyCount);
+		for (int shift = 0; shift < Long.SIZE; shift += 4) {
+			if ((tiles >>> shift & 0xF) == 0 && emptyIndex-- == 0) {
+				tiles |= exponent << shift;
+				return shift / 4;
+			}
+		}
+
+		throw new IllegalStateException("Empty cell not found");
+	}
+
+	@Override
+	public void addTile(int cell, Tile tile) {
+		int shift = cell * 4;
+		if (tile == null || cell < 0 || cell >= LENGTH * LENGTH || (tiles >>> shift & 0xF) != 0) {
+			throw new IllegalArgumentException(String.format("Cannot add %s to cell %d", tile, cell));
+		}
+
+		tiles |= getExponent(tile) << shift;
+	}
+
+	@Override
+	public long slideTiles(MoveDirection moveDirection) {
+		boolean slideColumns = isSlideColumns(moveDirection);
+		boolean towardZero = isTowardZero(moveDirection);
+		long tilesToSlide = slideColumns ? transpose(tiles) : tiles;
+		long slidTiles = 0L;
+		long sum = 0L;
+
+		for (int i = 0; i < LENGTH; i++) {
+			int shift = i * ROW_BITS;
+			long slideResult = RowTable.slide((int) (tilesToSlide >>> shift) & ROW_MASK, towardZero);
+
+			slidTiles |= (long) RowTable.getRow(slideResult) << shift;
+			sum += RowTable.getSum(slideResult);
+			if ((RowTable.getMergedExponents(slideResult) >>> goalTileExponent & 1) != 0) {
+				goalTileCreated = true;
+			}
+		}
+
+		tiles = slideColumns ? transpose(slidTiles) : slidTiles;
+
+		return sum;
+	}
+
+	/**
+	 * Slide all tiles in the specified direction. The legal directions afterwards
+	 * are found with one table lookup per row and column of the slid board.
+	 */
+	@Override
+	public void move(MoveDirection moveDirection, MoveResult moveResult) {
+		long previousTiles = tiles;
+		long sum = this.slideTiles(moveDirection);
+
+		moveResult.set(tiles != previousTiles, sum, goalTileCreated, getLegalMoveDirections(tiles));
+	}
+
+	@Override
+	public boolean canSlideTiles(MoveDirection moveDirection) {
+		return slide(tiles, moveDirection) != tiles;
+	}
+
+	@Override
+	public boolean canSlideInAnyDirection() {
+		for (MoveDirection moveDirection : MoveDirection.values()) {
+			if (this.canSlideTiles(moveDirection)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean isFilled() {
+		return countEmptyCells(tiles) == 0;
+	}
+
+	@Override
+	public int getEmptyCellCount() {
+		return countEmptyCells(tiles);
+	}
+
+	@Override
+	public boolean goalTileCreated() {
+		return goalTileCreated;
+	}
+
+	@Override
+	public void saveState(byte[] states, int offset) {
+		for (int cell = 0; cell < LENGTH * LENGTH; cell++) {
+			states[offset + cell] = (byte) (tiles >>> (cell * 4) & 0xF);
+		}
+	}
+
+	@Override
+	public void restoreState(byte[] states, int offset) {
+		long restoredTiles = 0L;
+		goalTileCreated = false;
+		for (int cell = 0; cell < LENGTH * LENGTH; cell++) {
+			int exponent = states[offset + cell];
+			if (exponent > MAX_EXPONENT) {
+				throw new IllegalArgumentException("Tile exponent is too large to store on a packed board: " + exponent);
+			}
+
+			restoredTiles |= (long) exponent << (cell * 4);
+			if (exponent >= goalTileExponent) {
+				goalTileCreated = true;
+			}
+		}
+		tiles = restoredTiles;
+	}
+
+	/**
+	 * Pack the tiles of a 4x4 board into a long.
+	 *
+	 * @param board
+	 *            The board to pack.
+	 * @return The packed tile exponents of the board.
+	 */
+	public static long pack(Board board) {
+		validateLength(board.getLength());
+
+		long packedTiles = 0L;
+		for (int r = 0; r < LENGTH; r++) {
+			for (int c = 0; c < LENGTH; c++) {
+				packedTiles |= getExponent(board.getTile(c, r)) << getShift(c, r);
+			}
+		}
+
+		return packedTiles;
+	}
+
+	/**
+	 * Slide packed tiles without scoring them.
+	 *
+	 * @param tiles
+	 *            The packed tile exponents.
+	 * @param moveDirection
+	 *            The direction to slide the tiles.
+	 * @return The slid tiles, which equal the original tiles if the tiles cannot
+	 *         be slid in the direction.
+	 */
+	public static long slide(long tiles, MoveDirection moveDirection) {
+		boolean slideColumns = isSlideColumns(moveDirection);
+		boolean towardZero = isTowardZero(moveDirection);
+		long tilesToSlide = slideColumns ? transpose(tiles) : tiles;
+		long slidTiles = 0L;
+
+		for (int i = 0; i < LENGTH; i++) {
+			int shift = i * ROW_BITS;
+			slidTiles |= (long) RowTable.getRow(RowTable.slide((int) (tilesToSlide >>> shift) & ROW_MASK, towardZero)) << shift;
+		}
+
+		return slideColumns ? transpose(slidTiles) : slidTiles;
+	}
+
+	/**
+	 * @param tiles
+	 *            The packed tile exponents.
+	 * @param moveDirection
+	 *            The direction to slide the tiles.
+	 * @return The sum of the values of the tiles merged by sliding the packed
+	 *         tiles, the same as slideTiles returns.
+	 */
+	public static long getScore(long tiles, MoveDirection moveDirection) {
+		boolean towardZero = isTowardZero(moveDirection);
+		long tilesToSlide = isSlideColumns(moveDirection) ? transpose(tiles) : tiles;
+		long sum = 0L;
+
+		for (int i = 0; i < LENGTH; i++) {
+			sum += RowTable.getSum(RowTable.slide((int) (tilesToSlide >>> (i * ROW_BITS)) & ROW_MASK, towardZero));
+		}
+
+		return sum;
+	}
+
+	/**
+	 * @param tiles
+	 *            The packed tile exponents.
+	 * @return A mask of the directions the packed tiles can be slid in, with a bit
+	 *         for each MoveDirection ordinal.
+	 */
+	public static int getLegalMoveDirections(long tiles) {
+		long transposedTiles = transpose(tiles);
+		int legalMoveDirections = 0;
+
+		for (int i = 0; i < LENGTH; i++) {
+			int shift = i * ROW_BITS;
+			int row = (int) (tiles >>> shift) & ROW_MASK;
+			int col = (int) (transposedTiles >>> shift) & ROW_MASK;
+
+			legalMoveDirections |= getLegalMoveDirection(row, true, MoveDirection.LEFT);
+			legalMoveDirections |= getLegalMoveDirection(row, false, MoveDirection.RIGHT);
+			legalMoveDirections |= getLegalMoveDirection(col, true, MoveDirection.UP);
+			legalMoveDirections |= getLegalMoveDirection(col, false, MoveDirection.DOWN);
+		}
+
+		return legalMoveDirections;
+	}
+
+	private static int getLegalMoveDirection(int row, boolean towardZero, MoveDirection moveDirection) {
+		return RowTable.getRow(RowTable.slide(row, towardZero)) != row ? MoveResult.getMask(moveDirection) : 0;
+	}
+
+	/**
+	 * Set the tile at the specified location.
+	 *
+	 * Package-private for easy arrangements of tests.
+	 *
+	 * @param c
+	 *            The column on the Board (x-coordinate).
+	 * @param r
+	 *            The row on the Board (y-coordinate).
+	 * @param tile
+	 *            The Tile to add to the Board.
+	 */
+	void setTile(int c, int r, Tile tile) {
+		int shift = getShift(c, r);
+		tiles = tiles & ~(0xFL << shift) | getExponent(tile) << shift;
+	}
+
+	private static long getExponent(Tile tile) {
+		long exponent = tile == null ? 0L : tile.exponent();
+
+		if (exponent > MAX_EXPONENT) {
+			throw new IllegalArgumentException("Tile is too large to store on a packed board: " + tile);
+		}
+
+		return exponent;
+	}
+
+	private static int getShift(int c, int r) {
+		return (r * LENGTH + c) * 4;
+	}
+
+	private static boolean isSlideColumns(MoveDirection moveDirection) {
+		return moveDirection == MoveDirection.UP || moveDirection == MoveDirection.DOWN;
+	}
+
+	private static boolean isTowardZero(MoveDirection moveDirection) {
+		return moveDirection == MoveDirection.LEFT || moveDirection == MoveDirection.UP;
+	}
+
+	/**
+	 * Swap the rows and columns of a packed board.
+	 */
+	public static long transpose(long tiles) {
+		long a1 = tiles & 0xF0F00F0FF0F00F0FL;
+		long a2 = tiles & 0x0000F0F00000F0F0L;
+		long a3 = tiles & 0x0F0F00000F0F0000L;
+		long a = a1 | (a2 << 12) | (a3 >>> 12);
+		long b1 = a & 0xFF00FF0000FF00FFL;
+		long b2 = a & 0x00FF00FF00000000L;
+		long b3 = a & 0x00000000FF00FF00L;
+		return b1 | (b2 >>> 24) | (b3 << 24);
+	}
+
+	public static int countEmptyCells(long tiles) {
+		long occupied = tiles | (tiles >>> 1);
+		occupied |= occupied >>> 2;
+		return Long.bitCount(~occupied & NIBBLE_LOW_BITS);
+	}
+}
@@ -0,0 +1,152 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * A square game board of tiles that can be slid in each MoveDirection.
+ *
+ * Implementations differ only in how the tiles are stored, so callers such as
+ * the ui or headless simulations can choose one without other code changes.
+ * They may limit the lengths and tiles they store: a BitBoard is always 4x4
+ * and never combines two 32768 tiles, which a Grid does.
+ */
+public interface Board {
+	int getLength();
+
+	void setLength(int length);
+
+	/**
+	 * @param length
+	 *            The width and height of the board.
+	 * @return Whether the board can be set to the length, not counting whether
+	 *         the goal tile can be created on it.
+	 */
+	default boolean isSupportedLength(int length) {
+		return length >= 2;
+	}
+
+	/**
+	 * @return The exponent of the value of the Tile used to determine when the
+	 *         game is over: 11 for a 2048 tile.
+	 */
+	int getGoalTileExponent();
+
+	/**
+	 * Set the goal tile and clear the board.
+	 *
+	 * @param goalTileExponent
+	 *            The exponent of the value of the goal tile.
+	 */
+	void setGoalTileExponent(int goalTileExponent);
+
+	default long getGoalTileValue() {
+		return 1L << this.getGoalTileExponent();
+	}
+
+	/**
+	 * Set the goal tile and clear the board.
+	 *
+	 * @param goalTileValue
+	 *            The value of the goal tile, a power of 2 of at least 8.
+	 */
+	default void setGoalTileValue(long goalTileValue) {
+		this.setGoalTileExponent(BoardValidation.getGoalTileExponent(goalTileValue));
+	}
+
+	/**
+	 * @param c
+	 *            The column on the Board (x-coordinate).
+	 * @param r
+	 *            The row on the Board (y-coordinate).
+	 * @return The Tile at the location, or null if the cell is empty.
+	 */
+	Tile getTile(int c, int r);
+
+	void clear();
+
+	/**
+	 * Replace the source of the random tiles, such as with a newly seeded one for
+	 * each game.
+	 */
+	void setRandom(SplittableRandom random);
+
+	/**
+	 * Add a random tile to an empty spot on the board.
+	 *
+	 * @return The index of the cell the tile was added to, row-major (r * length
+	 *         + c).
+	 */
+	int addRandomTile();
+
+	/**
+	 * Add a tile chosen by the caller to an empty spot on the board, such as a
+	 * tile that was added randomly in a recorded game.
+	 *
+	 * @param cell
+	 *            The index of the cell to add the tile to, row-major (r * length
+	 *            + c).
+	 * @param tile
+	 *            The Tile to add.
+	 * @throws IllegalArgumentException
+	 *             If the cell is not empty.
+	 */
+	void addTile(int cell, Tile tile);
+
+	/**
+	 * Slide all tiles in the specified direction, combining equal tiles.
+	 *
+	 * @param moveDirection
+	 *            The direction to slide the tiles.
+	 * @return The sum of the newly created, combined tiles.
+	 */
+	long slideTiles(MoveDirection moveDirection);
+
+	/**
+	 * Slide all tiles in the specified direction, like slideTiles, and find the
+	 * directions the tiles can be slid in afterwards in the same pass over the
+	 * board.
+	 *
+	 * @param moveDirection
+	 *            The direction to slide the tiles.
+	 * @param moveResult
+	 *            Receives the outcome of the move.
+	 */
+	void move(MoveDirection moveDirection, MoveResult moveResult);
+
+	boolean canSlideTiles(MoveDirection moveDirection);
+
+	boolean canSlideInAnyDirection();
+
+	boolean isFilled();
+
+	/**
+	 * @return The number of cells without a tile.
+	 */
+	int getEmptyCellCount();
+
+	boolean goalTileCreated();
+
+	/**
+	 * Copy the tiles into a snapshot that can be restored with restoreState.
+	 *
+	 * @param states
+	 *            Receives the exponent of each tile, row-major, with 0 for an
+	 *            empty cell.
+	 * @param offset
+	 *            The index in states of the first of the length * length
+	 *            exponents.
+	 */
+	void saveState(byte[] states, int offset);
+
+	/**
+	 * Replace all tiles with the ones in a snapshot from saveState. The goal tile
+	 * is considered created if any tile is at least as large as it.
+	 *
+	 * @param states
+	 *            The exponent of each tile, row-major, with 0 for an empty cell.
+	 * @param offset
+	 *            The index in states of the first of the length * length
+	 *            exponents.
+	 */
+	void restoreState(byte[] states, int offset);
+}
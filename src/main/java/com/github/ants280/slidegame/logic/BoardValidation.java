@@ -0,0 +1,72 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * Checks of board lengths and goal tiles shared by the Board implementations.
+ * Goal tiles are compared by exponent, so no check needs floating point math or
+ * can overflow.
+ */
+final class BoardValidation {
+	/**
+	 * The exponent of the smallest goal tile, 8.
+	 */
+	static final int MIN_GOAL_TILE_EXPONENT = 3;
+
+	private BoardValidation() {
+	}
+
+	/**
+	 * @param goalTileValue
+	 *            A power of 2 of at least 8.
+	 * @return The exponent of the goal tile value.
+	 */
+	static int getGoalTileExponent(long goalTileValue) {
+		if (goalTileValue < (1L << MIN_GOAL_TILE_EXPONENT) || (goalTileValue & (goalTileValue - 1)) != 0) {
+			throw new IllegalArgumentException("Goal tile value must be a value of 2");
+		}
+
+		return Long.numberOfTrailingZeros(goalTileValue);
+	}
+
+	/**
+	 * Checks that the length is large enough to slide tiles and to create the goal
+	 * tile on a board of that length.
+	 */
+	static void validateLength(int length, int goalTileExponent) {
+		if (length < 2) {
+			throw new IllegalArgumentException("Length must be large enough " + "to slide tiles.  Found: " + length);
+		}
+
+		int minimumLength = getMinimumLength(goalTileExponent);
+
+		if (length < minimumLength) {
+			throw new IllegalArgumentException(String.format("Length of %d is too small to win with " + "a goalTileValue of 2^%d.  Must be at least %d", length, goalTileExponent, minimumLength));
+		}
+	}
+
+	/**
+	 * Checks that the goal tile can be created on a board of the length: the goal
+	 * tile exponent must be at most the number of cells.
+	 */
+	static void validateGoalTileExponent(int goalTileExponent, int length) {
+		if (goalTileExponent < MIN_GOAL_TILE_EXPONENT || goalTileExponent > Tile.MAX_EXPONENT) {
+			throw new IllegalArgumentException(String.format("Goal tile exponent must be between %d and %d.  Found: %d", MIN_GOAL_TILE_EXPONENT, Tile.MAX_EXPONENT, goalTileExponent));
+		}
+
+		if ((long) length * length < goalTileExponent) {
+			throw new IllegalArgumentException(String.format("Goal tile of value of 2^%d is too large to win with " + "a grid length of %d.  Must be at most 2^%d", goalTileExponent, length, (long) length * length));
+		}
+	}
+
+	/**
+	 * @return The smallest length with at least goalTileExponent - 1 cells.
+	 */
+	static int getMinimumLength(int goalTileExponent) {
+		int minimumLength = 1;
+
+		while (minimumLength * minimumLength < goalTileExponent - 1) {
+			minimumLength++;
+		}
+
+		return minimumLength;
+	}
+}
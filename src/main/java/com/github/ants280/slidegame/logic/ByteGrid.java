@@ -0,0 +1,475 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A Board for very large grids, such as 1024x1024.
+ *
+ * Each cell is a single byte tile exponent (0 for an empty cell, 1 for a 2 tile,
+ * 2 for a 4 tile, ...), stored row-major. Every row or column slides
+ * independently of the others, so grids of at least the parallel threshold
+ * length slide their rows/columns in parallel on the common ForkJoinPool.
+ * Smaller grids slide sequentially, where splitting the work costs more than it
+ * saves.
+ */
+public class ByteGrid implements Board {
+	/**
+	 * The default length at which rows/columns start to be slid in parallel.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 128;
+	/**
+	 * The number of cells each parallel task slides without splitting further.
+	 */
+	private static final int MIN_CELLS_PER_TASK = 1 << 14;
+	private SplittableRandom random;
+	private final int parallelThreshold;
+	private int length;
+	private byte[] exponents;
+	private int emptyCellCount;
+	private int goalTileExponent;
+	private boolean goalTileCreated;
+
+	public ByteGrid() {
+		this(4);
+	}
+
+	public ByteGrid(int length) {
+		this(length, 1024);
+	}
+
+	public ByteGrid(int length, long goalTileValue) {
+		this(length, goalTileValue, DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	public ByteGrid(int length, long goalTileValue, int parallelThreshold) {
+		this(length, goalTileValue, parallelThreshold, new SplittableRandom());
+	}
+
+	/**
+	 * Creates an empty, square grid of tiles.
+	 *
+	 * @param length
+	 *            The width and height of columns and rows in the grid.
+	 * @param goalTileValue
+	 *            The value of the Tile used to determine when the game is over.
+	 * @param parallelThreshold
+	 *            The smallest length to slide rows/columns in parallel at.
+	 * @param random
+	 *            The source of the random tiles. Only used by the thread adding
+	 *            tiles, never by the parallel slides.
+	 */
+	public ByteGrid(int length, long goalTileValue, int parallelThreshold, SplittableRandom random) {
+		this.random = random;
+		this.parallelThreshold = parallelThreshold;
+		this.goalTileExponent = BoardValidation.getGoalTileExponent(goalTileValue);
+
+		BoardValidation.validateLength(length, goalTileExponent);
+		BoardValidation.validateGoalTileExponent(goalTileExponent, length);
+
+		this.setExponents(length);
+	}
+
+	@Override
+	public int getLength() {
+		return length;
+	}
+
+	@Override
+	public void setLength(int length) {
+		BoardValidation.validateLength(length, goalTileExponent);
+		this.setExponents(length);
+	}
+
+	private void setExponents(int length) {
+		this.length = length;
+		this.exponents = new byte[length * length];
+		this.clear();
+	}
+
+	@Override
+	public int getGoalTileExponent() {
+		return goalTileExponent;
+	}
+
+	@Override
+	public void setGoalTileExponent(int goalTileExponent) {
+		BoardValidation.validateGoalTileExponent(goalTileExponent, length);
+		this.goalTileExponent = goalTileExponent;
+		this.clear();
+	}
+
+	@Override
+	public Tile getTile(int c, int r) {
+		return Tile.ofExponent(exponents[r * length + c]);
+	}
+
+	@Override
+	public void clear() {
+		for (int cell = 0; cell < exponents.length; cell++) {
+			exponents[cell] = 0;
+		}
+
+		emptyCellCount = exponents.length;
+		goalTileCreated = false;
+	}
+
+	@Override
+	public void setRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * Add a random tile to an empty spot on the grid. Cells are picked at random
+	 * until an empty one is found while many cells are empty. Otherwise, a random
+	 * empty cell is found by counting them.
+	 */
+	@Override
+	public int addRandomTile() {
+		if (this.isFilled()) {
+			throw new IllegalArgumentException("Cannot add random tile");
+		}
+
+		byte exponent = (byte) (random.nextInt(10) == 0 ? 2 : 1);
+		int cell;
+		if (emptyCellCount >= exponents.length >>> 4) {
+			do {
+				cell = random.nextInt(exponents.length);
+			} while (exponents[cell] != 0);
+		} else {
+			int emptyIndex = random.nextInt(emptyCellCount);
+			cell = 0;
+			while (exponents[cell] != 0 || emptyIndex-- != 0) {
+				cell++;
+			}
+		}
+
+		exponents[cell] = exponent;
+		emptyCellCount--;
+
+		return cell;
+	}
+
+	@Override
+	public void addTile(int cell, Tile tile) {
+		if (tile == null || exponents[cell] != 0) {
+			throw new IllegalArgumentException(String.format("Cannot add %s to cell %d", tile, cell));
+		}
+
+		exponents[cell] = (byte) tile.exponent();
+		emptyCellCount--;
+	}
+
+	@Override
+	public long slideTiles(MoveDirection moveDirection) {
+		SlideTask slideTask = this.slide(moveDirection);
+
+		return slideTask.sum;
+	}
+
+	/**
+	 * Slide all tiles in the specified direction. The legal directions are found
+	 * in a second pass over the grid after all rows/columns are slid, since a
+	 * row/column cannot be compared to its neighbor while that is being slid on
+	 * another thread.
+	 */
+	@Override
+	public void move(MoveDirection moveDirection, MoveResult moveResult) {
+		SlideTask slideTask = this.slide(moveDirection);
+
+		moveResult.set(slideTask.changed, slideTask.sum, goalTileCreated, this.getLegalMoveDirections());
+	}
+
+	private SlideTask slide(MoveDirection moveDirection) {
+		SlideTask slideTask = new SlideTask(isSlideColumns(moveDirection), isTowardZero(moveDirection), 0, length);
+
+		this.invoke(slideTask);
+
+		emptyCellCount += slideTask.mergeCount;
+		if (slideTask.goalTileCreated) {
+			goalTileCreated = true;
+		}
+
+		return slideTask;
+	}
+
+	@Override
+	public boolean canSlideTiles(MoveDirection moveDirection) {
+		boolean slideColumns = isSlideColumns(moveDirection);
+		boolean towardZero = isTowardZero(moveDirection);
+
+		for (int i = 0; i < length; i++) {
+			if (this.canSlideTiles(slideColumns, i, towardZero)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Determines if the tiles can be slid in any direction. A grid with both tiles
+	 * and empty cells always has a tile next to an empty cell that can be slid into
+	 * it, so only filled grids are checked.
+	 */
+	@Override
+	public boolean canSlideInAnyDirection() {
+		if (emptyCellCount != 0) {
+			return emptyCellCount != exponents.length;
+		}
+
+		return this.getLegalMoveDirections() != 0;
+	}
+
+	@Override
+	public boolean isFilled() {
+		return emptyCellCount == 0;
+	}
+
+	@Override
+	public int getEmptyCellCount() {
+		return emptyCellCount;
+	}
+
+	@Override
+	public boolean goalTileCreated() {
+		return goalTileCreated;
+	}
+
+	@Override
+	public void saveState(byte[] states, int offset) {
+		System.arraycopy(exponents, 0, states, offset, exponents.length);
+	}
+
+	@Override
+	public void restoreState(byte[] states, int offset) {
+		System.arraycopy(states, offset, exponents, 0, exponents.length);
+
+		emptyCellCount = 0;
+		goalTileCreated = false;
+		for (byte exponent : exponents) {
+			if (exponent == 0) {
+				emptyCellCount++;
+			} else if (exponent >= goalTileExponent) {
+				goalTileCreated = true;
+			}
+		}
+	}
+
+	/**
+	 * @return The smallest length at which rows/columns are slid in parallel.
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Set the tile at the specified location.
+	 *
+	 * Package-private for easy arrangements of tests.
+	 *
+	 * @param c
+	 *            The column on the Grid (x-coordinate).
+	 * @param r
+	 *            The row on the Grid (y-coordinate).
+	 * @param tile
+	 *            The Tile to add to the Grid.
+	 */
+	void setTile(int c, int r, Tile tile) {
+		int cell = r * length + c;
+		byte exponent = (byte) (tile == null ? 0 : tile.exponent());
+
+		if (exponents[cell] == 0 && exponent != 0) {
+			emptyCellCount--;
+		} else if (exponents[cell] != 0 && exponent == 0) {
+			emptyCellCount++;
+		}
+		exponents[cell] = exponent;
+	}
+
+	private void invoke(RecursiveAction action) {
+		if (length < parallelThreshold) {
+			action.invoke();
+		} else {
+			ForkJoinPool.commonPool().invoke(action);
+		}
+	}
+
+	private int getLegalMoveDirections() {
+		LegalMoveDirectionsTask legalMoveDirectionsTask = new LegalMoveDirectionsTask(0, length);
+
+		this.invoke(legalMoveDirectionsTask);
+
+		return legalMoveDirectionsTask.legalMoveDirections;
+	}
+
+	private boolean canSlideTiles(boolean slideColumns, int index, boolean towardZero) {
+		int lineStart = slideColumns ? index : index * length;
+		int stride = slideColumns ? length : 1;
+		int slideIndex = towardZero ? 0 : length - 1;
+		int slideDirectionDelta = towardZero ? 1 : -1;
+		byte lastSlidExponent = 0;
+
+		for (int i = slideIndex; towardZero ? i < length : i >= 0; i += slideDirectionDelta) {
+			byte exponent = exponents[lineStart + i * stride];
+			if (exponent != 0) {
+				if (lastSlidExponent == exponent || i != slideIndex) {
+					return true;
+				}
+				lastSlidExponent = exponent;
+				slideIndex += slideDirectionDelta;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isSlideColumns(MoveDirection moveDirection) {
+		return moveDirection == MoveDirection.UP || moveDirection == MoveDirection.DOWN;
+	}
+
+	private static boolean isTowardZero(MoveDirection moveDirection) {
+		return moveDirection == MoveDirection.LEFT || moveDirection == MoveDirection.UP;
+	}
+
+	/**
+	 * @return The number of rows/columns in a task that is not split further.
+	 */
+	private int getLinesPerTask() {
+		return Math.max(1, MIN_CELLS_PER_TASK / length);
+	}
+
+	/**
+	 * Slides a range of rows/columns, splitting the range in half until it is
+	 * small enough. Each row/column is compacted in place, like Grid.
+	 */
+	private class SlideTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final boolean slideColumns;
+		private final boolean towardZero;
+		private final int from;
+		private final int to;
+		private long sum;
+		private int mergeCount;
+		private boolean changed;
+		private boolean goalTileCreated;
+
+		private SlideTask(boolean slideColumns, boolean towardZero, int from, int to) {
+			this.slideColumns = slideColumns;
+			this.towardZero = towardZero;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= getLinesPerTask() || length < parallelThreshold) {
+				for (int i = from; i < to; i++) {
+					this.slideTiles(i);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				SlideTask left = new SlideTask(slideColumns, towardZero, from, middle);
+				SlideTask right = new SlideTask(slideColumns, towardZero, middle, to);
+				invokeAll(left, right);
+
+				sum = left.sum + right.sum;
+				mergeCount = left.mergeCount + right.mergeCount;
+				changed = left.changed || right.changed;
+				goalTileCreated = left.goalTileCreated || right.goalTileCreated;
+			}
+		}
+
+		private void slideTiles(int index) {
+			int lineStart = slideColumns ? index : index * length;
+			int stride = slideColumns ? length : 1;
+			int slideIndex = towardZero ? 0 : length - 1;
+			int slideDirectionDelta = towardZero ? 1 : -1;
+			boolean canCombineWithPreviousSlide = false;
+
+			for (int i = slideIndex; towardZero ? i < length : i >= 0; i += slideDirectionDelta) {
+				byte exponent = exponents[lineStart + i * stride];
+				if (exponent != 0) {
+					int previousSlideCell = lineStart + (slideIndex - slideDirectionDelta) * stride;
+					if (canCombineWithPreviousSlide && exponents[previousSlideCell] == exponent && exponent != Tile.MAX_EXPONENT) {
+						int nextExponent = exponent + 1;
+						exponents[previousSlideCell] = (byte) nextExponent;
+						sum += 1L << nextExponent;
+						mergeCount++;
+						changed = true;
+						canCombineWithPreviousSlide = false;
+						if (nextExponent == goalTileExponent) {
+							goalTileCreated = true;
+						}
+					} else {
+						if (i != slideIndex) {
+							exponents[lineStart + slideIndex * stride] = exponent;
+							changed = true;
+						}
+						slideIndex += slideDirectionDelta;
+						canCombineWithPreviousSlide = true;
+					}
+				}
+			}
+
+			for (int i = slideIndex; towardZero ? i < length : i >= 0; i += slideDirectionDelta) {
+				exponents[lineStart + i * stride] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Finds the directions a range of rows can be slid in by comparing each tile
+	 * to the tiles to its left and above it.
+	 */
+	private class LegalMoveDirectionsTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+		private int legalMoveDirections;
+
+		private LegalMoveDirectionsTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= getLinesPerTask() || length < parallelThreshold) {
+				for (int r = from; r < to; r++) {
+					this.addLegalMoveDirections(r);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				LegalMoveDirectionsTask top = new LegalMoveDirectionsTask(from, middle);
+				LegalMoveDirectionsTask bottom = new LegalMoveDirectionsTask(middle, to);
+				invokeAll(top, bottom);
+
+				legalMoveDirections = top.legalMoveDirections | bottom.legalMoveDirections;
+			}
+		}
+
+		private void addLegalMoveDirections(int r) {
+			int rowStart = r * length;
+
+			for (int c = 0; c < length; c++) {
+				byte exponent = exponents[rowStart + c];
+				if (c != 0) {
+					legalMoveDirections |= getLegalMoveDirections(exponents[rowStart + c - 1], exponent, MoveDirection.LEFT, MoveDirection.RIGHT);
+				}
+				if (r != 0) {
+					legalMoveDirections |= getLegalMoveDirections(exponents[rowStart - length + c], exponent, MoveDirection.UP, MoveDirection.DOWN);
+				}
+			}
+		}
+
+		private int getLegalMoveDirections(byte first, byte second, MoveDirection towardZero, MoveDirection awayFromZero) {
+			if (first == second) {
+				return first == 0 ? 0 : MoveResult.getMask(towardZero) | MoveResult.getMask(awayFromZero);
+			}
+
+			return (first == 0 ? MoveResult.getMask(towardZero) : 0) | (second == 0 ? MoveResult.getMask(awayFromZero) : 0);
+		}
+	}
+}
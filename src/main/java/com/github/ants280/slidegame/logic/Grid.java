@@ -1,13 +1,20 @@
 package com.github.ants280.slidegame.logic;
 
-import java.util.Random;
-
-public class Grid {
-	private final Random random;
+import java.util.SplittableRandom;
+
+/**
+ * A square Board of tiles stored in a single row-major array. Rows are
+ * traversed with a stride of one cell and columns with a stride of one row.
+ */
+public class Grid implements Board {
+	private SplittableRandom random;
 	private int length;
-	private Tile[][] cols;
-	private Tile[][] rows;
-	private int goalTileValue;
+	private Tile[] tiles;
+	private int[] emptyCells;
+	private int[] emptyCellIndexes;
+	private int emptyCellCount;
+	private int modificationCount;
+	private int goalTileExponent;
 	private boolean goalTileCreated;
 
 	public Grid() {
@@ -18,6 +25,10 @@ public class Grid {
 		this(length, 1024);
 	}
 
+	public Grid(int length, long goalTileValue) {
+		this(length, goalTileValue, new SplittableRandom());
+	}
+
 	/**
 	 * Creates an empty, square grid of tiles.
 	 *
@@ -25,135 +36,183 @@ public class Grid {
 	 *            The width and height of columns and rows in the grid.
 	 * @param goalTileValue
 	 *            The value of the Tile used to determine when the game is over.
+	 * @param random
+	 *            The source of the random tiles. A Grid adds the same tiles to
+	 *            the same cells for equally seeded sources, whether it is new or
+	 *            cleared.
 	 */
-	public Grid(int length, int goalTileValue) {
-		this.random = new Random();
+	public Grid(int length, long goalTileValue, SplittableRandom random) {
+		this.random = random;
 		this.length = length;
-		this.cols = createTiles(length);
-		this.rows = createTiles(length);
-		this.goalTileValue = goalTileValue;
+		this.tiles = new Tile[length * length];
+		this.createEmptyCells();
+		this.goalTileExponent = BoardValidation.getGoalTileExponent(goalTileValue);
 		this.goalTileCreated = false;
 
-		this.validateLength(length);
-		this.validateGoalTileValue(goalTileValue);
+		BoardValidation.validateLength(length, goalTileExponent);
+		BoardValidation.validateGoalTileExponent(goalTileExponent, length);
 	}
 
+	@Override
 	public int getLength() {
 		return length;
 	}
 
+	@Override
 	public void setLength(int length) {
-		this.validateLength(length);
+		BoardValidation.validateLength(length, goalTileExponent);
 		this.length = length;
-		this.cols = createTiles(length);
-		this.rows = createTiles(length);
+		this.tiles = new Tile[length * length];
+		this.createEmptyCells();
 		this.clear();
 	}
 
-	public int getGoalTileValue() {
-		return goalTileValue;
+	@Override
+	public int getGoalTileExponent() {
+		return goalTileExponent;
 	}
 
-	public void setGoalTileValue(int goalTileValue) {
-		this.validateGoalTileValue(goalTileValue);
-		this.goalTileValue = goalTileValue;
+	@Override
+	public void setGoalTileExponent(int goalTileExponent) {
+		BoardValidation.validateGoalTileExponent(goalTileExponent, length);
+		this.goalTileExponent = goalTileExponent;
 		this.clear();
 	}
 
-	private void validateLength(int length) {
-		if (length < 2) {
-			throw new IllegalArgumentException("Length must be large enough " + "to slide tiles.  Found: " + length);
-		}
-
-		int minimumLength = (int) Math.ceil(Math.sqrt(Math.log(goalTileValue) / Math.log(2) - 1));
-
-		if (length < minimumLength) {
-			throw new IllegalArgumentException(String.format("Length of %d is too small to win with " + "a goalTileValue of %d.  Must be at least %d", length, goalTileValue, minimumLength));
-		}
-	}
-
-	private void validateGoalTileValue(int goalTileValue) {
-		if (goalTileValue < 8 || (goalTileValue & (goalTileValue - 1)) != 0) {
-			throw new IllegalArgumentException("Goal tile value must be a value of 2");
-		}
-
-		int maximumGoalTileValue = (int) Math.pow(2, Math.pow(length, 2));
-
-		if (goalTileValue > maximumGoalTileValue) {
-			throw new IllegalArgumentException(String.format("Goal tile of value of %d is too large to win with " + "a grid length of %d.  Must be at least %d", goalTileValue, length, maximumGoalTileValue));
-		}
-	}
-
+	@Override
 	public Tile getTile(int c, int r) {
-		return rows[r][c];
+		return tiles[r * length + c];
 	}
 
+	@Override
 	public void clear() {
-		for (int r = 0; r < length; r++) {
-			for (int c = 0; c < length; c++) {
-				this.setTile(c, r, null);
-			}
+		for (int cell = 0; cell < tiles.length; cell++) {
+			this.setTile(cell, null);
 		}
+		// Put the empty cells back in order, so the cells of the random tiles
+		// depend on the random source alone and not on earlier games:
+		this.resetEmptyCells();
 
 		goalTileCreated = false;
 	}
 
+	@Override
+	public void setRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
 	/**
-	 * Add a random tile to an empty spot on the grid.
-	 *
-	 * This may be slow with fairly-filled game boards due to random adding.
+	 * Add a random tile to an empty spot on the grid. The spot is picked directly
+	 * from the empty cells, so this takes the same time on any grid.
 	 */
-	public void addRandomTile() {
+	@Override
+	public int addRandomTile() {
 		if (this.isFilled()) {
 			throw new IllegalArgumentException("Cannot add random tile");
 		}
 
-		int c;
-		int r;
-
 		Tile tile = random.nextInt(10) == 0 ? Tile.TWO.getNext() : Tile.TWO;
-		do {
-			c = random.nextInt(length);
-			r = random.nextInt(length);
-		} while (this.getTile(c, r) != null);
+		int cell = emptyCells[random.nextInt(emptyCellCount)];
+
+		this.setTile(cell, tile);
+
+		return cell;
+	}
+
+	@Override
+	public void addTile(int cell, Tile tile) {
+		if (tile == null || tiles[cell] != null) {
+			throw new IllegalArgumentException(String.format("Cannot add %s to cell %d", tile, cell));
+		}
 
-		this.setTile(c, r, tile);
+		this.setTile(cell, tile);
 	}
 
-	public int slideTiles(MoveDirection moveDirection) {
+	@Override
+	public long slideTiles(MoveDirection moveDirection) {
 		return this.slideTiles(moveDirection == MoveDirection.UP || moveDirection == MoveDirection.DOWN, moveDirection == MoveDirection.LEFT || moveDirection == MoveDirection.UP);
 	}
 
+	/**
+	 * Slide all tiles in the specified direction. Each row/column is checked
+	 * against its neighbors for legal moves right after it is slid, so the board
+	 * is only traversed once.
+	 */
+	@Override
+	public void move(MoveDirection moveDirection, MoveResult moveResult) {
+		boolean slideColumns = moveDirection == MoveDirection.UP || moveDirection == MoveDirection.DOWN;
+		boolean towardZero = moveDirection == MoveDirection.LEFT || moveDirection == MoveDirection.UP;
+		int previousModificationCount = modificationCount;
+		long sum = 0L;
+		int legalMoveDirections = 0;
+
+		for (int i = 0; i < length; i++) {
+			sum += this.slideTiles(slideColumns, i, towardZero);
+			legalMoveDirections |= this.getLegalMoveDirections(slideColumns, i);
+		}
+
+		moveResult.set(modificationCount != previousModificationCount, sum, goalTileCreated, legalMoveDirections);
+	}
+
+	@Override
 	public boolean canSlideTiles(MoveDirection moveDirection) {
 		return this.canSlideTiles(moveDirection == MoveDirection.UP || moveDirection == MoveDirection.DOWN, moveDirection == MoveDirection.LEFT || moveDirection == MoveDirection.UP);
 	}
 
+	/**
+	 * Determines if the tiles can be slid in any direction. A grid with both tiles
+	 * and empty cells always has a tile next to an empty cell that can be slid into
+	 * it, so only filled grids are checked.
+	 */
+	@Override
 	public boolean canSlideInAnyDirection() {
-		for (MoveDirection moveDirection : MoveDirection.values()) {
-			if (this.canSlideTiles(moveDirection)) {
-				return true;
-			}
+		if (emptyCellCount != 0) {
+			return emptyCellCount != length * length;
 		}
 
-		return false;
+		int legalMoveDirections = 0;
+		for (int r = 0; r < length && legalMoveDirections == 0; r++) {
+			legalMoveDirections |= this.getLegalMoveDirections(false, r);
+		}
+
+		return legalMoveDirections != 0;
 	}
 
+	@Override
 	public boolean isFilled() {
-		for (int r = 0; r < length; r++) {
-			for (int c = 0; c < length; c++) {
-				if (this.getTile(c, r) == null) {
-					return false;
-				}
-			}
-		}
+		return emptyCellCount == 0;
+	}
 
-		return true;
+	@Override
+	public int getEmptyCellCount() {
+		return emptyCellCount;
 	}
 
+	@Override
 	public boolean goalTileCreated() {
 		return goalTileCreated;
 	}
 
+	@Override
+	public void saveState(byte[] states, int offset) {
+		for (int cell = 0; cell < tiles.length; cell++) {
+			Tile tile = tiles[cell];
+			states[offset + cell] = (byte) (tile == null ? 0 : tile.exponent());
+		}
+	}
+
+	@Override
+	public void restoreState(byte[] states, int offset) {
+		goalTileCreated = false;
+		for (int cell = 0; cell < tiles.length; cell++) {
+			int exponent = states[offset + cell];
+			this.setTile(cell, Tile.ofExponent(exponent));
+			if (exponent >= goalTileExponent) {
+				goalTileCreated = true;
+			}
+		}
+	}
+
 	private boolean canSlideTiles(boolean slideColumns, boolean towardZero) {
 		for (int i = 0; i < length; i++) {
 			if (this.canSlideTiles(slideColumns, i, towardZero)) {
@@ -164,8 +223,8 @@ public class Grid {
 		return false;
 	}
 
-	private int slideTiles(boolean slideColumns, boolean towardZero) {
-		int sum = 0;
+	private long slideTiles(boolean slideColumns, boolean towardZero) {
+		long sum = 0L;
 
 		for (int i = 0; i < length; i++) {
 			sum += this.slideTiles(slideColumns, i, towardZero);
@@ -190,15 +249,17 @@ public class Grid {
 	private boolean canSlideTiles(boolean slideColumns, int index, boolean towardZero) {
 		Tile lastSlidTile = null;
 
-		Tile[] tilesToSlide = this.getTilesToSlide(slideColumns, index);
+		int lineStart = this.getLineStart(slideColumns, index);
+		int stride = this.getStride(slideColumns);
 		int slideIndex = this.getSlideIndex(towardZero);
 		int slideDirectionDelta = this.getSlideDirectionDelta(towardZero);
 		for (int i = slideIndex; towardZero ? i < length : i >= 0; i += slideDirectionDelta) {
-			if (tilesToSlide[i] != null) {
-				if (lastSlidTile == tilesToSlide[i] || i != slideIndex) {
+			Tile tile = tiles[lineStart + i * stride];
+			if (tile != null) {
+				if (lastSlidTile == tile || i != slideIndex) {
 					return true;
 				} else {
-					lastSlidTile = tilesToSlide[i];
+					lastSlidTile = tile;
 					slideIndex += slideDirectionDelta;
 				}
 			}
@@ -208,7 +269,10 @@ public class Grid {
 	}
 
 	/**
-	 * Slide the tiles at the specified index in the specified direction.
+	 * Slide the tiles at the specified index in the specified direction. The tiles
+	 * are compacted in place: each tile is only moved to a cell that has already
+	 * been read, and the cells after the last slid tile are emptied. Only cells
+	 * that change are written, and nothing is allocated.
 	 *
 	 * @param slideColumns
 	 *            Whether or not a column or row is being slid (consolidated).
@@ -219,39 +283,98 @@ public class Grid {
 	 *            down/right (toward the end of the array).
 	 * @return The sum of the newly created, combined tiles.
 	 */
-	private int slideTiles(boolean slideColumns, int index, boolean towardZero) {
-		int sum = 0;
-		Tile[] slidTiles = new Tile[length];
+	private long slideTiles(boolean slideColumns, int index, boolean towardZero) {
+		long sum = 0L;
 		boolean canCombineWithPreviousSlide = false;
 
-		Tile[] tilesToSlide = this.getTilesToSlide(slideColumns, index);
+		int lineStart = this.getLineStart(slideColumns, index);
+		int stride = this.getStride(slideColumns);
 		int slideIndex = this.getSlideIndex(towardZero);
 		int slideDirectionDelta = this.getSlideDirectionDelta(towardZero);
 		for (int i = slideIndex; towardZero ? i < length : i >= 0; i += slideDirectionDelta) {
-			if (tilesToSlide[i] != null) {
-				if (canCombineWithPreviousSlide && slidTiles[slideIndex - slideDirectionDelta] == tilesToSlide[i]) {
-					Tile nextTile = tilesToSlide[i].getNext();
-					slidTiles[slideIndex - slideDirectionDelta] = nextTile;
+			Tile tile = tiles[lineStart + i * stride];
+			if (tile != null) {
+				if (canCombineWithPreviousSlide && tiles[lineStart + (slideIndex - slideDirectionDelta) * stride] == tile) {
+					Tile nextTile = tile.getNext();
+					this.setTile(lineStart + (slideIndex - slideDirectionDelta) * stride, nextTile);
 					sum += nextTile.getValue();
 					canCombineWithPreviousSlide = false;
-					if (nextTile.getValue() == goalTileValue) {
+					if (nextTile.exponent() == goalTileExponent) {
 						goalTileCreated = true;
 					}
 				} else {
-					slidTiles[slideIndex] = tilesToSlide[i];
+					this.setTile(lineStart + slideIndex * stride, tile);
 					slideIndex += slideDirectionDelta;
 					canCombineWithPreviousSlide = true;
 				}
 			}
 		}
 
-		this.setTiles(slideColumns, index, slidTiles);
+		for (int i = slideIndex; towardZero ? i < length : i >= 0; i += slideDirectionDelta) {
+			this.setTile(lineStart + i * stride, null);
+		}
 
 		return sum;
 	}
 
-	private Tile[] getTilesToSlide(boolean slideColumns, int index) {
-		return slideColumns ? cols[index] : rows[index];
+	/**
+	 * Determines the directions the tiles at the index can be slid in, by
+	 * comparing the tiles to each other and to the tiles of the previous
+	 * row/column. Checking every index finds all legal directions for the grid.
+	 *
+	 * @return A mask of MoveResult directions.
+	 */
+	private int getLegalMoveDirections(boolean slideColumns, int index) {
+		int legalMoveDirections = 0;
+		int lineStart = this.getLineStart(slideColumns, index);
+		int stride = this.getStride(slideColumns);
+		int previousLineStart = lineStart - this.getStride(!slideColumns);
+		int alongTowardZero = MoveResult.getMask(slideColumns ? MoveDirection.UP : MoveDirection.LEFT);
+		int alongAwayFromZero = MoveResult.getMask(slideColumns ? MoveDirection.DOWN : MoveDirection.RIGHT);
+		int acrossTowardZero = MoveResult.getMask(slideColumns ? MoveDirection.LEFT : MoveDirection.UP);
+		int acrossAwayFromZero = MoveResult.getMask(slideColumns ? MoveDirection.RIGHT : MoveDirection.DOWN);
+
+		for (int i = 0; i < length; i++) {
+			Tile tile = tiles[lineStart + i * stride];
+			if (i != 0) {
+				legalMoveDirections |= getLegalMoveDirections(tiles[lineStart + (i - 1) * stride], tile, alongTowardZero, alongAwayFromZero);
+			}
+			if (index != 0) {
+				legalMoveDirections |= getLegalMoveDirections(tiles[previousLineStart + i * stride], tile, acrossTowardZero, acrossAwayFromZero);
+			}
+		}
+
+		return legalMoveDirections;
+	}
+
+	/**
+	 * @param first
+	 *            The tile closer to zero.
+	 * @param second
+	 *            The tile next to the first tile, farther from zero.
+	 * @return The mask of the directions the pair of tiles can be slid in.
+	 */
+	private static int getLegalMoveDirections(Tile first, Tile second, int towardZeroMask, int awayFromZeroMask) {
+		if (first == second) {
+			return first == null ? 0 : towardZeroMask | awayFromZeroMask;
+		}
+
+		return (first == null ? towardZeroMask : 0) | (second == null ? awayFromZeroMask : 0);
+	}
+
+	/**
+	 * @return The cell of the first tile in the row or column.
+	 */
+	private int getLineStart(boolean slideColumns, int index) {
+		return slideColumns ? index : index * length;
+	}
+
+	/**
+	 * @return The distance between the cells of neighboring tiles in a column or
+	 *         row.
+	 */
+	private int getStride(boolean slideColumns) {
+		return slideColumns ? length : 1;
 	}
 
 	private int getSlideIndex(boolean towardZero) {
@@ -262,15 +385,8 @@ public class Grid {
 		return towardZero ? 1 : -1;
 	}
 
-	private void setTiles(boolean slideColumns, int index, Tile[] tempArray) {
-		for (int i = 0; i < length; i++) {
-			this.setTile(slideColumns ? index : i, slideColumns ? i : index, tempArray[i]);
-		}
-	}
-
 	/**
-	 * Set the tile at the specified location. Updates the both the rows and columns
-	 * to keep the reflective data structure intact.
+	 * Set the tile at the specified location, and update the empty cells.
 	 *
 	 * Package-private for easy arrangements of tests.
 	 *
@@ -282,17 +398,57 @@ public class Grid {
 	 *            The Tile to ad to the Grid.
 	 */
 	void setTile(int c, int r, Tile tile) {
-		rows[r][c] = tile;
-		cols[c][r] = tile;
+		this.setTile(r * length + c, tile);
 	}
 
-	private static Tile[][] createTiles(int length) {
-		Tile[][] tiles = new Tile[length][];
+	private void setTile(int cell, Tile tile) {
+		Tile previousTile = tiles[cell];
+		if (previousTile == tile) {
+			return;
+		}
+
+		modificationCount++;
+		tiles[cell] = tile;
 
-		for (int i = 0; i < length; i++) {
-			tiles[i] = new Tile[length];
+		if (previousTile == null) {
+			this.removeEmptyCell(cell);
+		} else if (tile == null) {
+			this.addEmptyCell(cell);
+		}
+	}
+
+	/**
+	 * The empty cells are kept in the front of an array of cell indexes, with the
+	 * index of each cell in that array, so cells are added and removed by swapping
+	 * with the last empty cell.
+	 */
+	private void createEmptyCells() {
+		emptyCells = new int[length * length];
+		emptyCellIndexes = new int[length * length];
+		this.resetEmptyCells();
+	}
+
+	private void resetEmptyCells() {
+		emptyCellCount = 0;
+
+		for (int cell = 0; cell < tiles.length; cell++) {
+			if (tiles[cell] == null) {
+				this.addEmptyCell(cell);
+			}
 		}
+	}
+
+	private void addEmptyCell(int cell) {
+		emptyCells[emptyCellCount] = cell;
+		emptyCellIndexes[cell] = emptyCellCount;
+		emptyCellCount++;
+	}
+
+	private void removeEmptyCell(int cell) {
+		int index = emptyCellIndexes[cell];
+		int lastCell = emptyCells[--emptyCellCount];
 
-		return tiles;
+		emptyCells[index] = lastCell;
+		emptyCellIndexes[lastCell] = index;
 	}
 }
@@ -0,0 +1,153 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * A bounded undo/redo history of Board states.
+ *
+ * Each state is a snapshot from Board.saveState, one byte per cell, kept with
+ * the score of the game at that state in a ring buffer allocated once per board
+ * size. Recording a state when the buffer is full drops the oldest one, so the
+ * memory used stays the same however long the game is, and undoing or redoing
+ * only copies one snapshot.
+ *
+ * States are recorded after the random tile is added, so redoing a move brings
+ * back the same tile. The current state can also be restored without undoing
+ * it, which lets callers try moves on a Board and roll each one back. Not
+ * thread-safe.
+ */
+public class MoveHistory {
+	public static final int DEFAULT_CAPACITY = 1024;
+	private final int capacity;
+	private int cellCount;
+	private byte[] states;
+	private long[] scores;
+	private int first;
+	private int size;
+	private int position;
+
+	public MoveHistory() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity
+	 *            The maximum number of states to keep, including the current one.
+	 */
+	public MoveHistory(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive.  Found: " + capacity);
+		}
+
+		this.capacity = capacity;
+		this.cellCount = 0;
+		this.scores = new long[capacity];
+		this.clear();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Forget all states.
+	 */
+	public void clear() {
+		first = 0;
+		size = 0;
+		position = -1;
+	}
+
+	/**
+	 * Make the state of the board the current state, forgetting any states that
+	 * could have been redone.
+	 *
+	 * @param board
+	 *            The board to copy the tiles of.
+	 * @param score
+	 *            The score of the game at the state.
+	 */
+	public void record(Board board, long score) {
+		int boardCellCount = board.getLength() * board.getLength();
+		if (boardCellCount != cellCount) {
+			cellCount = boardCellCount;
+			states = new byte[capacity * cellCount];
+			this.clear();
+		}
+
+		size = position + 1;
+		if (size == capacity) {
+			first = this.getSlot(1);
+			size--;
+		}
+
+		int slot = this.getSlot(size);
+		board.saveState(states, slot * cellCount);
+		scores[slot] = score;
+		position = size;
+		size++;
+	}
+
+	public boolean canUndo() {
+		return position > 0;
+	}
+
+	public boolean canRedo() {
+		return position < size - 1;
+	}
+
+	/**
+	 * Restore the state recorded before the current one.
+	 *
+	 * @param board
+	 *            The board to restore the tiles of.
+	 * @return The score of the game at the restored state.
+	 */
+	public long undo(Board board) {
+		if (!this.canUndo()) {
+			throw new IllegalStateException("No state to undo to");
+		}
+
+		position--;
+		return this.rollback(board);
+	}
+
+	/**
+	 * Restore the state that was current before the last undo.
+	 *
+	 * @param board
+	 *            The board to restore the tiles of.
+	 * @return The score of the game at the restored state.
+	 */
+	public long redo(Board board) {
+		if (!this.canRedo()) {
+			throw new IllegalStateException("No state to redo to");
+		}
+
+		position++;
+		return this.rollback(board);
+	}
+
+	/**
+	 * Restore the current state, undoing any changes made to the board since it
+	 * was recorded, undone or redone.
+	 *
+	 * @param board
+	 *            The board to restore the tiles of.
+	 * @return The score of the game at the current state.
+	 */
+	public long rollback(Board board) {
+		if (size == 0) {
+			throw new IllegalStateException("No state recorded");
+		}
+		if (board.getLength() * board.getLength() != cellCount) {
+			throw new IllegalArgumentException(String.format("Board has %d cells, but the recorded states have %d", board.getLength() * board.getLength(), cellCount));
+		}
+
+		int slot = this.getSlot(position);
+		board.restoreState(states, slot * cellCount);
+		return scores[slot];
+	}
+
+	private int getSlot(int index) {
+		return (first + index) % capacity;
+	}
+}
@@ -0,0 +1,64 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * The outcome of Board.move. Instances are meant to be reused for every move of
+ * a game, so moving does not create garbage.
+ */
+public class MoveResult {
+	private boolean changed;
+	private long score;
+	private boolean goalTileCreated;
+	private int legalMoveDirections;
+
+	/**
+	 * @return Whether or not the move slid any tiles. If not, the board is
+	 *         unchanged and no tile should be added.
+	 */
+	public boolean isChanged() {
+		return changed;
+	}
+
+	/**
+	 * @return The sum of the newly created, combined tiles.
+	 */
+	public long getScore() {
+		return score;
+	}
+
+	/**
+	 * @return Whether or not the goal tile has been created on the board.
+	 */
+	public boolean isGoalTileCreated() {
+		return goalTileCreated;
+	}
+
+	/**
+	 * @param moveDirection
+	 *            The direction of a following move.
+	 * @return Whether or not the tiles could be slid in the direction after the
+	 *         move, before a random tile is added.
+	 */
+	public boolean canSlideTiles(MoveDirection moveDirection) {
+		return (legalMoveDirections & getMask(moveDirection)) != 0;
+	}
+
+	public boolean canSlideInAnyDirection() {
+		return legalMoveDirections != 0;
+	}
+
+	void set(boolean changed, long score, boolean goalTileCreated, int legalMoveDirections) {
+		this.changed = changed;
+		this.score = score;
+		this.goalTileCreated = goalTileCreated;
+		this.legalMoveDirections = legalMoveDirections;
+	}
+
+	static int getMask(MoveDirection moveDirection) {
+		return 1 << moveDirection.ordinal();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MoveResult{changed=%b,score=%d,goalTileCreated=%b,legalMoveDirections=%s}", changed, score, goalTileCreated, Integer.toBinaryString(legalMoveDirections));
+	}
+}
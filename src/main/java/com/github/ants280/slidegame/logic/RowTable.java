@@ -0,0 +1,95 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * Precomputed results of sliding every possible packed row of four tile
+ * exponents, so slides on a BitBoard are table lookups instead of loops.
+ *
+ * Each entry holds the slid row in the lowest 16 bits, a mask of the exponents
+ * created by merging in the next 16 bits and the sum of the newly created,
+ * combined tiles in the upper 32 bits. A row can be slid if its entry's row
+ * differs from the row itself. The merge mask and sum of a row are the same in
+ * both directions, but are stored in both tables to keep lookups to one load.
+ */
+final class RowTable {
+	static final int ROW_BITS = 16;
+	static final int ROW_MASK = 0xFFFF;
+	static final int MAX_EXPONENT = 15;
+	private static final int ROW_LENGTH = 4;
+	private static final long[] LEFT = new long[ROW_MASK + 1];
+	private static final long[] RIGHT = new long[ROW_MASK + 1];
+
+	static {
+		for (int row = 0; row <= ROW_MASK; row++) {
+			long slideResult = slideRowLeft(row);
+			LEFT[row] = slideResult;
+
+			int reversedRow = reverseRow(row);
+			RIGHT[reversedRow] = slideResult & ~(long) ROW_MASK | reverseRow((int) slideResult & ROW_MASK);
+		}
+	}
+
+	private RowTable() {
+	}
+
+	/**
+	 * @param row
+	 *            The four tile exponents of the row, the first in the lowest
+	 *            bits.
+	 * @param towardZero
+	 *            Whether or not to slide the row left (toward zero) or right.
+	 * @return The table entry for sliding the row in the specified direction.
+	 */
+	static long slide(int row, boolean towardZero) {
+		return towardZero ? LEFT[row] : RIGHT[row];
+	}
+
+	static int getRow(long slideResult) {
+		return (int) slideResult & ROW_MASK;
+	}
+
+	static int getMergedExponents(long slideResult) {
+		return (int) (slideResult >>> ROW_BITS) & ROW_MASK;
+	}
+
+	static int getSum(long slideResult) {
+		return (int) (slideResult >>> 32);
+	}
+
+	/**
+	 * Slide a packed row toward zero using the same merge order as Grid. Tiles of
+	 * the largest storable exponent are not combined.
+	 */
+	private static long slideRowLeft(int row) {
+		int slidRow = 0;
+		int mergedExponents = 0;
+		int sum = 0;
+		int slideIndex = 0;
+		int lastSlidExponent = 0;
+		boolean canCombineWithPreviousSlide = false;
+
+		for (int i = 0; i < ROW_LENGTH; i++) {
+			int exponent = row >>> (i * 4) & 0xF;
+			if (exponent != 0) {
+				if (canCombineWithPreviousSlide && lastSlidExponent == exponent && exponent != MAX_EXPONENT) {
+					int nextExponent = exponent + 1;
+					int shift = (slideIndex - 1) * 4;
+					slidRow = slidRow & ~(0xF << shift) | nextExponent << shift;
+					mergedExponents |= 1 << nextExponent;
+					sum += 1 << nextExponent;
+					canCombineWithPreviousSlide = false;
+				} else {
+					slidRow |= exponent << (slideIndex * 4);
+					slideIndex++;
+					lastSlidExponent = exponent;
+					canCombineWithPreviousSlide = true;
+				}
+			}
+		}
+
+		return (long) sum << 32 | (long) mergedExponents << ROW_BITS | slidRow;
+	}
+
+	private static int reverseRow(int row) {
+		return (row & 0xF) << 12 | (row & 0xF0) << 4 | (row & 0xF00) >>> 4 | (row & 0xF000) >>> 12;
+	}
+}
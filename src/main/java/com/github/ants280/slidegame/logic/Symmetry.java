@@ -0,0 +1,165 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * The eight rotations and reflections of a square board, applied to 4x4 boards
+ * packed like a BitBoard.
+ *
+ * Sliding a transformed board in the transformed direction gives the same
+ * board as transforming the slid board, so positions that only differ by a
+ * Symmetry can share one entry in caches, opening books and the like. The
+ * canonical form of a board is the smallest of its eight transformations,
+ * compared as signed longs.
+ */
+public enum Symmetry {
+	IDENTITY(1, 0, 0, 1),
+	/**
+	 * Mirror the columns, so the left column becomes the right one.
+	 */
+	FLIP_HORIZONTAL(-1, 0, 0, 1),
+	/**
+	 * Mirror the rows, so the top row becomes the bottom one.
+	 */
+	FLIP_VERTICAL(1, 0, 0, -1),
+	ROTATE_180(-1, 0, 0, -1),
+	/**
+	 * Swap the rows and columns, mirroring the board on its main diagonal.
+	 */
+	TRANSPOSE(0, 1, 1, 0),
+	/**
+	 * Mirror the board on the diagonal from the top right to the bottom left.
+	 */
+	ANTI_TRANSPOSE(0, -1, -1, 0),
+	ROTATE_CLOCKWISE(0, -1, 1, 0),
+	ROTATE_COUNTERCLOCKWISE(0, 1, -1, 0);
+
+	private static final Symmetry[] SYMMETRIES = Symmetry.values();
+	private static final long COLUMN_0 = 0x000F000F000F000FL;
+	private static final long COLUMN_1 = 0x00F000F000F000F0L;
+	private static final long COLUMN_2 = 0x0F000F000F000F00L;
+	private static final long COLUMN_3 = 0xF000F000F000F000L;
+	private static final long ROW_1 = 0x00000000FFFF0000L;
+	private static final long ROW_2 = 0x0000FFFF00000000L;
+	private final MoveDirection[] moveDirections;
+
+	/**
+	 * The matrix that maps the (dx, dy) of each MoveDirection.
+	 */
+	Symmetry(int dxFromDx, int dxFromDy, int dyFromDx, int dyFromDy) {
+		MoveDirection[] allMoveDirections = MoveDirection.values();
+		this.moveDirections = new MoveDirection[allMoveDirections.length];
+
+		for (MoveDirection moveDirection : allMoveDirections) {
+			int dx = dxFromDx * moveDirection.getDx() + dxFromDy * moveDirection.getDy();
+			int dy = dyFromDx * moveDirection.getDx() + dyFromDy * moveDirection.getDy();
+			for (MoveDirection transformedMoveDirection : allMoveDirections) {
+				if (transformedMoveDirection.getDx() == dx && transformedMoveDirection.getDy() == dy) {
+					moveDirections[moveDirection.ordinal()] = transformedMoveDirection;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param tiles
+	 *            The packed tile exponents.
+	 * @return The transformed packed tile exponents.
+	 */
+	public long apply(long tiles) {
+		switch (this) {
+		case FLIP_HORIZONTAL:
+			return flipHorizontal(tiles);
+		case FLIP_VERTICAL:
+			return flipVertical(tiles);
+		case ROTATE_180:
+			return flipVertical(flipHorizontal(tiles));
+		case TRANSPOSE:
+			return BitBoard.transpose(tiles);
+		case ANTI_TRANSPOSE:
+			return flipVertical(flipHorizontal(BitBoard.transpose(tiles)));
+		case ROTATE_CLOCKWISE:
+			return flipHorizontal(BitBoard.transpose(tiles));
+		case ROTATE_COUNTERCLOCKWISE:
+			return flipVertical(BitBoard.transpose(tiles));
+		default:
+			return tiles;
+		}
+	}
+
+	/**
+	 * @return The direction to slide the transformed board in to get the
+	 *         transformed result of sliding the board in the direction.
+	 */
+	public MoveDirection apply(MoveDirection moveDirection) {
+		return moveDirections[moveDirection.ordinal()];
+	}
+
+	/**
+	 * @return The Symmetry that undoes this one.
+	 */
+	public Symmetry inverse() {
+		switch (this) {
+		case ROTATE_CLOCKWISE:
+			return ROTATE_COUNTERCLOCKWISE;
+		case ROTATE_COUNTERCLOCKWISE:
+			return ROTATE_CLOCKWISE;
+		default:
+			return this;
+		}
+	}
+
+	/**
+	 * @param tiles
+	 *            The packed tile exponents.
+	 * @return The smallest of the eight transformations of the board, which is
+	 *         the same for each of them.
+	 */
+	public static long canonicalize(long tiles) {
+		long flipped = flipHorizontal(tiles);
+		long transposed = BitBoard.transpose(tiles);
+		long flippedTransposed = flipHorizontal(transposed);
+
+		long canonicalTiles = Math.min(tiles, flipped);
+		canonicalTiles = Math.min(canonicalTiles, flipVertical(tiles));
+		canonicalTiles = Math.min(canonicalTiles, flipVertical(flipped));
+		canonicalTiles = Math.min(canonicalTiles, transposed);
+		canonicalTiles = Math.min(canonicalTiles, flippedTransposed);
+		canonicalTiles = Math.min(canonicalTiles, flipVertical(transposed));
+		return Math.min(canonicalTiles, flipVertical(flippedTransposed));
+	}
+
+	/**
+	 * @param tiles
+	 *            The packed tile exponents.
+	 * @return The Symmetry that transforms the board into its canonical form.
+	 *         Apply its inverse to map results for the canonical board, such as a
+	 *         best move, back onto the board.
+	 */
+	public static Symmetry getCanonicalSymmetry(long tiles) {
+		Symmetry canonicalSymmetry = IDENTITY;
+		long canonicalTiles = tiles;
+
+		for (Symmetry symmetry : SYMMETRIES) {
+			long transformedTiles = symmetry.apply(tiles);
+			if (transformedTiles < canonicalTiles) {
+				canonicalSymmetry = symmetry;
+				canonicalTiles = transformedTiles;
+			}
+		}
+
+		return canonicalSymmetry;
+	}
+
+	private static long flipHorizontal(long tiles) {
+		return (tiles & COLUMN_0) << 12
+				| (tiles & COLUMN_1) << 4
+				| (tiles & COLUMN_2) >>> 4
+				| (tiles & COLUMN_3) >>> 12;
+	}
+
+	private static long flipVertical(long tiles) {
+		return tiles << 48
+				| (tiles & ROW_1) << 16
+				| (tiles & ROW_2) >>> 16
+				| tiles >>> 48;
+	}
+}
@@ -1,24 +1,48 @@
 package com.github.ants280.slidegame.logic;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class Tile implements Comparable<Tile> {
-	private final int value;
+	/**
+	 * The exponent of the largest Tile, the largest power of 2 a long can hold.
+	 */
+	public static final int MAX_EXPONENT = Long.SIZE - 2;
+	/**
+	 * Every Tile, indexed by exponent. The array is filled in the static
+	 * initializer and never changed, so class initialization publishes it safely
+	 * to all threads, and tiles of equal value are always the same instance.
+	 */
+	private static final Tile[] TILES = createTiles();
+	public static final Tile TWO = TILES[1];
+	private final int exponent;
+	private final long value;
 	private final String displayValue;
-	private static final Map<Integer, Tile> VALUE_CACHE = new HashMap<>();
-	public static final Tile TWO = new Tile(2);
-
-	static {
-		VALUE_CACHE.put(2, TWO);
-	}
 
-	Tile(int value) {
+	Tile(long value) {
+		this.exponent = Long.numberOfTrailingZeros(value);
 		this.value = value;
 		this.displayValue = String.valueOf(value);
 	}
 
-	public int getValue() {
+	/**
+	 * @param exponent
+	 *            The power of 2 of the Tile value, or 0 for an empty cell.
+	 * @return The Tile with the value 2^exponent, or null for an exponent of 0.
+	 */
+	public static Tile ofExponent(int exponent) {
+		if (exponent < 0 || exponent > MAX_EXPONENT) {
+			throw new IllegalArgumentException(String.format("Tile exponent must be between 0 and %d.  Found: %d", MAX_EXPONENT, exponent));
+		}
+
+		return TILES[exponent];
+	}
+
+	/**
+	 * @return The power of 2 of the value: 1 for a 2 tile, 2 for a 4 tile, ...
+	 */
+	public int exponent() {
+		return exponent;
+	}
+
+	public long getValue() {
 		return value;
 	}
 
@@ -27,32 +51,40 @@ public class Tile implements Comparable<Tile> {
 	}
 
 	public Tile getNext() {
-		int nextValue = Math.multiplyExact(2, value);
-
-		if (!VALUE_CACHE.containsKey(nextValue)) {
-			VALUE_CACHE.put(nextValue, new Tile(nextValue));
+		if (exponent == MAX_EXPONENT) {
+			throw new ArithmeticException("Tile value overflow: " + this);
 		}
 
-		return VALUE_CACHE.get(nextValue);
+		return TILES[exponent + 1];
 	}
 
 	@Override
 	public int hashCode() {
-		return this.value;
+		return this.exponent;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return this == obj || obj != null && this.getClass() == obj.getClass() && value == ((Tile) obj).value;
+		return this == obj || obj != null && this.getClass() == obj.getClass() && exponent == ((Tile) obj).exponent;
 	}
 
 	@Override
 	public int compareTo(Tile o) {
-		return value - o.value;
+		return exponent - o.exponent;
 	}
 
 	@Override
 	public String toString() {
 		return String.format("Tile{%d}", value);
 	}
+
+	private static Tile[] createTiles() {
+		Tile[] tiles = new Tile[MAX_EXPONENT + 1];
+
+		for (int exponent = 1; exponent <= MAX_EXPONENT; exponent++) {
+			tiles[exponent] = new Tile(1L << exponent);
+		}
+
+		return tiles;
+	}
 }
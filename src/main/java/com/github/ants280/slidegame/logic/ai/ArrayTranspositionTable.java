@@ -0,0 +1,62 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import java.util.Arrays;
+
+/**
+ * A TranspositionTable backed by parallel arrays that keeps one entry per slot,
+ * replacing whatever was in the slot. Not thread-safe.
+ */
+public class ArrayTranspositionTable implements TranspositionTable {
+	private final long[] keys;
+	private final float[] values;
+	private final byte[] depths;
+	private final int mask;
+
+	/**
+	 * @param capacity
+	 *            The maximum number of entries, rounded up to a power of two.
+	 */
+	public ArrayTranspositionTable(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30.  Found: " + capacity);
+		}
+
+		int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.keys = new long[size];
+		this.values = new float[size];
+		this.depths = new byte[size];
+		this.mask = size - 1;
+	}
+
+	@Override
+	public float get(long tiles, int depth) {
+		int index = index(tiles, mask);
+
+		// Empty slots have a depth of zero, which is never requested.
+		return depths[index] >= depth && keys[index] == tiles ? values[index] : Float.NaN;
+	}
+
+	@Override
+	public void put(long tiles, int depth, float value) {
+		int index = index(tiles, mask);
+
+		keys[index] = tiles;
+		values[index] = value;
+		depths[index] = (byte) depth;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(depths, (byte) 0);
+	}
+
+	/**
+	 * Spread the bits of the packed board so that boards differing in a few cells
+	 * land in different slots.
+	 */
+	static int index(long tiles, int mask) {
+		long hash = (tiles ^ (tiles >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		return (int) (hash ^ (hash >>> 31)) & mask;
+	}
+}
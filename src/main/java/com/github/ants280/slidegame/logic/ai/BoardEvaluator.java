@@ -0,0 +1,12 @@
+package com.github.ants280.slidegame.logic.ai;
+
+/**
+ * Estimates how good a packed 4x4 board is for the player. Larger values are
+ * better.
+ *
+ * @see com.github.ants280.slidegame.logic.BitBoard
+ */
+@FunctionalInterface
+public interface BoardEvaluator {
+	float evaluate(long tiles);
+}
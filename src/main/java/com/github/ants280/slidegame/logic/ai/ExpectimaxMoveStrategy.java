@@ -0,0 +1,35 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses moves with an ExpectimaxSearch. Only works with 4x4 boards.
+ */
+public class ExpectimaxMoveStrategy implements MoveStrategy {
+	private final ExpectimaxSearch expectimaxSearch;
+
+	public ExpectimaxMoveStrategy() {
+		this(new ExpectimaxSearch());
+	}
+
+	public ExpectimaxMoveStrategy(ExpectimaxSearch expectimaxSearch) {
+		this.expectimaxSearch = expectimaxSearch;
+	}
+
+	@Override
+	public MoveDirection chooseMove(Board board) {
+		return expectimaxSearch.search(board).getMoveDirection();
+	}
+
+	/**
+	 * Forgets the positions searched in the previous game. Cached scores depend on
+	 * the probability of the path they were searched on, so keeping them would
+	 * make each game depend on the games the thread played before it.
+	 */
+	@Override
+	public void newGame(SplittableRandom random) {
+		expectimaxSearch.getTranspositionTable().clear();
+	}
+}
@@ -0,0 +1,142 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.MoveDirection;
+
+/**
+ * Finds the best move on a 4x4 board by searching the player's moves and the
+ * random tiles that can be added after each one.
+ *
+ * Chance nodes are weighted like Grid.addRandomTile, which adds a 4 one time in
+ * ten and a 2 otherwise. Branches whose cumulative probability falls below the
+ * cutoff are evaluated instead of searched, and searched chance nodes are
+ * cached in the TranspositionTable. Only as thread-safe as its
+ * TranspositionTable.
+ */
+public class ExpectimaxSearch {
+	static final float TWO_TILE_PROBABILITY = 0.9f;
+	static final float FOUR_TILE_PROBABILITY = 0.1f;
+	public static final int DEFAULT_DEPTH = 3;
+	public static final float DEFAULT_PROBABILITY_CUTOFF = 0.0001f;
+	public static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	private final BoardEvaluator boardEvaluator;
+	private final TranspositionTable transpositionTable;
+	private final int depth;
+	private final float probabilityCutoff;
+
+	public ExpectimaxSearch() {
+		this(new HeuristicEvaluator(), new ArrayTranspositionTable(DEFAULT_TABLE_CAPACITY), DEFAULT_DEPTH, DEFAULT_PROBABILITY_CUTOFF);
+	}
+
+	/**
+	 * @param boardEvaluator
+	 *            Scores the boards at the leaves of the search.
+	 * @param transpositionTable
+	 *            Caches the values of searched chance nodes.
+	 * @param depth
+	 *            The number of random tile additions to search past.
+	 * @param probabilityCutoff
+	 *            The cumulative probability below which a board is evaluated
+	 *            instead of searched further.
+	 */
+	public ExpectimaxSearch(BoardEvaluator boardEvaluator, TranspositionTable transpositionTable, int depth, float probabilityCutoff) {
+		if (depth < 1 || depth > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException("Depth must be between 1 and " + Byte.MAX_VALUE + ".  Found: " + depth);
+		}
+
+		this.boardEvaluator = boardEvaluator;
+		this.transpositionTable = transpositionTable;
+		this.depth = depth;
+		this.probabilityCutoff = probabilityCutoff;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public float getProbabilityCutoff() {
+		return probabilityCutoff;
+	}
+
+	TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	public SearchResult search(Board board) {
+		return this.search(BitBoard.pack(board));
+	}
+
+	public SearchResult search(long tiles) {
+		MoveDirection bestMoveDirection = null;
+		float bestValue = 0f;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS) {
+			long slidTiles = BitBoard.slide(tiles, moveDirection);
+			if (slidTiles != tiles) {
+				float value = this.scoreChanceNode(slidTiles, 1f, depth);
+				if (bestMoveDirection == null || value > bestValue) {
+					bestMoveDirection = moveDirection;
+					bestValue = value;
+				}
+			}
+		}
+
+		return new SearchResult(bestMoveDirection, bestValue);
+	}
+
+	/**
+	 * Scores a board before a random tile is added to it.
+	 *
+	 * @param tiles
+	 *            The packed board.
+	 * @param probability
+	 *            The cumulative probability of reaching the board.
+	 * @param remainingDepth
+	 *            The number of random tile additions left to search.
+	 * @return The expected value of the board.
+	 */
+	float scoreChanceNode(long tiles, float probability, int remainingDepth) {
+		if (remainingDepth == 0 || probability < probabilityCutoff) {
+			return boardEvaluator.evaluate(tiles);
+		}
+
+		float cachedValue = transpositionTable.get(tiles, remainingDepth);
+		if (!Float.isNaN(cachedValue)) {
+			return cachedValue;
+		}
+
+		int emptyCount = BitBoard.countEmptyCells(tiles);
+		float cellProbability = probability / emptyCount;
+		float sum = 0f;
+		for (int shift = 0; shift < Long.SIZE; shift += 4) {
+			if ((tiles >>> shift & 0xF) == 0) {
+				sum += TWO_TILE_PROBABILITY * this.scoreMoveNode(tiles | 1L << shift, cellProbability * TWO_TILE_PROBABILITY, remainingDepth)
+						+ FOUR_TILE_PROBABILITY * this.scoreMoveNode(tiles | 2L << shift, cellProbability * FOUR_TILE_PROBABILITY, remainingDepth);
+			}
+		}
+		float value = sum / emptyCount;
+
+		transpositionTable.put(tiles, remainingDepth, value);
+
+		return value;
+	}
+
+	/**
+	 * Scores a board by the best move the player can make on it. Lost boards are
+	 * worth zero.
+	 */
+	float scoreMoveNode(long tiles, float probability, int remainingDepth) {
+		float bestValue = 0f;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS) {
+			long slidTiles = BitBoard.slide(tiles, moveDirection);
+			if (slidTiles != tiles) {
+				bestValue = Math.max(bestValue, this.scoreChanceNode(slidTiles, probability, remainingDepth - 1));
+			}
+		}
+
+		return bestValue;
+	}
+}
@@ -0,0 +1,42 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.MoveDirection;
+
+/**
+ * Chooses the move whose resulting board is valued highest, without looking at
+ * the tiles added afterwards. Only works with 4x4 boards.
+ */
+public class GreedyMoveStrategy implements MoveStrategy {
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	private final BoardEvaluator boardEvaluator;
+
+	public GreedyMoveStrategy() {
+		this(new HeuristicEvaluator());
+	}
+
+	public GreedyMoveStrategy(BoardEvaluator boardEvaluator) {
+		this.boardEvaluator = boardEvaluator;
+	}
+
+	@Override
+	public MoveDirection chooseMove(Board board) {
+		long tiles = BitBoard.pack(board);
+		MoveDirection bestMoveDirection = null;
+		float bestValue = 0f;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS) {
+			long slidTiles = BitBoard.slide(tiles, moveDirection);
+			if (slidTiles != tiles) {
+				float value = boardEvaluator.evaluate(slidTiles);
+				if (bestMoveDirection == null || value > bestValue) {
+					bestMoveDirection = moveDirection;
+					bestValue = value;
+				}
+			}
+		}
+
+		return bestMoveDirection;
+	}
+}
@@ -0,0 +1,94 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+
+/**
+ * Scores boards by how open, mergeable and monotonic each row and column is,
+ * with every possible packed row scored once up front.
+ *
+ * The weights are the commonly used ones for expectimax 2048 players. Every
+ * score includes a large constant so that a lost board, valued at zero by the
+ * search, is always worse than any playable board.
+ */
+public class HeuristicEvaluator implements BoardEvaluator {
+	private static final float LOST_PENALTY = 200000f;
+	private static final float MONOTONICITY_POWER = 4f;
+	private static final float MONOTONICITY_WEIGHT = 47f;
+	private static final float SUM_POWER = 3.5f;
+	private static final float SUM_WEIGHT = 11f;
+	private static final float MERGES_WEIGHT = 700f;
+	private static final float EMPTY_WEIGHT = 270f;
+	private static final int ROW_LENGTH = 4;
+	private static final int ROW_MASK = 0xFFFF;
+	private static final float[] ROW_SCORES = createRowScores();
+
+	@Override
+	public float evaluate(long tiles) {
+		return evaluateRows(tiles) + evaluateRows(BitBoard.transpose(tiles));
+	}
+
+	private static float evaluateRows(long tiles) {
+		return ROW_SCORES[(int) tiles & ROW_MASK]
+				+ ROW_SCORES[(int) (tiles >>> 16) & ROW_MASK]
+				+ ROW_SCORES[(int) (tiles >>> 32) & ROW_MASK]
+				+ ROW_SCORES[(int) (tiles >>> 48) & ROW_MASK];
+	}
+
+	private static float[] createRowScores() {
+		float[] rowScores = new float[ROW_MASK + 1];
+
+		for (int row = 0; row <= ROW_MASK; row++) {
+			rowScores[row] = scoreRow(row);
+		}
+
+		return rowScores;
+	}
+
+	private static float scoreRow(int row) {
+		int[] exponents = new int[ROW_LENGTH];
+		for (int i = 0; i < ROW_LENGTH; i++) {
+			exponents[i] = row >>> (i * 4) & 0xF;
+		}
+
+		float sum = 0f;
+		int emptyCount = 0;
+		int mergeCount = 0;
+		int previousExponent = 0;
+		int equalCount = 0;
+		for (int exponent : exponents) {
+			sum += Math.pow(exponent, SUM_POWER);
+			if (exponent == 0) {
+				emptyCount++;
+			} else {
+				if (previousExponent == exponent) {
+					equalCount++;
+				} else if (equalCount > 0) {
+					mergeCount += 1 + equalCount;
+					equalCount = 0;
+				}
+				previousExponent = exponent;
+			}
+		}
+		if (equalCount > 0) {
+			mergeCount += 1 + equalCount;
+		}
+
+		float monotonicityLeft = 0f;
+		float monotonicityRight = 0f;
+		for (int i = 1; i < ROW_LENGTH; i++) {
+			double previous = Math.pow(exponents[i - 1], MONOTONICITY_POWER);
+			double current = Math.pow(exponents[i], MONOTONICITY_POWER);
+			if (exponents[i - 1] > exponents[i]) {
+				monotonicityLeft += previous - current;
+			} else {
+				monotonicityRight += current - previous;
+			}
+		}
+
+		return LOST_PENALTY
+				+ EMPTY_WEIGHT * emptyCount
+				+ MERGES_WEIGHT * mergeCount
+				- MONOTONICITY_WEIGHT * Math.min(monotonicityLeft, monotonicityRight)
+				- SUM_WEIGHT * sum;
+	}
+}
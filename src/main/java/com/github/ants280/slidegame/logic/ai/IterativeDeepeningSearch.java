@@ -0,0 +1,116 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs ExpectimaxSearches of increasing depth on a board until a time budget
+ * is spent, and answers with the deepest search that finished. The search of
+ * depth one always finishes, so there is always an answer.
+ *
+ * A search is stopped part way through by its evaluator, which checks the
+ * clock and the interrupt status of the thread every few thousand boards.
+ * Values are only cached once computed, so a stopped search leaves nothing
+ * wrong in the TranspositionTable. Not thread-safe.
+ */
+public class IterativeDeepeningSearch {
+	public static final int DEFAULT_MAX_DEPTH = 8;
+	private static final int CHECK_INTERVAL_MASK = (1 << 12) - 1;
+	private final BoardEvaluator boardEvaluator;
+	private final TranspositionTable transpositionTable;
+	private final int maxDepth;
+	private final float probabilityCutoff;
+	private int searchedDepth;
+
+	public IterativeDeepeningSearch() {
+		this(new HeuristicEvaluator(), new ArrayTranspositionTable(ExpectimaxSearch.DEFAULT_TABLE_CAPACITY), DEFAULT_MAX_DEPTH, ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+	}
+
+	/**
+	 * @param boardEvaluator
+	 *            Scores the boards at the leaves of the searches.
+	 * @param transpositionTable
+	 *            Caches the values of searched chance nodes. Cleared before each
+	 *            board is searched.
+	 * @param maxDepth
+	 *            The depth of the deepest search to run.
+	 * @param probabilityCutoff
+	 *            The cumulative probability below which a board is evaluated
+	 *            instead of searched further.
+	 */
+	public IterativeDeepeningSearch(BoardEvaluator boardEvaluator, TranspositionTable transpositionTable, int maxDepth, float probabilityCutoff) {
+		// Fail fast on a bad depth:
+		new ExpectimaxSearch(boardEvaluator, transpositionTable, maxDepth, probabilityCutoff);
+
+		this.boardEvaluator = boardEvaluator;
+		this.transpositionTable = transpositionTable;
+		this.maxDepth = maxDepth;
+		this.probabilityCutoff = probabilityCutoff;
+	}
+
+	/**
+	 * @param tiles
+	 *            The packed board.
+	 * @param timeBudget
+	 *            How long to search deeper for.
+	 * @param timeUnit
+	 *            The unit of the time budget.
+	 * @return The result of the deepest search that finished.
+	 * @throws CancellationException
+	 *             If the thread is interrupted.
+	 */
+	public SearchResult search(long tiles, long timeBudget, TimeUnit timeUnit) {
+		DeadlineEvaluator deadlineEvaluator = new DeadlineEvaluator(boardEvaluator, System.nanoTime() + timeUnit.toNanos(timeBudget));
+		transpositionTable.clear();
+
+		SearchResult searchResult = new ExpectimaxSearch(boardEvaluator, transpositionTable, 1, probabilityCutoff).search(tiles);
+		searchedDepth = 1;
+		for (int depth = 2; depth <= maxDepth && searchResult.getMoveDirection() != null; depth++) {
+			try {
+				searchResult = new ExpectimaxSearch(deadlineEvaluator, transpositionTable, depth, probabilityCutoff).search(tiles);
+			} catch (CancellationException e) {
+				break;
+			}
+			searchedDepth = depth;
+		}
+
+		if (Thread.currentThread().isInterrupted()) {
+			throw new CancellationException("Search interrupted");
+		}
+
+		return searchResult;
+	}
+
+	/**
+	 * @return The depth of the deepest search that finished in the last call to
+	 *         search.
+	 */
+	public int getSearchedDepth() {
+		return searchedDepth;
+	}
+
+	/**
+	 * Stops a search by throwing a CancellationException from the evaluator once
+	 * the deadline passes or the thread is interrupted.
+	 */
+	private static class DeadlineEvaluator implements BoardEvaluator {
+		private final BoardEvaluator boardEvaluator;
+		private final long deadlineNanos;
+		private int evaluationCount;
+
+		private DeadlineEvaluator(BoardEvaluator boardEvaluator, long deadlineNanos) {
+			this.boardEvaluator = boardEvaluator;
+			this.deadlineNanos = deadlineNanos;
+		}
+
+		@Override
+		public float evaluate(long tiles) {
+			if ((++evaluationCount & CHECK_INTERVAL_MASK) == 0
+					&& (System.nanoTime() - deadlineNanos > 0L || Thread.currentThread().isInterrupted())) {
+				throw new CancellationException("Search stopped");
+			}
+
+			return boardEvaluator.evaluate(tiles);
+		}
+	}
+}
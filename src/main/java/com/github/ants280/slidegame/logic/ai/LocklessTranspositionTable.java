@@ -0,0 +1,60 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import java.util.Arrays;
+
+/**
+ * A TranspositionTable that can be shared by searches on many threads without
+ * locking.
+ *
+ * Each slot stores its value and depth in one long and the packed board XORed
+ * with that long in another. A reader only accepts a slot whose two longs
+ * still XOR to the board it asked for, so a slot torn by concurrent writes is
+ * read as a miss instead of as another board's value.
+ */
+public class LocklessTranspositionTable implements TranspositionTable {
+	private final long[] slots;
+	private final int mask;
+
+	/**
+	 * @param capacity
+	 *            The maximum number of entries, rounded up to a power of two.
+	 */
+	public LocklessTranspositionTable(int capacity) {
+		if (capacity < 1 || capacity > 1 << 29) {
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^29.  Found: " + capacity);
+		}
+
+		int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+		this.slots = new long[size * 2];
+		this.mask = size - 1;
+	}
+
+	@Override
+	public float get(long tiles, int depth) {
+		int index = ArrayTranspositionTable.index(tiles, mask) * 2;
+		long check = slots[index];
+		long data = slots[index + 1];
+
+		// Empty slots have a depth of zero, which is never requested.
+		return (check ^ data) == tiles && getDepth(data) >= depth ? Float.intBitsToFloat((int) data) : Float.NaN;
+	}
+
+	@Override
+	public void put(long tiles, int depth, float value) {
+		int index = ArrayTranspositionTable.index(tiles, mask) * 2;
+		long data = (long) depth << 32 | Float.floatToRawIntBits(value) & 0xFFFFFFFFL;
+
+		slots[index] = tiles ^ data;
+		slots[index + 1] = data;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(slots, 0L);
+	}
+
+	private static int getDepth(long data) {
+		return (int) (data >>> 32);
+	}
+}
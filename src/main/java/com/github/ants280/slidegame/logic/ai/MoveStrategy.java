@@ -0,0 +1,30 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the next move of a game. Implementations may keep state between
+ * moves, so each thread needs its own instance unless stated otherwise.
+ */
+@FunctionalInterface
+public interface MoveStrategy {
+	/**
+	 * @param board
+	 *            The board to move on. It is not modified.
+	 * @return The direction to slide the tiles, or null if they cannot be slid in
+	 *         any direction.
+	 */
+	MoveDirection chooseMove(Board board);
+
+	/**
+	 * Called before the first move of each game.
+	 *
+	 * @param random
+	 *            The source of any random choices in the game, so games played
+	 *            with equally seeded sources are the same.
+	 */
+	default void newGame(SplittableRandom random) {
+	}
+}
@@ -0,0 +1,324 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Symmetry;
+import com.github.ants280.slidegame.store.FileChannels;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Values packed 4x4 boards with an n-tuple network: a table of weights for
+ * each tuple of cells, indexed by the exponents of the tiles in those cells.
+ * The value of a board is the sum of the weights of every tuple in every
+ * Symmetry of the board, so every Symmetry of a board has the same value.
+ *
+ * Once trained by an NTupleTrainer, the value of a board after a move is the
+ * score the rest of the game is expected to add. Lost boards have a value near
+ * zero, so the network can also be the evaluator of an ExpectimaxSearch.
+ *
+ * The weights are plain floats that are read and updated without locking.
+ * Updates from many threads can race and overwrite each other, which only
+ * loses a little learning, so evaluating the network is safe from any thread.
+ *
+ * A saved network can be loaded onto the heap to train it further, or mapped
+ * read only to evaluate boards with it. Mapping reads nothing up front, and
+ * every process that maps the same file shares its pages in the page cache.
+ *
+ * The saved file is little-endian. It starts with the magic number, the
+ * version of the format and the tuple count, then holds each tuple as its size
+ * and MAX_TUPLE_SIZE cell bytes, padded to a multiple of WEIGHTS_ALIGNMENT
+ * bytes. The weights of each tuple follow, in order, as 32-bit floats.
+ */
+public class NTupleNetwork implements BoardEvaluator {
+	public static final int MAGIC = 0x4E545550;
+	public static final int VERSION = 1;
+	public static final int MAX_TUPLE_SIZE = 7;
+	public static final int WEIGHTS_ALIGNMENT = 64;
+	private static final int HEADER_BYTES = 12;
+	private static final int TUPLE_BYTES = 1 + MAX_TUPLE_SIZE;
+	private static final int WRITE_BUFFER_FLOATS = 1 << 18;
+	/**
+	 * Two rectangles and two lines of six cells, which learn well on 4x4 boards.
+	 */
+	private static final int[][] DEFAULT_TUPLES = {
+			{ 0, 1, 2, 3, 4, 5 },
+			{ 4, 5, 6, 7, 8, 9 },
+			{ 0, 1, 2, 4, 5, 6 },
+			{ 4, 5, 6, 8, 9, 10 }
+	};
+	private static final int CELL_COUNT = BitBoard.LENGTH * BitBoard.LENGTH;
+	/**
+	 * A packed board with the index of each cell as its exponent, so a Symmetry
+	 * of it shows where each cell moves to.
+	 */
+	private static final long CELL_INDEXES = 0xFEDCBA9876543210L;
+	private final int[][] tuples;
+	private final FloatBuffer[] weights;
+	private final int[] featureTuples;
+	private final int[][] featureShifts;
+
+	public NTupleNetwork() {
+		this(DEFAULT_TUPLES);
+	}
+
+	/**
+	 * @param tuples
+	 *            The row-major cells of each tuple, each with no more than
+	 *            MAX_TUPLE_SIZE cells.
+	 */
+	public NTupleNetwork(int[][] tuples) {
+		this(tuples, createWeights(tuples));
+	}
+
+	private NTupleNetwork(int[][] tuples, FloatBuffer[] weights) {
+		Symmetry[] symmetries = Symmetry.values();
+
+		this.tuples = new int[tuples.length][];
+		this.weights = weights;
+		this.featureTuples = new int[tuples.length * symmetries.length];
+		this.featureShifts = new int[featureTuples.length][];
+		for (int i = 0; i < tuples.length; i++) {
+			this.tuples[i] = tuples[i].clone();
+			for (int j = 0; j < symmetries.length; j++) {
+				int feature = i * symmetries.length + j;
+				featureTuples[feature] = i;
+				featureShifts[feature] = getShifts(tuples[i], symmetries[j]);
+			}
+		}
+	}
+
+	private static FloatBuffer[] createWeights(int[][] tuples) {
+		validateTuples(tuples);
+
+		FloatBuffer[] weights = new FloatBuffer[tuples.length];
+		for (int i = 0; i < tuples.length; i++) {
+			weights[i] = FloatBuffer.wrap(new float[getWeightCount(tuples[i])]);
+		}
+
+		return weights;
+	}
+
+	private static int getWeightCount(int[] tuple) {
+		return 1 << (tuple.length * 4);
+	}
+
+	private static void validateTuples(int[][] tuples) {
+		if (tuples.length == 0) {
+			throw new IllegalArgumentException("No tuples");
+		}
+
+		for (int[] tuple : tuples) {
+			validateTuple(tuple);
+		}
+	}
+
+	private static void validateTuple(int[] tuple) {
+		if (tuple.length == 0 || tuple.length > MAX_TUPLE_SIZE) {
+			throw new IllegalArgumentException(String.format("Tuples must have between 1 and %d cells.  Found: %s", MAX_TUPLE_SIZE, Arrays.toString(tuple)));
+		}
+
+		int usedCells = 0;
+		for (int cell : tuple) {
+			if (cell < 0 || cell >= CELL_COUNT || (usedCells >>> cell & 1) != 0) {
+				throw new IllegalArgumentException("Tuple cells must be different cells of a 4x4 board: " + Arrays.toString(tuple));
+			}
+			usedCells |= 1 << cell;
+		}
+	}
+
+	/**
+	 * @return The shifts of the packed tiles that the tuple reads from the
+	 *         Symmetry of a board.
+	 */
+	private static int[] getShifts(int[] tuple, Symmetry symmetry) {
+		long transformedCellIndexes = symmetry.apply(CELL_INDEXES);
+		int[] shifts = new int[tuple.length];
+
+		for (int i = 0; i < tuple.length; i++) {
+			shifts[i] = (int) (transformedCellIndexes >>> (tuple[i] * 4) & 0xF) * 4;
+		}
+
+		return shifts;
+	}
+
+	/**
+	 * @return The number of weights added together to value a board.
+	 */
+	public int getFeatureCount() {
+		return featureShifts.length;
+	}
+
+	@Override
+	public float evaluate(long tiles) {
+		float value = 0f;
+
+		for (int i = 0; i < featureShifts.length; i++) {
+			value += weights[featureTuples[i]].get(getIndex(tiles, featureShifts[i]));
+		}
+
+		return value;
+	}
+
+	/**
+	 * Add to the weight of every feature of a board, changing its value by
+	 * about the delta times the feature count.
+	 *
+	 * @param tiles
+	 *            The packed tile exponents.
+	 * @param delta
+	 *            The amount to add to each weight.
+	 * @throws java.nio.ReadOnlyBufferException
+	 *             If the network is mapped.
+	 */
+	public void update(long tiles, float delta) {
+		for (int i = 0; i < featureShifts.length; i++) {
+			FloatBuffer tupleWeights = weights[featureTuples[i]];
+			int index = getIndex(tiles, featureShifts[i]);
+			tupleWeights.put(index, tupleWeights.get(index) + delta);
+		}
+	}
+
+	private static int getIndex(long tiles, int[] shifts) {
+		int index = 0;
+
+		for (int i = 0; i < shifts.length; i++) {
+			index |= (int) (tiles >>> shifts[i] & 0xF) << (i * 4);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Write the tuples and weights to a file, replacing it. The weights may be
+	 * updated meanwhile, so a network that is being trained is saved as a mix
+	 * of older and newer weights. The file is replaced atomically once the new
+	 * one is on the disk, so processes that mapped the old file keep reading the
+	 * old weights, and a crash never leaves half of a file behind.
+	 */
+	public void save(Path file) throws IOException {
+		FileChannels.replaceAtomically(file, this::write);
+	}
+
+	private void write(FileChannel fileChannel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(getWeightsOffset(tuples.length)).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(VERSION).putInt(tuples.length);
+		for (int[] tuple : tuples) {
+			header.put((byte) tuple.length);
+			for (int i = 0; i < MAX_TUPLE_SIZE; i++) {
+				header.put(i < tuple.length ? (byte) tuple[i] : 0);
+			}
+		}
+		header.clear();
+		FileChannels.writeFully(fileChannel, header);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_FLOATS * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		FloatBuffer floatBuffer = buffer.asFloatBuffer();
+		for (FloatBuffer tupleWeights : weights) {
+			FloatBuffer remainingWeights = tupleWeights.duplicate();
+			remainingWeights.clear();
+			while (remainingWeights.hasRemaining()) {
+				int floatCount = Math.min(WRITE_BUFFER_FLOATS, remainingWeights.remaining());
+				FloatBuffer chunk = remainingWeights.slice();
+				chunk.limit(floatCount);
+				floatBuffer.clear();
+				floatBuffer.put(chunk);
+				remainingWeights.position(remainingWeights.position() + floatCount);
+
+				buffer.clear().limit(floatCount * Float.BYTES);
+				FileChannels.writeFully(fileChannel, buffer);
+			}
+		}
+	}
+
+	/**
+	 * @return The network saved in the file, with its weights copied onto the
+	 *         heap so it can be trained further.
+	 */
+	public static NTupleNetwork load(Path file) throws IOException {
+		NTupleNetwork mappedNetwork = map(file);
+		FloatBuffer[] weights = new FloatBuffer[mappedNetwork.weights.length];
+
+		for (int i = 0; i < weights.length; i++) {
+			float[] tupleWeights = new float[mappedNetwork.weights[i].capacity()];
+			mappedNetwork.weights[i].duplicate().get(tupleWeights);
+			weights[i] = FloatBuffer.wrap(tupleWeights);
+		}
+
+		return new NTupleNetwork(mappedNetwork.tuples, weights);
+	}
+
+	/**
+	 * Map the weights of the network saved in the file read only, so it can
+	 * evaluate boards as soon as this returns. The weights are read from the
+	 * file as boards need them. The file must not be changed while mapped, so
+	 * replace it with a new file instead, as the NTupleTrainer does.
+	 *
+	 * @return The network saved in the file, which cannot be updated.
+	 */
+	public static NTupleNetwork map(Path file) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			FileChannels.readFully(fileChannel, header, 0L);
+			int magic = header.getInt(0);
+			int version = header.getInt(4);
+			int tupleCount = header.getInt(8);
+			if (magic != MAGIC) {
+				throw new IOException(String.format("Not a weight file: %s has magic number %08x", file, magic));
+			}
+			if (version != VERSION) {
+				throw new IOException(String.format("Unsupported version of %s: %d", file, version));
+			}
+			if (tupleCount <= 0 || tupleCount > CELL_COUNT * CELL_COUNT) {
+				throw new IOException("Corrupt tuple count: " + tupleCount);
+			}
+
+			long weightsOffset = getWeightsOffset(tupleCount);
+			ByteBuffer tupleBytes = ByteBuffer.allocate(tupleCount * TUPLE_BYTES);
+			FileChannels.readFully(fileChannel, tupleBytes, HEADER_BYTES);
+			int[][] tuples = new int[tupleCount][];
+			long expectedSize = weightsOffset;
+			for (int i = 0; i < tupleCount; i++) {
+				int tupleSize = tupleBytes.get(i * TUPLE_BYTES);
+				if (tupleSize <= 0 || tupleSize > MAX_TUPLE_SIZE) {
+					throw new IOException("Corrupt tuple size: " + tupleSize);
+				}
+				tuples[i] = new int[tupleSize];
+				for (int j = 0; j < tuples[i].length; j++) {
+					tuples[i][j] = tupleBytes.get(i * TUPLE_BYTES + 1 + j);
+				}
+				expectedSize += (long) getWeightCount(tuples[i]) * Float.BYTES;
+			}
+			try {
+				validateTuples(tuples);
+			} catch (IllegalArgumentException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+			if (fileChannel.size() != expectedSize) {
+				throw new IOException(String.format("Corrupt weight file: %s has %d bytes instead of %d", file, fileChannel.size(), expectedSize));
+			}
+
+			FloatBuffer[] weights = new FloatBuffer[tupleCount];
+			long offset = weightsOffset;
+			for (int i = 0; i < tupleCount; i++) {
+				long tupleBytesSize = (long) getWeightCount(tuples[i]) * Float.BYTES;
+				weights[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, tupleBytesSize)
+						.order(ByteOrder.LITTLE_ENDIAN)
+						.asFloatBuffer();
+				offset += tupleBytesSize;
+			}
+
+			return new NTupleNetwork(tuples, weights);
+		}
+	}
+
+	private static int getWeightsOffset(int tupleCount) {
+		int headerBytes = HEADER_BYTES + tupleCount * TUPLE_BYTES;
+		return (headerBytes + WEIGHTS_ALIGNMENT - 1) / WEIGHTS_ALIGNMENT * WEIGHTS_ALIGNMENT;
+	}
+}
@@ -0,0 +1,169 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A TranspositionTable stored outside of the heap, in direct ByteBuffers, so
+ * tables of many gigabytes add nothing to the work of the garbage collector.
+ * The direct memory of the JVM must be at least the size of the table, such
+ * as with -XX:MaxDirectMemorySize.
+ *
+ * The table is split into buckets of four slots the size of a cache line, and
+ * a board is kept in any slot of the bucket its hash selects. When the bucket
+ * is full, the entry searched to the smallest depth is replaced. Like the
+ * LocklessTranspositionTable, each slot stores its data and the board XORed
+ * with the data, so it can be shared by many threads without locking.
+ *
+ * The data also holds the generation of the table, which clear increments, so
+ * clearing does not need to write to the whole table.
+ */
+public class OffHeapTranspositionTable implements TranspositionTable {
+	public static final long MIN_BYTES = 64L;
+	public static final long MAX_BYTES = 1L << 36;
+	private static final int SLOT_BYTES = 16;
+	private static final int SLOTS_PER_BUCKET = 4;
+	private static final int BUCKET_BITS = 6;
+	private static final int SEGMENT_BUCKET_BITS = 24;
+	private static final int DEPTH_SHIFT = 32;
+	private static final int GENERATION_SHIFT = 40;
+	private static final long DEPTH_MASK = 0xFFL;
+	private static final long GENERATION_MASK = 0xFFFFFFL;
+	private final ByteBuffer[] segments;
+	private final int bucketMask;
+	private final long sizeBytes;
+	private volatile long generation;
+
+	/**
+	 * @param bytes
+	 *            The most memory to use, rounded down to a power of two.
+	 */
+	public OffHeapTranspositionTable(long bytes) {
+		if (bytes < MIN_BYTES || bytes > MAX_BYTES) {
+			throw new IllegalArgumentException(String.format("Size must be between %d and %d bytes.  Found: %d", MIN_BYTES, MAX_BYTES, bytes));
+		}
+
+		long bucketCount = Long.highestOneBit(bytes) >>> BUCKET_BITS;
+		int segmentBuckets = (int) Math.min(bucketCount, 1L << SEGMENT_BUCKET_BITS);
+
+		this.segments = new ByteBuffer[(int) (bucketCount / segmentBuckets)];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = ByteBuffer.allocateDirect(segmentBuckets << BUCKET_BITS).order(ByteOrder.nativeOrder());
+		}
+		this.bucketMask = (int) (bucketCount - 1);
+		this.sizeBytes = bucketCount << BUCKET_BITS;
+		// Empty slots are of generation 0, which is never current.
+		this.generation = 1L;
+	}
+
+	/**
+	 * @return The memory used by the table.
+	 */
+	public long getSizeBytes() {
+		return sizeBytes;
+	}
+
+	@Override
+	public float get(long tiles, int depth) {
+		int bucket = ArrayTranspositionTable.index(tiles, bucketMask);
+		ByteBuffer segment = this.getSegment(bucket);
+		int offset = getOffset(bucket);
+		long currentGeneration = generation;
+
+		for (int i = 0; i < SLOTS_PER_BUCKET; i++, offset += SLOT_BYTES) {
+			long check = segment.getLong(offset);
+			long data = segment.getLong(offset + 8);
+			if ((check ^ data) == tiles && getGeneration(data) == currentGeneration) {
+				return getDepth(data) >= depth ? Float.intBitsToFloat((int) data) : Float.NaN;
+			}
+		}
+
+		return Float.NaN;
+	}
+
+	@Override
+	public void put(long tiles, int depth, float value) {
+		int bucket = ArrayTranspositionTable.index(tiles, bucketMask);
+		ByteBuffer segment = this.getSegment(bucket);
+		int bucketOffset = getOffset(bucket);
+		long currentGeneration = generation;
+
+		// Replace the board's own entry, else an entry of an old generation, else
+		// the entry searched to the smallest depth:
+		int replacedOffset = bucketOffset;
+		int replacedDepth = Integer.MAX_VALUE;
+		for (int i = 0, offset = bucketOffset; i < SLOTS_PER_BUCKET; i++, offset += SLOT_BYTES) {
+			long check = segment.getLong(offset);
+			long data = segment.getLong(offset + 8);
+			boolean current = getGeneration(data) == currentGeneration;
+			if (current && (check ^ data) == tiles) {
+				if (getDepth(data) > depth) {
+					return;
+				}
+				replacedOffset = offset;
+				break;
+			}
+
+			int slotDepth = current ? getDepth(data) : -1;
+			if (slotDepth < replacedDepth) {
+				replacedOffset = offset;
+				replacedDepth = slotDepth;
+			}
+		}
+
+		long data = currentGeneration << GENERATION_SHIFT | (long) depth << DEPTH_SHIFT | Float.floatToRawIntBits(value) & 0xFFFFFFFFL;
+		segment.putLong(replacedOffset, tiles ^ data);
+		segment.putLong(replacedOffset + 8, data);
+	}
+
+	/**
+	 * Forget all entries by starting a new generation. The memory is only
+	 * cleared when the generations run out.
+	 */
+	@Override
+	public synchronized void clear() {
+		long nextGeneration = (generation + 1) & GENERATION_MASK;
+
+		if (nextGeneration == 0L) {
+			for (ByteBuffer segment : segments) {
+				for (int offset = 0; offset < segment.capacity(); offset += 8) {
+					segment.putLong(offset, 0L);
+				}
+			}
+			nextGeneration = 1L;
+		}
+
+		generation = nextGeneration;
+	}
+
+	private ByteBuffer getSegment(int bucket) {
+		return segments[bucket >>> SEGMENT_BUCKET_BITS];
+	}
+
+	private static int getOffset(int bucket) {
+		return (bucket & ((1 << SEGMENT_BUCKET_BITS) - 1)) << BUCKET_BITS;
+	}
+
+	private static int getDepth(long data) {
+		return (int) (data >>> DEPTH_SHIFT & DEPTH_MASK);
+	}
+
+	private static long getGeneration(long data) {
+		return data >>> GENERATION_SHIFT;
+	}
+
+	/**
+	 * @param size
+	 *            A number of bytes, optionally followed by k, m or g for
+	 *            kibibytes, mebibytes or gibibytes, such as 512m or 4g.
+	 * @return The number of bytes.
+	 */
+	public static long parseSize(String size) {
+		String lowerCaseSize = size.trim().toLowerCase();
+		char unit = lowerCaseSize.isEmpty() ? ' ' : lowerCaseSize.charAt(lowerCaseSize.length() - 1);
+		int shift = unit == 'k' ? 10 : unit == 'm' ? 20 : unit == 'g' ? 30 : 0;
+		String number = shift == 0 ? lowerCaseSize : lowerCaseSize.substring(0, lowerCaseSize.length() - 1);
+
+		return Long.parseLong(number) << shift;
+	}
+}
@@ -0,0 +1,183 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An ExpectimaxSearch that runs on a ForkJoinPool.
+ *
+ * The first moves are searched as separate tasks, and so is each empty cell
+ * of the chance nodes near the top of the search. Deeper chance nodes are
+ * searched sequentially by the task that reaches them, and idle threads steal
+ * the remaining tasks. The TranspositionTable is shared by all of the tasks,
+ * so it must be thread-safe, such as a LocklessTranspositionTable.
+ */
+public class ParallelExpectimaxSearch extends ExpectimaxSearch {
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	private final ForkJoinPool forkJoinPool;
+	private final int splitDepth;
+
+	public ParallelExpectimaxSearch(ForkJoinPool forkJoinPool) {
+		this(forkJoinPool, new HeuristicEvaluator(), new LocklessTranspositionTable(DEFAULT_TABLE_CAPACITY), DEFAULT_DEPTH, DEFAULT_PROBABILITY_CUTOFF);
+	}
+
+	/**
+	 * @param forkJoinPool
+	 *            The pool to run the search on.
+	 * @param boardEvaluator
+	 *            Scores the boards at the leaves of the search.
+	 * @param transpositionTable
+	 *            Caches the values of searched chance nodes for all threads.
+	 * @param depth
+	 *            The number of random tile additions to search past.
+	 * @param probabilityCutoff
+	 *            The cumulative probability below which a board is evaluated
+	 *            instead of searched further.
+	 */
+	public ParallelExpectimaxSearch(ForkJoinPool forkJoinPool, BoardEvaluator boardEvaluator, TranspositionTable transpositionTable, int depth, float probabilityCutoff) {
+		super(boardEvaluator, transpositionTable, depth, probabilityCutoff);
+
+		this.forkJoinPool = forkJoinPool;
+		// Split the top two levels of chance nodes into tasks.
+		this.splitDepth = Math.max(1, depth - 1);
+	}
+
+	@Override
+	public SearchResult search(long tiles) {
+		return forkJoinPool.invoke(new RootTask(tiles));
+	}
+
+	private class RootTask extends RecursiveTask<SearchResult> {
+		private static final long serialVersionUID = 1L;
+		private final long tiles;
+
+		private RootTask(long tiles) {
+			this.tiles = tiles;
+		}
+
+		@Override
+		protected SearchResult compute() {
+			List<MoveDirection> moveDirections = new ArrayList<>();
+			List<ChanceNodeTask> chanceNodeTasks = new ArrayList<>();
+			for (MoveDirection moveDirection : MOVE_DIRECTIONS) {
+				long slidTiles = BitBoard.slide(tiles, moveDirection);
+				if (slidTiles != tiles) {
+					moveDirections.add(moveDirection);
+					chanceNodeTasks.add(new ChanceNodeTask(slidTiles, 1f, getDepth()));
+				}
+			}
+
+			invokeAll(chanceNodeTasks);
+
+			MoveDirection bestMoveDirection = null;
+			float bestValue = 0f;
+			for (int i = 0; i < chanceNodeTasks.size(); i++) {
+				float value = chanceNodeTasks.get(i).join();
+				if (bestMoveDirection == null || value > bestValue) {
+					bestMoveDirection = moveDirections.get(i);
+					bestValue = value;
+				}
+			}
+
+			return new SearchResult(bestMoveDirection, bestValue);
+		}
+	}
+
+	private class ChanceNodeTask extends RecursiveTask<Float> {
+		private static final long serialVersionUID = 1L;
+		private final long tiles;
+		private final float probability;
+		private final int remainingDepth;
+
+		private ChanceNodeTask(long tiles, float probability, int remainingDepth) {
+			this.tiles = tiles;
+			this.probability = probability;
+			this.remainingDepth = remainingDepth;
+		}
+
+		@Override
+		protected Float compute() {
+			if (remainingDepth < splitDepth || probability < getProbabilityCutoff()) {
+				return scoreChanceNode(tiles, probability, remainingDepth);
+			}
+
+			TranspositionTable transpositionTable = getTranspositionTable();
+			float cachedValue = transpositionTable.get(tiles, remainingDepth);
+			if (!Float.isNaN(cachedValue)) {
+				return cachedValue;
+			}
+
+			int emptyCount = BitBoard.countEmptyCells(tiles);
+			float cellProbability = probability / emptyCount;
+			List<SpawnTask> spawnTasks = new ArrayList<>(emptyCount);
+			for (int shift = 0; shift < Long.SIZE; shift += 4) {
+				if ((tiles >>> shift & 0xF) == 0) {
+					spawnTasks.add(new SpawnTask(tiles, shift, cellProbability, remainingDepth));
+				}
+			}
+
+			invokeAll(spawnTasks);
+
+			float sum = 0f;
+			for (SpawnTask spawnTask : spawnTasks) {
+				sum += spawnTask.join();
+			}
+			float value = sum / emptyCount;
+
+			transpositionTable.put(tiles, remainingDepth, value);
+
+			return value;
+		}
+	}
+
+	/**
+	 * Scores both of the tiles that can be added to one empty cell.
+	 */
+	private class SpawnTask extends RecursiveTask<Float> {
+		private static final long serialVersionUID = 1L;
+		private final long tiles;
+		private final int shift;
+		private final float cellProbability;
+		private final int remainingDepth;
+
+		private SpawnTask(long tiles, int shift, float cellProbability, int remainingDepth) {
+			this.tiles = tiles;
+			this.shift = shift;
+			this.cellProbability = cellProbability;
+			this.remainingDepth = remainingDepth;
+		}
+
+		@Override
+		protected Float compute() {
+			return TWO_TILE_PROBABILITY * this.scoreMoveNode(tiles | 1L << shift, cellProbability * TWO_TILE_PROBABILITY)
+					+ FOUR_TILE_PROBABILITY * this.scoreMoveNode(tiles | 2L << shift, cellProbability * FOUR_TILE_PROBABILITY);
+		}
+
+		private float scoreMoveNode(long spawnedTiles, float probability) {
+			if (remainingDepth - 1 < splitDepth) {
+				return ParallelExpectimaxSearch.this.scoreMoveNode(spawnedTiles, probability, remainingDepth);
+			}
+
+			List<ChanceNodeTask> chanceNodeTasks = new ArrayList<>();
+			for (MoveDirection moveDirection : MOVE_DIRECTIONS) {
+				long slidTiles = BitBoard.slide(spawnedTiles, moveDirection);
+				if (slidTiles != spawnedTiles) {
+					chanceNodeTasks.add(new ChanceNodeTask(slidTiles, probability, remainingDepth - 1));
+				}
+			}
+
+			invokeAll(chanceNodeTasks);
+
+			float bestValue = 0f;
+			for (ChanceNodeTask chanceNodeTask : chanceNodeTasks) {
+				bestValue = Math.max(bestValue, chanceNodeTask.join());
+			}
+
+			return bestValue;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses any of the moves that change the board with equal probability. Works
+ * with boards of any length.
+ */
+public class RandomMoveStrategy implements MoveStrategy {
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	private SplittableRandom random;
+
+	public RandomMoveStrategy() {
+		this(new SplittableRandom());
+	}
+
+	public RandomMoveStrategy(SplittableRandom random) {
+		this.random = random;
+	}
+
+	@Override
+	public MoveDirection chooseMove(Board board) {
+		MoveDirection chosenMoveDirection = null;
+		int legalMoveCount = 0;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS) {
+			// Keep each legal move with a probability of 1/legalMoveCount.
+			if (board.canSlideTiles(moveDirection) && random.nextInt(++legalMoveCount) == 0) {
+				chosenMoveDirection = moveDirection;
+			}
+		}
+
+		return chosenMoveDirection;
+	}
+
+	@Override
+	public void newGame(SplittableRandom random) {
+		this.random = random;
+	}
+}
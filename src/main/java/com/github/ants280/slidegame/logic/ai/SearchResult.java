@@ -0,0 +1,30 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+
+public class SearchResult {
+	private final MoveDirection moveDirection;
+	private final float expectedValue;
+
+	public SearchResult(MoveDirection moveDirection, float expectedValue) {
+		this.moveDirection = moveDirection;
+		this.expectedValue = expectedValue;
+	}
+
+	/**
+	 * @return The best direction to slide the tiles, or null if the tiles cannot
+	 *         be slid in any direction.
+	 */
+	public MoveDirection getMoveDirection() {
+		return moveDirection;
+	}
+
+	public float getExpectedValue() {
+		return expectedValue;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SearchResult{%s,%f}", moveDirection, expectedValue);
+	}
+}
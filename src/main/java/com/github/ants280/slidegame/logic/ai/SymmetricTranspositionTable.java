@@ -0,0 +1,34 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.Symmetry;
+
+/**
+ * A TranspositionTable that stores the entries of another table under the
+ * canonical form of each board, so the rotations and reflections of a searched
+ * board are found too.
+ *
+ * Only correct for searches whose BoardEvaluator scores every Symmetry of a
+ * board the same, like the HeuristicEvaluator.
+ */
+public class SymmetricTranspositionTable implements TranspositionTable {
+	private final TranspositionTable transpositionTable;
+
+	public SymmetricTranspositionTable(TranspositionTable transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	@Override
+	public float get(long tiles, int depth) {
+		return transpositionTable.get(Symmetry.canonicalize(tiles), depth);
+	}
+
+	@Override
+	public void put(long tiles, int depth, float value) {
+		transpositionTable.put(Symmetry.canonicalize(tiles), depth, value);
+	}
+
+	@Override
+	public void clear() {
+		transpositionTable.clear();
+	}
+}
@@ -0,0 +1,22 @@
+package com.github.ants280.slidegame.logic.ai;
+
+/**
+ * A bounded cache of the values of searched packed boards. Entries may be
+ * overwritten at any time, so a value that was put is not guaranteed to be
+ * returned later.
+ */
+public interface TranspositionTable {
+	/**
+	 * @param tiles
+	 *            The packed board.
+	 * @param depth
+	 *            The depth the board needs to have been searched to.
+	 * @return The value of the board, or NaN if the board has not been searched
+	 *         to at least the depth.
+	 */
+	float get(long tiles, int depth);
+
+	void put(long tiles, int depth, float value);
+
+	void clear();
+}
@@ -0,0 +1,123 @@
+package com.github.ants280.slidegame.replay;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.nio.ByteBuffer;
+
+/**
+ * One recorded game from a ReplayReader. The packed moves are read from the
+ * file they were mapped from, not copied onto the heap.
+ */
+public class Replay {
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	private final long position;
+	private final int flags;
+	private final int goalTileExponent;
+	private final int length;
+	private final long seed;
+	private final long score;
+	private final int initialSpawnCount;
+	private final int moveCount;
+	private final ByteBuffer body;
+
+	Replay(long position, int flags, int goalTileExponent, int length, long seed, long score, int initialSpawnCount, int moveCount, ByteBuffer body) {
+		this.position = position;
+		this.flags = flags;
+		this.goalTileExponent = goalTileExponent;
+		this.length = length;
+		this.seed = seed;
+		this.score = score;
+		this.initialSpawnCount = initialSpawnCount;
+		this.moveCount = moveCount;
+		this.body = body;
+	}
+
+	/**
+	 * @return The index of the first byte of the game in its file.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	public int getGoalTileExponent() {
+		return goalTileExponent;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return The seed of the source the random tiles were drawn from by a Grid,
+	 *         or 0 if they were not drawn from a seeded source.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	public long getScore() {
+		return score;
+	}
+
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	public boolean isGoalTileCreated() {
+		return (flags & ReplayFormat.FLAG_GOAL_TILE_CREATED) != 0;
+	}
+
+	/**
+	 * @return Whether or not the tiles could not be slid in any direction at the
+	 *         end of the game.
+	 */
+	public boolean isGameOver() {
+		return (flags & ReplayFormat.FLAG_GAME_OVER) != 0;
+	}
+
+	/**
+	 * Unpack the game, passing each added tile and move to the listener in the
+	 * order they were made.
+	 */
+	public void play(ReplayListener replayListener) {
+		int cellBits = ReplayFormat.getCellBits(length);
+		boolean finalSpawn = (flags & ReplayFormat.FLAG_FINAL_SPAWN) != 0;
+		int bitPosition = 0;
+
+		for (int i = 0; i < initialSpawnCount; i++) {
+			bitPosition = this.playSpawn(replayListener, bitPosition, cellBits);
+		}
+
+		for (int i = 0; i < moveCount; i++) {
+			replayListener.move(MOVE_DIRECTIONS[this.readBits(bitPosition, ReplayFormat.MOVE_BITS)]);
+			bitPosition += ReplayFormat.MOVE_BITS;
+
+			if (i < moveCount - 1 || finalSpawn) {
+				bitPosition = this.playSpawn(replayListener, bitPosition, cellBits);
+			}
+		}
+	}
+
+	private int playSpawn(ReplayListener replayListener, int bitPosition, int cellBits) {
+		int exponent = this.readBits(bitPosition, 1) + 1;
+		int cell = this.readBits(bitPosition + 1, cellBits);
+		replayListener.spawn(cell, exponent);
+
+		return bitPosition + 1 + cellBits;
+	}
+
+	private int readBits(int bitPosition, int bitCount) {
+		int value = 0;
+
+		for (int i = 0; i < bitCount; i++) {
+			int index = (bitPosition + i) / Byte.SIZE;
+			value |= (body.get(index) >>> ((bitPosition + i) % Byte.SIZE) & 1) << i;
+		}
+
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Replay{position=%d,length=%d,goalTileExponent=%d,seed=%d,score=%d,moveCount=%d}", position, length, goalTileExponent, seed, score, moveCount);
+	}
+}
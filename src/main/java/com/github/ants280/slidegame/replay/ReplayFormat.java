@@ -0,0 +1,40 @@
+package com.github.ants280.slidegame.replay;
+
+/**
+ * The layout of a replay file: a sequence of game records, each a fixed-size
+ * header followed by a bit-packed body.
+ *
+ * The header holds, big-endian: the magic number, the format version, the flags
+ * of the end state, the goal tile exponent, the board length, the seed, the
+ * final score, the number of tiles added before the first move, the number of
+ * moves and the number of bytes in the body.
+ *
+ * The body is read from the least significant bit of each byte. It holds the
+ * tiles added before the first move, then each move as the two-bit ordinal of
+ * its MoveDirection followed by the tile added after it. Each added tile is one
+ * bit for a 4 instead of a 2, then the index of its cell, row-major, in as few
+ * bits as hold any cell of the board. Only the last move may have no tile after
+ * it, when the game ended before one was added.
+ */
+final class ReplayFormat {
+	static final int MAGIC = 0x32303438; // "2048"
+	static final byte VERSION = 1;
+	static final int HEADER_BYTES = 4 + 1 + 1 + 1 + 4 + 8 + 8 + 1 + 4 + 4;
+	static final int FLAG_GOAL_TILE_CREATED = 1;
+	static final int FLAG_GAME_OVER = 1 << 1;
+	static final int FLAG_FINAL_SPAWN = 1 << 2;
+	static final int MOVE_BITS = 2;
+	static final int MAX_INITIAL_SPAWN_COUNT = Byte.MAX_VALUE;
+
+	private ReplayFormat() {
+	}
+
+	/**
+	 * @param length
+	 *            The width and height of the board.
+	 * @return The number of bits used for the cell index of each added tile.
+	 */
+	static int getCellBits(int length) {
+		return Integer.SIZE - Integer.numberOfLeadingZeros(length * length - 1);
+	}
+}
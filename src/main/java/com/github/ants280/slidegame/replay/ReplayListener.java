@@ -0,0 +1,19 @@
+package com.github.ants280.slidegame.replay;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+
+/**
+ * Receives the moves and added tiles of a Replay, in the order they were made.
+ */
+public interface ReplayListener {
+	/**
+	 * @param cell
+	 *            The index of the cell the tile was added to, row-major.
+	 * @param exponent
+	 *            The exponent of the value of the added tile: 1 for a 2 tile or 2
+	 *            for a 4 tile.
+	 */
+	void spawn(int cell, int exponent);
+
+	void move(MoveDirection moveDirection);
+}
@@ -0,0 +1,127 @@
+package com.github.ants280.slidegame.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of a replay file written by a ReplayWriter.
+ *
+ * The file is memory-mapped a window at a time, so files larger than the heap,
+ * or than the 2GB a single mapping can hold, are read without copying them.
+ * A new window is mapped from the start of the first game that does not fit in
+ * the current one. Not thread-safe, but the Replays it returns can be played on
+ * any thread.
+ */
+public class ReplayReader implements Closeable {
+	public static final int DEFAULT_WINDOW_BYTES = 1 << 30;
+	private final FileChannel fileChannel;
+	private final long size;
+	private final int windowBytes;
+	private ByteBuffer window;
+	private long windowStart;
+	private long position;
+
+	public ReplayReader(Path path) throws IOException {
+		this(path, DEFAULT_WINDOW_BYTES);
+	}
+
+	/**
+	 * @param path
+	 *            The replay file.
+	 * @param windowBytes
+	 *            The most bytes of the file to map at once. Limits the size of
+	 *            each game.
+	 */
+	public ReplayReader(Path path, int windowBytes) throws IOException {
+		if (windowBytes < ReplayFormat.HEADER_BYTES) {
+			throw new IllegalArgumentException(String.format("Window must hold at least %d bytes.  Found: %d", ReplayFormat.HEADER_BYTES, windowBytes));
+		}
+
+		this.fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = fileChannel.size();
+		this.windowBytes = windowBytes;
+		this.window = null;
+		this.windowStart = 0L;
+		this.position = 0L;
+	}
+
+	/**
+	 * @return The index of the first byte of the next game in the file.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return The next game in the file, or null if all games have been read.
+	 * @throws IOException
+	 *             If the file cannot be read or the next game is not in the
+	 *             replay format.
+	 */
+	public Replay next() throws IOException {
+		if (position == size) {
+			return null;
+		}
+
+		this.map(ReplayFormat.HEADER_BYTES);
+		int offset = (int) (position - windowStart);
+		if (window.getInt(offset) != ReplayFormat.MAGIC) {
+			throw new IOException("No game found at byte " + position);
+		}
+		if (window.get(offset + 4) != ReplayFormat.VERSION) {
+			throw new IOException(String.format("Unknown replay version %d at byte %d", window.get(offset + 4), position));
+		}
+
+		int flags = window.get(offset + 5);
+		int goalTileExponent = window.get(offset + 6);
+		int length = window.getInt(offset + 7);
+		long seed = window.getLong(offset + 11);
+		long score = window.getLong(offset + 19);
+		int initialSpawnCount = window.get(offset + 27);
+		int moveCount = window.getInt(offset + 28);
+		int bodyBytes = window.getInt(offset + 32);
+		if (length < 2 || initialSpawnCount < 0 || moveCount < 0 || bodyBytes < 0) {
+			throw new IOException("Corrupt game header at byte " + position);
+		}
+
+		this.map(ReplayFormat.HEADER_BYTES + (long) bodyBytes);
+		offset = (int) (position - windowStart) + ReplayFormat.HEADER_BYTES;
+		ByteBuffer body = window.duplicate();
+		body.position(offset);
+		body.limit(offset + bodyBytes);
+
+		Replay replay = new Replay(position, flags, goalTileExponent, length, seed, score, initialSpawnCount, moveCount, body.slice());
+		position += ReplayFormat.HEADER_BYTES + bodyBytes;
+		return replay;
+	}
+
+	@Override
+	public void close() throws IOException {
+		fileChannel.close();
+	}
+
+	/**
+	 * Make sure the bytes from the position are in the window.
+	 */
+	private void map(long byteCount) throws IOException {
+		if (position + byteCount > size) {
+			throw new IOException(String.format("Game at byte %d is cut off at the end of the file", position));
+		}
+		if (byteCount > windowBytes) {
+			throw new IOException(String.format("Game at byte %d is larger than the window of %d bytes", position, windowBytes));
+		}
+
+		if (window == null || position + byteCount > windowStart + window.capacity()) {
+			window = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowBytes, size - position));
+			windowStart = position;
+		}
+	}
+}
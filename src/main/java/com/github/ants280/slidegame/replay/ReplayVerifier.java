@@ -0,0 +1,298 @@
+package com.github.ants280.slidegame.replay;
+
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.Tile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Plays recorded games again on Grids to check that each one could have been
+ * played as recorded: every added tile lands on an empty cell, every move
+ * slides tiles, and the score and end of the game match the recording. The
+ * tiles of a game with a seed are drawn again from the seed, and must be the
+ * recorded ones, so they cannot have been picked by the player.
+ *
+ * Each file is read by its own task on a ForkJoinPool, which forks a task for
+ * every batch of games it reads, so games are verified in parallel within a
+ * file as well as across files. A file whose games cannot be read any further
+ * is reported as one failure. The number of batches waiting to be verified is
+ * limited, so the games of a file are never all held at once.
+ *
+ * Usage: ReplayVerifier [--threads=N] FILE|DIRECTORY...
+ */
+public class ReplayVerifier {
+	public static final int BATCH_SIZE = 1024;
+	/**
+	 * The largest board length verified. Longer lengths are reported as corrupt
+	 * instead of allocating a board of that size.
+	 */
+	public static final int MAX_LENGTH = 1 << 10;
+	private static final int MAX_REPORTED_FAILURES = 20;
+	private final ForkJoinPool forkJoinPool;
+
+	public ReplayVerifier(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	public VerificationResult verify(List<Path> replayFiles) {
+		long startNanos = System.nanoTime();
+
+		List<FileTask> fileTasks = new ArrayList<>(replayFiles.size());
+		for (Path replayFile : replayFiles) {
+			FileTask fileTask = new FileTask(replayFile, 2 * forkJoinPool.getParallelism());
+			fileTasks.add(fileTask);
+			forkJoinPool.execute(fileTask);
+		}
+
+		Tally total = new Tally();
+		for (FileTask fileTask : fileTasks) {
+			total.add(fileTask.join());
+		}
+
+		return new VerificationResult(System.nanoTime() - startNanos, replayFiles.size(), total.gameCount, total.failedGameCount, total.moveCount, total.failures);
+	}
+
+	private static class FileTask extends RecursiveTask<Tally> {
+		private static final long serialVersionUID = 1L;
+		private final transient Path replayFile;
+		private final int maxPendingBatchCount;
+
+		private FileTask(Path replayFile, int maxPendingBatchCount) {
+			this.replayFile = replayFile;
+			this.maxPendingBatchCount = maxPendingBatchCount;
+		}
+
+		@Override
+		protected Tally compute() {
+			Tally tally = new Tally();
+			Deque<BatchTask> pendingBatchTasks = new ArrayDeque<>();
+
+			try (ReplayReader replayReader = new ReplayReader(replayFile)) {
+				List<Replay> batch = new ArrayList<>(BATCH_SIZE);
+				for (Replay replay = replayReader.next(); replay != null; replay = replayReader.next()) {
+					batch.add(replay);
+					if (batch.size() == BATCH_SIZE) {
+						this.fork(batch, pendingBatchTasks, tally);
+						batch = new ArrayList<>(BATCH_SIZE);
+					}
+				}
+				this.fork(batch, pendingBatchTasks, tally);
+			} catch (IOException e) {
+				tally.addFailure(String.format("%s: %s", replayFile, e.getMessage()));
+			}
+
+			while (!pendingBatchTasks.isEmpty()) {
+				tally.add(pendingBatchTasks.removeFirst().join());
+			}
+
+			return tally;
+		}
+
+		private void fork(List<Replay> batch, Deque<BatchTask> pendingBatchTasks, Tally tally) {
+			BatchTask batchTask = new BatchTask(replayFile, batch);
+			batchTask.fork();
+			pendingBatchTasks.addLast(batchTask);
+
+			if (pendingBatchTasks.size() > maxPendingBatchCount) {
+				tally.add(pendingBatchTasks.removeFirst().join());
+			}
+		}
+	}
+
+	private static class BatchTask extends RecursiveTask<Tally> {
+		private static final long serialVersionUID = 1L;
+		private final transient Path replayFile;
+		private final transient List<Replay> replays;
+
+		private BatchTask(Path replayFile, List<Replay> replays) {
+			this.replayFile = replayFile;
+			this.replays = replays;
+		}
+
+		@Override
+		protected Tally compute() {
+			Tally tally = new Tally();
+			GameVerifier gameVerifier = new GameVerifier();
+
+			for (Replay replay : replays) {
+				String failure = gameVerifier.verify(replay);
+				tally.gameCount++;
+				tally.moveCount += replay.getMoveCount();
+				if (failure != null) {
+					tally.failedGameCount++;
+					tally.addFailure(String.format("%s at byte %d: %s", replayFile, replay.getPosition(), failure));
+				}
+			}
+
+			return tally;
+		}
+	}
+
+	/**
+	 * Plays games on a Grid that is reused while the board size and goal stay the
+	 * same. Any move or added tile that is not possible ends the game with an
+	 * exception.
+	 */
+	private static class GameVerifier implements ReplayListener {
+		private final MoveResult moveResult = new MoveResult();
+		private Grid grid;
+		private boolean seeded;
+		private long score;
+
+		/**
+		 * @return Why the game could not have been played as recorded, or null if
+		 *         it could.
+		 */
+		private String verify(Replay replay) {
+			try {
+				this.newGame(replay);
+				replay.play(this);
+			} catch (RuntimeException e) {
+				return e.toString();
+			}
+
+			if (score != replay.getScore()) {
+				return String.format("Score is %d, but %d was recorded", score, replay.getScore());
+			}
+			if (grid.goalTileCreated() != replay.isGoalTileCreated()) {
+				return String.format("Goal tile created is %b, but %b was recorded", grid.goalTileCreated(), replay.isGoalTileCreated());
+			}
+			if (grid.canSlideInAnyDirection() == replay.isGameOver()) {
+				return String.format("Game over is %b, but %b was recorded", !grid.canSlideInAnyDirection(), replay.isGameOver());
+			}
+
+			return null;
+		}
+
+		private void newGame(Replay replay) {
+			if (replay.getLength() > MAX_LENGTH) {
+				throw new IllegalArgumentException("Length is too large to verify: " + replay.getLength());
+			}
+
+			// A cleared Grid draws the same tiles from a seed as a new one:
+			SplittableRandom random = new SplittableRandom(replay.getSeed());
+			if (grid == null || grid.getLength() != replay.getLength() || grid.getGoalTileExponent() != replay.getGoalTileExponent()) {
+				grid = new Grid(replay.getLength(), 1L << replay.getGoalTileExponent(), random);
+			} else {
+				grid.setRandom(random);
+				grid.clear();
+			}
+
+			seeded = replay.getSeed() != 0L;
+			score = 0L;
+		}
+
+		@Override
+		public void spawn(int cell, int exponent) {
+			if (cell >= grid.getLength() * grid.getLength()) {
+				throw new IllegalArgumentException("Tile added off the board at cell " + cell);
+			}
+
+			if (!seeded) {
+				grid.addTile(cell, Tile.ofExponent(exponent));
+				return;
+			}
+
+			int drawnCell = grid.addRandomTile();
+			int drawnExponent = grid.getTile(drawnCell % grid.getLength(), drawnCell / grid.getLength()).exponent();
+			if (cell != drawnCell || exponent != drawnExponent) {
+				throw new IllegalStateException(String.format("Tile %d added to cell %d, but the seed adds tile %d to cell %d",
+						1L << exponent, cell, 1L << drawnExponent, drawnCell));
+			}
+		}
+
+		@Override
+		public void move(MoveDirection moveDirection) {
+			grid.move(moveDirection, moveResult);
+			if (!moveResult.isChanged()) {
+				throw new IllegalStateException("Moving " + moveDirection.getDisplayValue() + " does not slide any tiles");
+			}
+
+			score += moveResult.getScore();
+		}
+	}
+
+	/**
+	 * The counts and first failures of the games verified by one task.
+	 */
+	private static class Tally {
+		private int gameCount;
+		private int failedGameCount;
+		private long moveCount;
+		private final List<String> failures = new ArrayList<>();
+
+		private void addFailure(String failure) {
+			if (failures.size() < MAX_REPORTED_FAILURES) {
+				failures.add(failure);
+			}
+		}
+
+		private void add(Tally other) {
+			gameCount += other.gameCount;
+			failedGameCount += other.failedGameCount;
+			moveCount += other.moveCount;
+			for (String failure : other.failures) {
+				this.addFailure(failure);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		List<Path> replayFiles = new ArrayList<>();
+
+		for (String arg : args) {
+			String[] option = arg.split("=", 2);
+			String value = option.length == 2 ? option[1] : "";
+			switch (option[0]) {
+			case "--threads":
+				threadCount = Integer.parseInt(value);
+				break;
+			default:
+				if (arg.startsWith("--")) {
+					throw new IllegalArgumentException("Unknown option: " + arg);
+				}
+				replayFiles.addAll(getReplayFiles(Paths.get(arg)));
+				break;
+			}
+		}
+
+		ForkJoinPool forkJoinPool = new ForkJoinPool(threadCount);
+		VerificationResult verificationResult;
+		try {
+			System.out.printf("files=%d threads=%d%n", replayFiles.size(), threadCount);
+			verificationResult = new ReplayVerifier(forkJoinPool).verify(replayFiles);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+
+		verificationResult.print(System.out);
+		if (!verificationResult.isValid()) {
+			Runtime.getRuntime().exit(1);
+		}
+	}
+
+	private static List<Path> getReplayFiles(Path path) throws IOException {
+		if (!Files.isDirectory(path)) {
+			return Collections.singletonList(path);
+		}
+
+		try (Stream<Path> paths = Files.list(path)) {
+			return paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package com.github.ants280.slidegame.replay;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Records games in the replay format as they are played.
+ *
+ * The moves and added tiles of the game being played are packed into a buffer
+ * that is reused for every game, and each game is written to the stream as one
+ * record when it ends. Moves can be undone and redone until then, like with a
+ * MoveHistory, so only the moves that led to the end of the game are written.
+ * Not thread-safe.
+ *
+ * @see ReplayReader
+ */
+public class ReplayWriter implements Closeable {
+	private static final int INITIAL_BODY_BYTES = 1 << 10;
+	private final DataOutputStream outputStream;
+	private byte[] body;
+	private int[] moveEnds;
+	private boolean gameStarted;
+	private int length;
+	private int goalTileExponent;
+	private long seed;
+	private int cellBits;
+	private int bitPosition;
+	private int initialSpawnCount;
+	private int movesStart;
+	private int moveCount;
+	private int redoMoveCount;
+	private boolean spawnPending;
+
+	/**
+	 * @param outputStream
+	 *            Receives the game records. Should be buffered.
+	 */
+	public ReplayWriter(OutputStream outputStream) {
+		this.outputStream = new DataOutputStream(outputStream);
+		this.body = new byte[INITIAL_BODY_BYTES];
+		this.moveEnds = new int[INITIAL_BODY_BYTES];
+		this.gameStarted = false;
+	}
+
+	/**
+	 * @return Whether or not a game has been started and not ended.
+	 */
+	public boolean isGameStarted() {
+		return gameStarted;
+	}
+
+	/**
+	 * Start recording a game on an empty board, forgetting any game that was
+	 * started and not ended.
+	 *
+	 * @param length
+	 *            The width and height of the board.
+	 * @param goalTileExponent
+	 *            The exponent of the value of the goal tile.
+	 * @param seed
+	 *            The seed of the source the random tiles are drawn from by a
+	 *            Grid, or 0 if they are not drawn from a seeded source.
+	 */
+	public void startGame(int length, int goalTileExponent, long seed) {
+		if (length < 2) {
+			throw new IllegalArgumentException("Length must be at least 2.  Found: " + length);
+		}
+
+		this.gameStarted = true;
+		this.length = length;
+		this.goalTileExponent = goalTileExponent;
+		this.seed = seed;
+		this.cellBits = ReplayFormat.getCellBits(length);
+		this.bitPosition = 0;
+		this.initialSpawnCount = 0;
+		this.movesStart = 0;
+		this.moveCount = 0;
+		this.redoMoveCount = 0;
+		this.spawnPending = false;
+	}
+
+	/**
+	 * Record a tile added to the board, before the first move or after a move.
+	 *
+	 * @param cell
+	 *            The index of the cell the tile was added to, row-major.
+	 * @param exponent
+	 *            The exponent of the value of the tile: 1 for a 2 tile or 2 for a
+	 *            4 tile.
+	 */
+	public void spawn(int cell, int exponent) {
+		this.validateGameStarted();
+		if (cell < 0 || cell >= length * length) {
+			throw new IllegalArgumentException(String.format("Cell %d is not on a board of length %d", cell, length));
+		}
+		if (exponent != 1 && exponent != 2) {
+			throw new IllegalArgumentException("Only 2 and 4 tiles are added.  Found exponent: " + exponent);
+		}
+
+		if (spawnPending) {
+			spawnPending = false;
+		} else if (moveCount == 0 && redoMoveCount == 0) {
+			if (initialSpawnCount == ReplayFormat.MAX_INITIAL_SPAWN_COUNT) {
+				throw new IllegalStateException("Too many tiles added before the first move");
+			}
+			initialSpawnCount++;
+		} else {
+			throw new IllegalStateException("Only one tile can be added after each move");
+		}
+
+		this.writeBits(exponent - 1, 1);
+		this.writeBits(cell, cellBits);
+
+		if (moveCount == 0) {
+			movesStart = bitPosition;
+		} else {
+			moveEnds[moveCount - 1] = bitPosition;
+		}
+	}
+
+	/**
+	 * Record a move that changed the board. Any undone moves can no longer be
+	 * redone.
+	 */
+	public void move(MoveDirection moveDirection) {
+		this.validateGameStarted();
+		if (spawnPending) {
+			throw new IllegalStateException("A tile must be added after each move before the next one");
+		}
+
+		this.writeBits(moveDirection.ordinal(), ReplayFormat.MOVE_BITS);
+
+		if (moveCount == moveEnds.length) {
+			moveEnds = Arrays.copyOf(moveEnds, moveEnds.length * 2);
+		}
+		moveEnds[moveCount] = bitPosition;
+		moveCount++;
+		redoMoveCount = 0;
+		spawnPending = true;
+	}
+
+	/**
+	 * Forget the last move and the tile added after it, keeping them to redo.
+	 * The tiles added from then on no longer follow the seed, so the game is
+	 * recorded without one.
+	 */
+	public void undoMove() {
+		this.validateGameStarted();
+		if (moveCount == 0 || spawnPending) {
+			throw new IllegalStateException("No move with an added tile to undo");
+		}
+
+		seed = 0L;
+
+		moveCount--;
+		redoMoveCount++;
+		bitPosition = moveCount == 0 ? movesStart : moveEnds[moveCount - 1];
+	}
+
+	/**
+	 * Record the last undone move and the tile added after it again.
+	 */
+	public void redoMove() {
+		this.validateGameStarted();
+		if (redoMoveCount == 0) {
+			throw new IllegalStateException("No move to redo");
+		}
+
+		moveCount++;
+		redoMoveCount--;
+		bitPosition = moveEnds[moveCount - 1];
+	}
+
+	/**
+	 * Write the game to the stream.
+	 *
+	 * @param score
+	 *            The score of the game.
+	 * @param goalTileCreated
+	 *            Whether or not the goal tile was created.
+	 * @param gameOver
+	 *            Whether or not the tiles could not be slid in any direction at
+	 *            the end of the game.
+	 */
+	public void endGame(long score, boolean goalTileCreated, boolean gameOver) throws IOException {
+		this.validateGameStarted();
+		gameStarted = false;
+
+		int bodyBytes = (bitPosition + Byte.SIZE - 1) / Byte.SIZE;
+		if (bitPosition % Byte.SIZE != 0) {
+			// Clear the bits of undone moves after the end of the body:
+			body[bodyBytes - 1] &= (1 << (bitPosition % Byte.SIZE)) - 1;
+		}
+
+		int flags = (goalTileCreated ? ReplayFormat.FLAG_GOAL_TILE_CREATED : 0)
+				| (gameOver ? ReplayFormat.FLAG_GAME_OVER : 0)
+				| (moveCount != 0 && !spawnPending ? ReplayFormat.FLAG_FINAL_SPAWN : 0);
+
+		outputStream.writeInt(ReplayFormat.MAGIC);
+		outputStream.writeByte(ReplayFormat.VERSION);
+		outputStream.writeByte(flags);
+		outputStream.writeByte(goalTileExponent);
+		outputStream.writeInt(length);
+		outputStream.writeLong(seed);
+		outputStream.writeLong(score);
+		outputStream.writeByte(initialSpawnCount);
+		outputStream.writeInt(moveCount);
+		outputStream.writeInt(bodyBytes);
+		outputStream.write(body, 0, bodyBytes);
+	}
+
+	public void flush() throws IOException {
+		outputStream.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		outputStream.close();
+	}
+
+	private void validateGameStarted() {
+		if (!gameStarted) {
+			throw new IllegalStateException("No game started");
+		}
+	}
+
+	private void writeBits(int value, int bitCount) {
+		if (bitPosition + bitCount > body.length * Byte.SIZE) {
+			body = Arrays.copyOf(body, body.length * 2);
+		}
+
+		for (int i = 0; i < bitCount; i++, bitPosition++) {
+			int index = bitPosition / Byte.SIZE;
+			int bit = 1 << (bitPosition % Byte.SIZE);
+			body[index] = (byte) ((value >>> i & 1) != 0 ? body[index] | bit : body[index] & ~bit);
+		}
+	}
+}
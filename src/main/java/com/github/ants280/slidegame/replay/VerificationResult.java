@@ -0,0 +1,90 @@
+package com.github.ants280.slidegame.replay;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The combined counts of the games checked by a ReplayVerifier.
+ */
+public class VerificationResult {
+	private final long elapsedNanos;
+	private final int fileCount;
+	private final int gameCount;
+	private final int failedGameCount;
+	private final long moveCount;
+	private final List<String> failures;
+
+	/**
+	 * @param elapsedNanos
+	 *            The wall time taken to verify all of the files.
+	 * @param fileCount
+	 *            The number of files read.
+	 * @param gameCount
+	 *            The number of games read from the files.
+	 * @param failedGameCount
+	 *            The number of games that could not have been played as
+	 *            recorded.
+	 * @param moveCount
+	 *            The number of moves in all of the games.
+	 * @param failures
+	 *            Descriptions of the first failed games and unreadable files.
+	 */
+	public VerificationResult(long elapsedNanos, int fileCount, int gameCount, int failedGameCount, long moveCount, List<String> failures) {
+		this.elapsedNanos = elapsedNanos;
+		this.fileCount = fileCount;
+		this.gameCount = gameCount;
+		this.failedGameCount = failedGameCount;
+		this.moveCount = moveCount;
+		this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+	}
+
+	public int getGameCount() {
+		return gameCount;
+	}
+
+	public int getFailedGameCount() {
+		return failedGameCount;
+	}
+
+	public long getMoveCount() {
+		return moveCount;
+	}
+
+	public List<String> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return Whether or not every game of every file could have been played as
+	 *         recorded.
+	 */
+	public boolean isValid() {
+		return failures.isEmpty();
+	}
+
+	public double getGamesPerSecond() {
+		return gameCount / getElapsedSeconds();
+	}
+
+	public double getMovesPerSecond() {
+		return moveCount / getElapsedSeconds();
+	}
+
+	private double getElapsedSeconds() {
+		return (double) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+	}
+
+	public void print(PrintStream out) {
+		out.printf("files:      %d%n", fileCount);
+		out.printf("games:      %d in %.2f s%n", gameCount, getElapsedSeconds());
+		out.printf("games/sec:  %.1f%n", getGamesPerSecond());
+		out.printf("moves/sec:  %.1f (%d moves)%n", getMovesPerSecond(), moveCount);
+		out.printf("failed:     %d games%n", failedGameCount);
+		for (String failure : failures) {
+			out.printf("  %s%n", failure);
+		}
+	}
+}
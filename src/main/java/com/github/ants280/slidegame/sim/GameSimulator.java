@@ -0,0 +1,406 @@
+package com.github.ants280.slidegame.sim;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.Tile;
+import com.github.ants280.slidegame.logic.ai.ArrayTranspositionTable;
+import com.github.ants280.slidegame.logic.ai.BoardEvaluator;
+import com.github.ants280.slidegame.logic.ai.ExpectimaxMoveStrategy;
+import com.github.ants280.slidegame.logic.ai.ExpectimaxSearch;
+import com.github.ants280.slidegame.logic.ai.GreedyMoveStrategy;
+import com.github.ants280.slidegame.logic.ai.HeuristicEvaluator;
+import com.github.ants280.slidegame.logic.ai.MoveStrategy;
+import com.github.ants280.slidegame.logic.ai.NTupleNetwork;
+import com.github.ants280.slidegame.logic.ai.OffHeapTranspositionTable;
+import com.github.ants280.slidegame.logic.ai.RandomMoveStrategy;
+import com.github.ants280.slidegame.logic.ai.TranspositionTable;
+import com.github.ants280.slidegame.replay.ReplayWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Plays complete games on Grids without any ui, spread over a pool of threads.
+ *
+ * Each thread gets its own MoveStrategy from the supplier. Every game gets its
+ * own seed, drawn from a seeded source in game order, so a simulation is the
+ * same for a seed on any number of threads. The games can also be recorded as
+ * replays, one file per thread. Nothing here loads Swing or AWT, so it starts
+ * quickly on headless servers.
+ *
+ * The expectimax strategy of each thread caches positions in a table on the
+ * heap, or in an OffHeapTranspositionTable of the size given by --table-size,
+ * such as 512m or 4g, for tables too large to keep on the heap. The greedy and
+ * expectimax strategies value boards with the HeuristicEvaluator, or with the
+ * NTupleNetwork saved by an NTupleTrainer in the file given by --weights.
+ *
+ * Usage: GameSimulator [--games=N] [--threads=N] [--strategy=random|greedy|expectimax]
+ * [--depth=N] [--table-size=BYTES] [--weights=FILE] [--length=N] [--goal=N]
+ * [--stop-at-goal] [--seed=N] [--replays=DIRECTORY]
+ */
+public class GameSimulator {
+	private static final int MAX_EXPONENT = 64;
+	private final int gameCount;
+	private final int threadCount;
+	private final int length;
+	private final long goalTileValue;
+	private final boolean stopAtGoal;
+	private final long seed;
+	private final Supplier<MoveStrategy> moveStrategySupplier;
+	private Path replayDirectory;
+
+	/**
+	 * @param gameCount
+	 *            The number of games to play.
+	 * @param threadCount
+	 *            The number of threads to play the games on.
+	 * @param length
+	 *            The width and height of the Grids.
+	 * @param goalTileValue
+	 *            The value of the goal tile of the Grids.
+	 * @param stopAtGoal
+	 *            Whether to end games when the goal tile is created, like the ui,
+	 *            instead of when no moves are left.
+	 * @param moveStrategySupplier
+	 *            Creates the MoveStrategy of each thread.
+	 */
+	public GameSimulator(int gameCount, int threadCount, int length, long goalTileValue, boolean stopAtGoal, Supplier<MoveStrategy> moveStrategySupplier) {
+		this(gameCount, threadCount, length, goalTileValue, stopAtGoal, new SplittableRandom().nextLong(), moveStrategySupplier);
+	}
+
+	/**
+	 * @param gameCount
+	 *            The number of games to play.
+	 * @param threadCount
+	 *            The number of threads to play the games on.
+	 * @param length
+	 *            The width and height of the Grids.
+	 * @param goalTileValue
+	 *            The value of the goal tile of the Grids.
+	 * @param stopAtGoal
+	 *            Whether to end games when the goal tile is created, like the ui,
+	 *            instead of when no moves are left.
+	 * @param seed
+	 *            The seed of the random source the seeds of all games are drawn
+	 *            from.
+	 * @param moveStrategySupplier
+	 *            Creates the MoveStrategy of each thread.
+	 */
+	public GameSimulator(int gameCount, int threadCount, int length, long goalTileValue, boolean stopAtGoal, long seed, Supplier<MoveStrategy> moveStrategySupplier) {
+		if (gameCount < 0 || threadCount < 1) {
+			throw new IllegalArgumentException(String.format("Cannot play %d games on %d threads", gameCount, threadCount));
+		}
+
+		// Fail fast on a bad length or goal:
+		new Grid(length, goalTileValue);
+
+		this.gameCount = gameCount;
+		this.threadCount = threadCount;
+		this.length = length;
+		this.goalTileValue = goalTileValue;
+		this.stopAtGoal = stopAtGoal;
+		this.seed = seed;
+		this.moveStrategySupplier = moveStrategySupplier;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @param replayDirectory
+	 *            The directory to record the games of each thread in, as
+	 *            replays-N.bin for thread N, or null to not record the games.
+	 */
+	public void setReplayDirectory(Path replayDirectory) {
+		this.replayDirectory = replayDirectory;
+	}
+
+	public SimulationResult run() throws InterruptedException, ExecutionException {
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		GameQueue gameQueue = new GameQueue(gameCount, new SplittableRandom(seed));
+		long[] scores = new long[gameCount];
+		List<Future<Tally>> futures = new ArrayList<>(threadCount);
+
+		long startNanos = System.nanoTime();
+		try {
+			for (int i = 0; i < threadCount; i++) {
+				int threadIndex = i;
+				futures.add(executorService.submit(() -> this.playGames(gameQueue, scores, threadIndex)));
+			}
+
+			Tally total = new Tally();
+			for (Future<Tally> future : futures) {
+				total.add(future.get());
+			}
+
+			return new SimulationResult(System.nanoTime() - startNanos, scores, total.moveCount, total.goalTileCount, goalTileValue, total.maxTileExponentCounts);
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private Tally playGames(GameQueue gameQueue, long[] scores, int threadIndex) throws IOException {
+		MoveStrategy moveStrategy = moveStrategySupplier.get();
+		Tally tally = new Tally();
+
+		try (ReplayWriter replayWriter = this.createReplayWriter(threadIndex)) {
+			for (Game game = gameQueue.next(); game != null; game = gameQueue.next()) {
+				scores[game.index] = this.playGame(moveStrategy, game.seed, replayWriter, tally);
+			}
+		}
+
+		return tally;
+	}
+
+	/**
+	 * @return A writer of the replays of the thread, or null if the games are not
+	 *         recorded.
+	 */
+	private ReplayWriter createReplayWriter(int threadIndex) throws IOException {
+		if (replayDirectory == null) {
+			return null;
+		}
+
+		Files.createDirectories(replayDirectory);
+		return new ReplayWriter(new BufferedOutputStream(Files.newOutputStream(replayDirectory.resolve("replays-" + threadIndex + ".bin"))));
+	}
+
+	/**
+	 * Play one game the way SlideGameManager does, adding a random tile after
+	 * every move.
+	 *
+	 * @param replayWriter
+	 *            Records the game, or null.
+	 * @return The score of the game.
+	 */
+	private long playGame(MoveStrategy moveStrategy, long gameSeed, ReplayWriter replayWriter, Tally tally) throws IOException {
+		moveStrategy.newGame(new SplittableRandom(gameSeed).split());
+		// The tiles are drawn from the seed alone, so a ReplayVerifier can draw
+		// them again:
+		Grid grid = new Grid(length, goalTileValue, new SplittableRandom(gameSeed));
+		if (replayWriter != null) {
+			replayWriter.startGame(length, grid.getGoalTileExponent(), gameSeed);
+		}
+		addRandomTile(grid, replayWriter);
+		addRandomTile(grid, replayWriter);
+
+		long score = 0L;
+		MoveResult moveResult = new MoveResult();
+		MoveDirection moveDirection;
+		while (!(stopAtGoal && grid.goalTileCreated()) && (moveDirection = moveStrategy.chooseMove(grid)) != null) {
+			grid.move(moveDirection, moveResult);
+			score += moveResult.getScore();
+			tally.moveCount++;
+			if (replayWriter != null) {
+				replayWriter.move(moveDirection);
+			}
+			addRandomTile(grid, replayWriter);
+		}
+
+		if (replayWriter != null) {
+			replayWriter.endGame(score, grid.goalTileCreated(), !grid.canSlideInAnyDirection());
+		}
+
+		if (grid.goalTileCreated()) {
+			tally.goalTileCount++;
+		}
+		tally.maxTileExponentCounts[getMaxTileExponent(grid)]++;
+
+		return score;
+	}
+
+	private static void addRandomTile(Grid grid, ReplayWriter replayWriter) {
+		int cell = grid.addRandomTile();
+
+		if (replayWriter != null) {
+			replayWriter.spawn(cell, grid.getTile(cell % grid.getLength(), cell / grid.getLength()).exponent());
+		}
+	}
+
+	private static int getMaxTileExponent(Grid grid) {
+		int maxTileExponent = 0;
+
+		for (int r = 0; r < grid.getLength(); r++) {
+			for (int c = 0; c < grid.getLength(); c++) {
+				Tile tile = grid.getTile(c, r);
+				if (tile != null) {
+					maxTileExponent = Math.max(maxTileExponent, tile.exponent());
+				}
+			}
+		}
+
+		return maxTileExponent;
+	}
+
+	/**
+	 * Hands out the games to the threads. The seed of each game is drawn while the
+	 * game is claimed, under the same lock, so the seeds are drawn in game order
+	 * however the games are spread over the threads. The lock is taken
+	 * once per game, not per move, so the threads hardly contend for it.
+	 */
+	private static class GameQueue {
+		private final int gameCount;
+		private final SplittableRandom random;
+		private int nextGameIndex;
+
+		private GameQueue(int gameCount, SplittableRandom random) {
+			this.gameCount = gameCount;
+			this.random = random;
+		}
+
+		/**
+		 * @return The next game to play, or null if all games are claimed.
+		 */
+		private synchronized Game next() {
+			return nextGameIndex < gameCount ? new Game(nextGameIndex++, random.nextLong()) : null;
+		}
+	}
+
+	private static class Game {
+		private final int index;
+		private final long seed;
+
+		private Game(int index, long seed) {
+			this.index = index;
+			this.seed = seed;
+		}
+	}
+
+	/**
+	 * The statistics of the games played by one thread.
+	 */
+	private static class Tally {
+		private long moveCount;
+		private int goalTileCount;
+		private final int[] maxTileExponentCounts = new int[MAX_EXPONENT];
+
+		private void add(Tally other) {
+			moveCount += other.moveCount;
+			goalTileCount += other.goalTileCount;
+			for (int i = 0; i < MAX_EXPONENT; i++) {
+				maxTileExponentCounts[i] += other.maxTileExponentCounts[i];
+			}
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+		int gameCount = 1000;
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		String strategy = "random";
+		int depth = ExpectimaxSearch.DEFAULT_DEPTH;
+		long tableBytes = 0L;
+		Path weightsFile = null;
+		int length = 4;
+		long goalTileValue = 2048L;
+		boolean stopAtGoal = false;
+		long seed = new SplittableRandom().nextLong();
+		Path replayDirectory = null;
+
+		for (String arg : args) {
+			String[] option = arg.split("=", 2);
+			String value = option.length == 2 ? option[1] : "";
+			switch (option[0]) {
+			case "--games":
+				gameCount = Integer.parseInt(value);
+				break;
+			case "--threads":
+				threadCount = Integer.parseInt(value);
+				break;
+			case "--strategy":
+				strategy = value;
+				break;
+			case "--depth":
+				depth = Integer.parseInt(value);
+				break;
+			case "--table-size":
+				tableBytes = OffHeapTranspositionTable.parseSize(value);
+				break;
+			case "--weights":
+				weightsFile = Paths.get(value);
+				break;
+			case "--length":
+				length = Integer.parseInt(value);
+				break;
+			case "--goal":
+				goalTileValue = Long.parseLong(value);
+				break;
+			case "--stop-at-goal":
+				stopAtGoal = true;
+				break;
+			case "--seed":
+				seed = Long.parseLong(value);
+				break;
+			case "--replays":
+				replayDirectory = Paths.get(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + arg);
+			}
+		}
+
+		validateStrategyLength(strategy, length);
+		GameSimulator gameSimulator = new GameSimulator(gameCount, threadCount, length, goalTileValue, stopAtGoal, seed, createMoveStrategySupplier(strategy, depth, tableBytes, createBoardEvaluator(weightsFile)));
+		gameSimulator.setReplayDirectory(replayDirectory);
+		System.out.printf("strategy=%s games=%d threads=%d length=%d goal=%d seed=%d%n", strategy, gameCount, threadCount, length, goalTileValue, seed);
+		gameSimulator.run().print(System.out);
+	}
+
+	/**
+	 * Fail before any thread starts if the strategy cannot play on boards of the
+	 * length: the greedy and expectimax strategies search packed 4x4 boards.
+	 */
+	private static void validateStrategyLength(String strategy, int length) {
+		if (("greedy".equals(strategy) || "expectimax".equals(strategy)) && length != BitBoard.LENGTH) {
+			throw new IllegalArgumentException(String.format("The %s strategy can only play on a length of %d.  Found: %d", strategy, BitBoard.LENGTH, length));
+		}
+	}
+
+	/**
+	 * @param weightsFile
+	 *            The saved NTupleNetwork, which is mapped rather than read, or
+	 *            null for the HeuristicEvaluator.
+	 * @return An evaluator that all threads can share.
+	 */
+	private static BoardEvaluator createBoardEvaluator(Path weightsFile) throws IOException {
+		if (weightsFile == null) {
+			return new HeuristicEvaluator();
+		}
+
+		return NTupleNetwork.map(weightsFile);
+	}
+
+	/**
+	 * @param tableBytes
+	 *            The size of the off-heap table of each expectimax thread, or 0
+	 *            for a table on the heap.
+	 */
+	private static Supplier<MoveStrategy> createMoveStrategySupplier(String strategy, int depth, long tableBytes, BoardEvaluator boardEvaluator) {
+		switch (strategy) {
+		case "random":
+			return RandomMoveStrategy::new;
+		case "greedy":
+			return () -> new GreedyMoveStrategy(boardEvaluator);
+		case "expectimax":
+			return () -> new ExpectimaxMoveStrategy(new ExpectimaxSearch(boardEvaluator, createTranspositionTable(tableBytes), depth, ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF));
+		default:
+			throw new IllegalArgumentException("Unknown strategy: " + strategy);
+		}
+	}
+
+	private static TranspositionTable createTranspositionTable(long tableBytes) {
+		return tableBytes == 0L ? new ArrayTranspositionTable(ExpectimaxSearch.DEFAULT_TABLE_CAPACITY) : new OffHeapTranspositionTable(tableBytes);
+	}
+}
@@ -0,0 +1,326 @@
+package com.github.ants280.slidegame.sim;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.ai.NTupleNetwork;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trains an NTupleNetwork by temporal difference learning on games it plays
+ * against itself, spread over a pool of threads.
+ *
+ * Each move is the one whose score plus the value of the board after it is
+ * largest. The value of the board after the previous move is then moved toward
+ * that sum, or toward zero when the game is lost. The games are played on
+ * BitBoards, which follow the rules of Grids at a fraction of the cost, except
+ * that two 32768 tiles never merge.
+ *
+ * All threads update the same weights without locking, so no thread waits for
+ * another. Every report interval, progress is printed and the network is
+ * saved to the weights file, through a temporary file that replaces it, so a
+ * crash never leaves half of a checkpoint behind.
+ *
+ * Usage: NTupleTrainer [--games=N] [--threads=N] [--learning-rate=F] [--seed=N]
+ * [--weights=FILE] [--report-interval=SECONDS]
+ */
+public class NTupleTrainer {
+	/**
+	 * The learning rate for the value of a board, which is split evenly among
+	 * the weights of its features.
+	 */
+	public static final float DEFAULT_LEARNING_RATE = 0.1f;
+	private static final long GOAL_TILE_VALUE = 2048L;
+	private static final int MAX_EXPONENT = 64;
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+	private final NTupleNetwork network;
+	private final int threadCount;
+	private final float featureLearningRate;
+	private final long seed;
+	private final LongAdder finishedGameCount = new LongAdder();
+	private final LongAdder moveCount = new LongAdder();
+	private final LongAdder scoreSum = new LongAdder();
+	private Path weightsFile;
+	private long reportIntervalNanos = TimeUnit.SECONDS.toNanos(10);
+	private PrintStream progressStream;
+
+	/**
+	 * @param network
+	 *            The network to train.
+	 * @param threadCount
+	 *            The number of threads to play the games on.
+	 * @param learningRate
+	 *            How far the value of a board moves toward each target.
+	 * @param seed
+	 *            The seed of the random sources of the threads. Only training on
+	 *            one thread gives the same network for the same seed.
+	 */
+	public NTupleTrainer(NTupleNetwork network, int threadCount, float learningRate, long seed) {
+		if (threadCount < 1 || !(learningRate > 0f)) {
+			throw new IllegalArgumentException(String.format("Cannot train on %d threads with a learning rate of %f", threadCount, learningRate));
+		}
+
+		this.network = network;
+		this.threadCount = threadCount;
+		this.featureLearningRate = learningRate / network.getFeatureCount();
+		this.seed = seed;
+	}
+
+	/**
+	 * @param weightsFile
+	 *            The file to save the network to during and after training, or
+	 *            null to not save it.
+	 */
+	public void setWeightsFile(Path weightsFile) {
+		this.weightsFile = weightsFile;
+	}
+
+	public void setReportInterval(long reportInterval, TimeUnit timeUnit) {
+		this.reportIntervalNanos = timeUnit.toNanos(reportInterval);
+	}
+
+	/**
+	 * @param progressStream
+	 *            Where to print the progress every report interval, or null to
+	 *            not print it.
+	 */
+	public void setProgressStream(PrintStream progressStream) {
+		this.progressStream = progressStream;
+	}
+
+	public SimulationResult train(int gameCount) throws InterruptedException, ExecutionException, IOException {
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		SplittableRandom random = new SplittableRandom(seed);
+		AtomicInteger nextGameIndex = new AtomicInteger();
+		long[] scores = new long[gameCount];
+		List<Future<Tally>> futures = new ArrayList<>(threadCount);
+
+		long startNanos = System.nanoTime();
+		try {
+			for (int i = 0; i < threadCount; i++) {
+				SplittableRandom threadRandom = random.split();
+				futures.add(executorService.submit(() -> this.playGames(threadRandom, nextGameIndex, scores)));
+			}
+
+			Progress progress = new Progress(startNanos);
+			long reportNanos = startNanos + reportIntervalNanos;
+			Tally total = new Tally();
+			for (Future<Tally> future : futures) {
+				while (!future.isDone()) {
+					try {
+						future.get(Math.max(0L, reportNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+					} catch (TimeoutException e) {
+						this.checkpoint();
+						progress.report();
+						reportNanos += reportIntervalNanos;
+					}
+				}
+				total.add(future.get());
+			}
+			this.checkpoint();
+
+			return new SimulationResult(System.nanoTime() - startNanos, scores, moveCount.sum(), total.goalTileCount, GOAL_TILE_VALUE, total.maxTileExponentCounts);
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private Tally playGames(SplittableRandom random, AtomicInteger nextGameIndex, long[] scores) {
+		BitBoard bitBoard = new BitBoard(BitBoard.LENGTH, GOAL_TILE_VALUE, random);
+		Tally tally = new Tally();
+
+		for (int gameIndex = nextGameIndex.getAndIncrement(); gameIndex < scores.length; gameIndex = nextGameIndex.getAndIncrement()) {
+			long score = this.playGame(bitBoard);
+			scores[gameIndex] = score;
+			scoreSum.add(score);
+			finishedGameCount.increment();
+
+			if (bitBoard.goalTileCreated()) {
+				tally.goalTileCount++;
+			}
+			tally.maxTileExponentCounts[getMaxTileExponent(bitBoard.getTiles())]++;
+		}
+
+		return tally;
+	}
+
+	/**
+	 * Play one game to the end, learning from every move.
+	 *
+	 * @return The score of the game.
+	 */
+	private long playGame(BitBoard bitBoard) {
+		bitBoard.clear();
+		bitBoard.addRandomTile();
+		bitBoard.addRandomTile();
+
+		long score = 0L;
+		int gameMoveCount = 0;
+		long previousAfterstate = 0L;
+		while (true) {
+			long tiles = bitBoard.getTiles();
+			MoveDirection bestMoveDirection = null;
+			float bestValue = 0f;
+			for (MoveDirection moveDirection : MOVE_DIRECTIONS) {
+				long slidTiles = BitBoard.slide(tiles, moveDirection);
+				if (slidTiles != tiles) {
+					float value = BitBoard.getScore(tiles, moveDirection) + network.evaluate(slidTiles);
+					if (bestMoveDirection == null || value > bestValue) {
+						bestMoveDirection = moveDirection;
+						bestValue = value;
+					}
+				}
+			}
+
+			if (gameMoveCount != 0) {
+				network.update(previousAfterstate, featureLearningRate * (bestValue - network.evaluate(previousAfterstate)));
+			}
+			if (bestMoveDirection == null) {
+				break;
+			}
+
+			score += bitBoard.slideTiles(bestMoveDirection);
+			gameMoveCount++;
+			previousAfterstate = bitBoard.getTiles();
+			bitBoard.addRandomTile();
+		}
+
+		moveCount.add(gameMoveCount);
+		return score;
+	}
+
+	private static int getMaxTileExponent(long tiles) {
+		int maxTileExponent = 0;
+
+		for (int shift = 0; shift < Long.SIZE; shift += 4) {
+			maxTileExponent = Math.max(maxTileExponent, (int) (tiles >>> shift & 0xF));
+		}
+
+		return maxTileExponent;
+	}
+
+	/**
+	 * Save the network to the weights file, which NTupleNetwork.save replaces
+	 * atomically.
+	 */
+	private void checkpoint() throws IOException {
+		if (weightsFile != null) {
+			network.save(weightsFile);
+		}
+	}
+
+	/**
+	 * Prints the games played and their mean score since the last report.
+	 */
+	private class Progress {
+		private long lastNanos;
+		private long lastGameCount;
+		private long lastMoveCount;
+		private long lastScoreSum;
+
+		private Progress(long startNanos) {
+			this.lastNanos = startNanos;
+		}
+
+		private void report() {
+			long nanos = System.nanoTime();
+			long gameCount = finishedGameCount.sum();
+			long currentMoveCount = moveCount.sum();
+			long currentScoreSum = scoreSum.sum();
+
+			if (progressStream != null) {
+				long intervalGameCount = gameCount - lastGameCount;
+				double seconds = (double) (nanos - lastNanos) / TimeUnit.SECONDS.toNanos(1);
+				progressStream.printf("games=%d moves/sec=%.0f mean score=%.1f%n",
+						gameCount,
+						(currentMoveCount - lastMoveCount) / seconds,
+						intervalGameCount == 0 ? 0d : (double) (currentScoreSum - lastScoreSum) / intervalGameCount);
+			}
+
+			lastNanos = nanos;
+			lastGameCount = gameCount;
+			lastMoveCount = currentMoveCount;
+			lastScoreSum = currentScoreSum;
+		}
+	}
+
+	/**
+	 * The end tiles of the games played by one thread.
+	 */
+	private static class Tally {
+		private int goalTileCount;
+		private final int[] maxTileExponentCounts = new int[MAX_EXPONENT];
+
+		private void add(Tally other) {
+			goalTileCount += other.goalTileCount;
+			for (int i = 0; i < MAX_EXPONENT; i++) {
+				maxTileExponentCounts[i] += other.maxTileExponentCounts[i];
+			}
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+		int gameCount = 100000;
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		float learningRate = DEFAULT_LEARNING_RATE;
+		long seed = new SplittableRandom().nextLong();
+		Path weightsFile = null;
+		long reportIntervalSeconds = 10L;
+
+		for (String arg : args) {
+			String[] option = arg.split("=", 2);
+			String value = option.length == 2 ? option[1] : "";
+			switch (option[0]) {
+			case "--games":
+				gameCount = Integer.parseInt(value);
+				break;
+			case "--threads":
+				threadCount = Integer.parseInt(value);
+				break;
+			case "--learning-rate":
+				learningRate = Float.parseFloat(value);
+				break;
+			case "--seed":
+				seed = Long.parseLong(value);
+				break;
+			case "--weights":
+				weightsFile = Paths.get(value);
+				break;
+			case "--report-interval":
+				reportIntervalSeconds = Long.parseLong(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + arg);
+			}
+		}
+
+		// Continue training the saved network, if any:
+		NTupleNetwork network;
+		if (weightsFile != null && Files.exists(weightsFile)) {
+			network = NTupleNetwork.load(weightsFile);
+		} else {
+			network = new NTupleNetwork();
+		}
+
+		NTupleTrainer nTupleTrainer = new NTupleTrainer(network, threadCount, learningRate, seed);
+		nTupleTrainer.setWeightsFile(weightsFile);
+		nTupleTrainer.setReportInterval(reportIntervalSeconds, TimeUnit.SECONDS);
+		nTupleTrainer.setProgressStream(System.out);
+		System.out.printf("games=%d threads=%d learning rate=%s seed=%d weights=%s%n", gameCount, threadCount, learningRate, seed, weightsFile);
+		nTupleTrainer.train(gameCount).print(System.out);
+	}
+}
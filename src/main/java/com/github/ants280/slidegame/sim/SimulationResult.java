@@ -0,0 +1,101 @@
+package com.github.ants280.slidegame.sim;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The combined statistics of the games played by a GameSimulator.
+ */
+public class SimulationResult {
+	private final int gameCount;
+	private final long elapsedNanos;
+	private final long[] sortedScores;
+	private final long moveCount;
+	private final int goalTileCount;
+	private final long goalTileValue;
+	private final int[] maxTileExponentCounts;
+
+	/**
+	 * @param elapsedNanos
+	 *            The wall time taken to play all of the games.
+	 * @param scores
+	 *            The final score of each game. Sorted in place.
+	 * @param moveCount
+	 *            The number of moves made in all of the games.
+	 * @param goalTileCount
+	 *            The number of games in which the goal tile was created.
+	 * @param goalTileValue
+	 *            The value of the goal tile.
+	 * @param maxTileExponentCounts
+	 *            The number of games whose largest tile was 2^index.
+	 */
+	public SimulationResult(long elapsedNanos, long[] scores, long moveCount, int goalTileCount, long goalTileValue, int[] maxTileExponentCounts) {
+		Arrays.sort(scores);
+
+		this.gameCount = scores.length;
+		this.elapsedNanos = elapsedNanos;
+		this.sortedScores = scores;
+		this.moveCount = moveCount;
+		this.goalTileCount = goalTileCount;
+		this.goalTileValue = goalTileValue;
+		this.maxTileExponentCounts = Arrays.copyOf(maxTileExponentCounts, maxTileExponentCounts.length);
+	}
+
+	public int getGameCount() {
+		return gameCount;
+	}
+
+	public long getMoveCount() {
+		return moveCount;
+	}
+
+	public double getGamesPerSecond() {
+		return gameCount / getElapsedSeconds();
+	}
+
+	public double getMovesPerSecond() {
+		return moveCount / getElapsedSeconds();
+	}
+
+	public double getGoalTileRate() {
+		return gameCount == 0 ? 0d : (double) goalTileCount / gameCount;
+	}
+
+	public double getMeanScore() {
+		return gameCount == 0 ? 0d : Arrays.stream(sortedScores).sum() / (double) gameCount;
+	}
+
+	/**
+	 * @param percentile
+	 *            The percentile, from 0 to 100.
+	 * @return The smallest score at least as large as the percentile of scores.
+	 */
+	public long getScorePercentile(double percentile) {
+		if (gameCount == 0) {
+			return 0;
+		}
+
+		int index = (int) Math.ceil(percentile / 100d * gameCount) - 1;
+		return sortedScores[Math.max(0, Math.min(gameCount - 1, index))];
+	}
+
+	private double getElapsedSeconds() {
+		return (double) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+	}
+
+	public void print(PrintStream out) {
+		out.printf("games:      %d in %.2f s%n", gameCount, getElapsedSeconds());
+		out.printf("games/sec:  %.1f%n", getGamesPerSecond());
+		out.printf("moves/sec:  %.1f (%d moves)%n", getMovesPerSecond(), moveCount);
+		out.printf("score:      min=%d p10=%d p50=%d p90=%d p99=%d max=%d mean=%.1f%n", getScorePercentile(0d), getScorePercentile(10d), getScorePercentile(50d), getScorePercentile(90d), getScorePercentile(99d), getScorePercentile(100d), getMeanScore());
+		out.printf("goal tile:  %d created in %.2f%% of games%n", goalTileValue, 100d * getGoalTileRate());
+		out.println("max tile:");
+		for (int exponent = 0; exponent < maxTileExponentCounts.length; exponent++) {
+			int count = maxTileExponentCounts[exponent];
+			if (count != 0) {
+				out.printf("%12d  %8d  %6.2f%%%n", 1L << exponent, count, 100d * count / gameCount);
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.github.ants280.slidegame.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Appends blocks of bytes to a file on a thread of its own, so callers never
+ * wait for the disk, not even to open the file.
+ *
+ * The file is opened when the appender is created and blocks are written in
+ * the order they are appended. Each block is written whole before the next
+ * one. Thread-safe.
+ */
+public class FileAppender implements Closeable {
+	private final Path file;
+	private final ExecutorService executorService;
+	private OutputStream outputStream;
+
+	public FileAppender(Path file) {
+		this.file = file.toAbsolutePath();
+		this.executorService = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "file-appender");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		// Open the file before the first block:
+		this.append(new byte[0]).exceptionally(e -> {
+			e.printStackTrace();
+			return null;
+		});
+	}
+
+	/**
+	 * @param bytes
+	 *            The block to append, which must not be changed afterwards.
+	 * @return Completes once the block is written, or exceptionally if the file
+	 *         could not be opened or written.
+	 */
+	public CompletableFuture<Void> append(byte[] bytes) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				if (outputStream == null) {
+					outputStream = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+				}
+				outputStream.write(bytes);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, executorService);
+	}
+
+	/**
+	 * Wait for the blocks appended so far to be written, then close the file.
+	 */
+	@Override
+	public void close() {
+		if (executorService.isShutdown()) {
+			return;
+		}
+
+		try {
+			executorService.submit(() -> {
+				if (outputStream != null) {
+					outputStream.close();
+					outputStream = null;
+				}
+				return null;
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+		} finally {
+			executorService.shutdown();
+		}
+	}
+}
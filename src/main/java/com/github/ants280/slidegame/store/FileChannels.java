@@ -0,0 +1,86 @@
+package com.github.ants280.slidegame.store;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes files the same way wherever they must survive a crash.
+ */
+public final class FileChannels {
+	private FileChannels() {
+	}
+
+	/**
+	 * Writes the contents of a file.
+	 */
+	@FunctionalInterface
+	public interface ChannelWriter {
+		void write(FileChannel fileChannel) throws IOException;
+	}
+
+	/**
+	 * Write a temporary file next to the file, force it to the disk and then
+	 * rename it over the file, so a crash leaves either the old file or the new
+	 * one, never a mix. The rename is atomic where the file system allows it.
+	 *
+	 * @param channelWriter
+	 *            Writes the new contents to the channel of the temporary file.
+	 */
+	public static void replaceAtomically(Path file, ChannelWriter channelWriter) throws IOException {
+		Path absoluteFile = file.toAbsolutePath();
+		Path temporaryFile = absoluteFile.resolveSibling(absoluteFile.getFileName() + ".tmp");
+
+		try (FileChannel fileChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			channelWriter.write(fileChannel);
+			fileChannel.force(true);
+		}
+
+		try {
+			Files.move(temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Fill the rest of the buffer from the channel, starting at the position in
+	 * the file. The buffer is not flipped.
+	 *
+	 * @throws EOFException
+	 *             If the file ends first.
+	 */
+	public static void readFully(FileChannel fileChannel, ByteBuffer byteBuffer, long position) throws IOException {
+		while (byteBuffer.hasRemaining()) {
+			int readByteCount = fileChannel.read(byteBuffer, position);
+			if (readByteCount < 0) {
+				throw new EOFException("Unexpected end of file at " + position);
+			}
+			position += readByteCount;
+		}
+	}
+
+	/**
+	 * Write the rest of the buffer at the position of the channel.
+	 */
+	public static void writeFully(FileChannel fileChannel, ByteBuffer byteBuffer) throws IOException {
+		while (byteBuffer.hasRemaining()) {
+			fileChannel.write(byteBuffer);
+		}
+	}
+
+	/**
+	 * Write the rest of the buffer starting at the position in the file.
+	 */
+	public static void writeFully(FileChannel fileChannel, ByteBuffer byteBuffer, long position) throws IOException {
+		while (byteBuffer.hasRemaining()) {
+			position += fileChannel.write(byteBuffer, position);
+		}
+	}
+}
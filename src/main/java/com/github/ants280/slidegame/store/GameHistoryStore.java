@@ -0,0 +1,464 @@
+package com.github.ants280.slidegame.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the result of every finished game in a file that is only ever appended
+ * to, with a small index file next to it that answers the usual queries.
+ *
+ * The game file is a header and then fixed-size GameRecords, little-endian,
+ * so the record of any game is found from its position alone. Each record is
+ * forced to the disk once it is appended, and a record cut short by a crash
+ * is dropped when the file is opened.
+ *
+ * The index holds the number of games it covers, a histogram of their scores,
+ * the best game of each board length and the best TOP_GAME_CAPACITY games.
+ * Its size does not depend on the number of games, so the queries answered
+ * from it take the same time for any number of games. The index is replaced
+ * through a temporary file every INDEX_WRITE_INTERVAL games and when the store
+ * is closed. Games appended after the last index write are read from the end
+ * of the game file when it is opened, and a missing or broken index is rebuilt
+ * from the whole file.
+ *
+ * The files are opened, read and written on a thread of the store, in the
+ * order the methods are called, and every method answers with a future, so
+ * the store can be used from the Event Dispatch Thread. Thread-safe.
+ */
+public class GameHistoryStore implements Closeable {
+	/**
+	 * The number of best games kept in the index.
+	 */
+	public static final int TOP_GAME_CAPACITY = 100;
+	/**
+	 * The number of buckets in the score histogram: bucket 0 counts the games
+	 * that scored 0, and bucket i the games that scored from 2^(i-1) to 2^i - 1.
+	 */
+	public static final int SCORE_HISTOGRAM_BUCKETS = Long.SIZE;
+	static final int MAGIC = 0x32304748; // "20GH"
+	static final int INDEX_MAGIC = 0x32304749; // "20GI"
+	static final byte VERSION = 1;
+	static final int HEADER_BYTES = 8;
+	static final int INDEX_WRITE_INTERVAL = 64;
+	private static final int SCAN_RECORD_COUNT = 2048;
+	/**
+	 * Orders better games first: higher scores, then earlier games.
+	 */
+	private static final Comparator<IndexedRecord> BEST_FIRST = Comparator.<IndexedRecord> comparingLong(indexedRecord -> indexedRecord.record.getScore()).reversed()
+			.thenComparingLong(indexedRecord -> indexedRecord.index);
+	private final Path file;
+	private final Path indexFile;
+	private final ExecutorService executorService;
+	private FileChannel fileChannel;
+	private long recordCount;
+	private long indexedRecordCount;
+	private long[] scoreHistogram;
+	private SortedMap<Integer, IndexedRecord> bestGames;
+	private List<IndexedRecord> topGames;
+
+	/**
+	 * @param file
+	 *            The file of the games. The index is kept in the same directory,
+	 *            with ".idx" after the name.
+	 */
+	public GameHistoryStore(Path file) {
+		this.file = file.toAbsolutePath();
+		this.indexFile = this.file.resolveSibling(this.file.getFileName() + ".idx");
+		this.executorService = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "game-history-store");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		// Start reading the files before the first query:
+		this.submit(() -> null);
+	}
+
+	/**
+	 * @return Completes once the game is written to the disk.
+	 */
+	public CompletableFuture<Void> add(GameRecord gameRecord) {
+		return this.submit(() -> {
+			this.append(gameRecord);
+			return null;
+		});
+	}
+
+	public CompletableFuture<Long> getGameCount() {
+		return this.submit(() -> recordCount);
+	}
+
+	/**
+	 * @param count
+	 *            The number of games to get. Up to TOP_GAME_CAPACITY games are
+	 *            read from the index, more are found by reading every game.
+	 * @return The games with the highest scores, best first. Games with the same
+	 *         score are in the order they were added.
+	 */
+	public CompletableFuture<List<GameRecord>> getTopGames(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Cannot get a negative number of games: " + count);
+		}
+
+		return this.submit(() -> {
+			List<IndexedRecord> indexedRecords = count <= TOP_GAME_CAPACITY || recordCount <= TOP_GAME_CAPACITY
+					? topGames.subList(0, Math.min(count, topGames.size()))
+					: this.findTopGames(count);
+
+			List<GameRecord> gameRecords = new ArrayList<>(indexedRecords.size());
+			for (IndexedRecord indexedRecord : indexedRecords) {
+				gameRecords.add(indexedRecord.record);
+			}
+			return gameRecords;
+		});
+	}
+
+	/**
+	 * @return The game with the highest score for each board length played on,
+	 *         by length. The earliest game wins ties.
+	 */
+	public CompletableFuture<SortedMap<Integer, GameRecord>> getBestGames() {
+		return this.submit(() -> {
+			SortedMap<Integer, GameRecord> gameRecords = new TreeMap<>();
+			bestGames.forEach((length, indexedRecord) -> gameRecords.put(length, indexedRecord.record));
+			return gameRecords;
+		});
+	}
+
+	/**
+	 * @return The number of games in each score bucket.
+	 * @see #SCORE_HISTOGRAM_BUCKETS
+	 */
+	public CompletableFuture<long[]> getScoreHistogram() {
+		return this.submit(() -> scoreHistogram.clone());
+	}
+
+	/**
+	 * @return The index of the histogram bucket that counts the score.
+	 */
+	public static int getScoreBucket(long score) {
+		return Long.SIZE - Long.numberOfLeadingZeros(score);
+	}
+
+	/**
+	 * @return The lowest score counted by the histogram bucket.
+	 */
+	public static long getScoreBucketMin(int scoreBucket) {
+		return scoreBucket == 0 ? 0L : 1L << (scoreBucket - 1);
+	}
+
+	/**
+	 * Write the index and close the files, waiting for any queued work first.
+	 */
+	@Override
+	public void close() {
+		if (executorService.isShutdown()) {
+			return;
+		}
+
+		try {
+			executorService.submit(() -> {
+				if (fileChannel != null) {
+					if (indexedRecordCount != recordCount) {
+						this.writeIndex();
+					}
+					fileChannel.close();
+					fileChannel = null;
+				}
+				return null;
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> task) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				this.open();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return task.get();
+		}, executorService);
+	}
+
+	/**
+	 * Open the game file, if it is not open, and read the index, bringing it up
+	 * to date with the games appended after it was written.
+	 */
+	private void open() throws IOException {
+		if (fileChannel != null) {
+			return;
+		}
+
+		FileChannel openedFileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			recordCount = this.readHeader(openedFileChannel);
+		} catch (IOException | RuntimeException e) {
+			openedFileChannel.close();
+			throw e;
+		}
+		fileChannel = openedFileChannel;
+
+		if (!this.readIndex()) {
+			indexedRecordCount = 0L;
+			scoreHistogram = new long[SCORE_HISTOGRAM_BUCKETS];
+			bestGames = new TreeMap<>();
+			topGames = new ArrayList<>(TOP_GAME_CAPACITY + 1);
+		}
+
+		long staleRecordCount = recordCount - indexedRecordCount;
+		this.scan(indexedRecordCount, this::addToIndex);
+		if (staleRecordCount >= INDEX_WRITE_INTERVAL) {
+			this.writeIndex();
+		}
+	}
+
+	/**
+	 * Write the header of an empty file, or check the header of the file and drop
+	 * any record cut short at its end.
+	 *
+	 * @return The number of records in the file.
+	 */
+	private long readHeader(FileChannel fileChannel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+		if (fileChannel.size() < HEADER_BYTES) {
+			header.putInt(MAGIC).put(VERSION).put((byte) GameRecord.BYTES).flip();
+			fileChannel.truncate(0L);
+			FileChannels.writeFully(fileChannel, header, 0L);
+			fileChannel.force(true);
+			return 0L;
+		}
+
+		FileChannels.readFully(fileChannel, header, 0L);
+		header.flip();
+		int magic = header.getInt();
+		byte version = header.get();
+		int recordBytes = header.get() & 0xFF;
+		if (magic != MAGIC || version != VERSION || recordBytes != GameRecord.BYTES) {
+			throw new IOException(String.format("Not a version %d game history file: %s", VERSION, file));
+		}
+
+		long count = (fileChannel.size() - HEADER_BYTES) / GameRecord.BYTES;
+		long size = HEADER_BYTES + count * GameRecord.BYTES;
+		if (fileChannel.size() != size) {
+			fileChannel.truncate(size);
+			fileChannel.force(true);
+		}
+		return count;
+	}
+
+	private void append(GameRecord gameRecord) {
+		ByteBuffer byteBuffer = ByteBuffer.allocate(GameRecord.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		gameRecord.write(byteBuffer);
+		byteBuffer.flip();
+
+		try {
+			FileChannels.writeFully(fileChannel, byteBuffer, HEADER_BYTES + recordCount * GameRecord.BYTES);
+			fileChannel.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		this.addToIndex(new IndexedRecord(recordCount, gameRecord));
+		recordCount++;
+
+		if (recordCount - indexedRecordCount >= INDEX_WRITE_INTERVAL) {
+			try {
+				this.writeIndex();
+			} catch (IOException e) {
+				// The index is rebuilt from the games when the store is opened:
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void addToIndex(IndexedRecord indexedRecord) {
+		GameRecord gameRecord = indexedRecord.record;
+
+		scoreHistogram[getScoreBucket(gameRecord.getScore())]++;
+
+		IndexedRecord bestGame = bestGames.get(gameRecord.getLength());
+		if (bestGame == null || gameRecord.getScore() > bestGame.record.getScore()) {
+			bestGames.put(gameRecord.getLength(), indexedRecord);
+		}
+
+		// Games come in order, so a game goes after the games of equal score:
+		if (topGames.size() < TOP_GAME_CAPACITY || gameRecord.getScore() > topGames.get(topGames.size() - 1).record.getScore()) {
+			int insertionIndex = topGames.size();
+			while (insertionIndex > 0 && topGames.get(insertionIndex - 1).record.getScore() < gameRecord.getScore()) {
+				insertionIndex--;
+			}
+			topGames.add(insertionIndex, indexedRecord);
+			if (topGames.size() > TOP_GAME_CAPACITY) {
+				topGames.remove(TOP_GAME_CAPACITY);
+			}
+		}
+	}
+
+	/**
+	 * Read every game to find the best ones, keeping only that many at a time.
+	 */
+	private List<IndexedRecord> findTopGames(int count) {
+		PriorityQueue<IndexedRecord> worstFirst = new PriorityQueue<>(BEST_FIRST.reversed());
+
+		try {
+			this.scan(0L, indexedRecord -> {
+				worstFirst.add(indexedRecord);
+				if (worstFirst.size() > count) {
+					worstFirst.poll();
+				}
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		List<IndexedRecord> indexedRecords = new ArrayList<>(worstFirst);
+		Collections.sort(indexedRecords, BEST_FIRST);
+		return indexedRecords;
+	}
+
+	/**
+	 * Read the games from the start index to the end of the file in large blocks.
+	 */
+	private void scan(long startIndex, Consumer<IndexedRecord> consumer) throws IOException {
+		ByteBuffer byteBuffer = ByteBuffer.allocate(SCAN_RECORD_COUNT * GameRecord.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+		for (long index = startIndex; index < recordCount;) {
+			int blockRecordCount = (int) Math.min(SCAN_RECORD_COUNT, recordCount - index);
+			byteBuffer.clear().limit(blockRecordCount * GameRecord.BYTES);
+			FileChannels.readFully(fileChannel, byteBuffer, HEADER_BYTES + index * GameRecord.BYTES);
+			byteBuffer.flip();
+
+			for (int i = 0; i < blockRecordCount; i++, index++) {
+				GameRecord gameRecord;
+				try {
+					gameRecord = GameRecord.read(byteBuffer);
+				} catch (IllegalArgumentException e) {
+					throw new IOException(String.format("Invalid game %d in %s", index, file), e);
+				}
+				consumer.accept(new IndexedRecord(index, gameRecord));
+			}
+		}
+	}
+
+	/**
+	 * Read the index file, if it exists and matches the game file.
+	 *
+	 * @return Whether the index was read.
+	 */
+	private boolean readIndex() {
+		if (!Files.exists(indexFile)) {
+			return false;
+		}
+
+		try {
+			ByteBuffer byteBuffer = ByteBuffer.wrap(Files.readAllBytes(indexFile)).order(ByteOrder.LITTLE_ENDIAN);
+			if (byteBuffer.getInt() != INDEX_MAGIC || byteBuffer.get() != VERSION) {
+				return false;
+			}
+
+			long count = byteBuffer.getLong();
+			if (count < 0L || count > recordCount) {
+				return false;
+			}
+			long[] histogram = new long[SCORE_HISTOGRAM_BUCKETS];
+			for (int i = 0; i < SCORE_HISTOGRAM_BUCKETS; i++) {
+				histogram[i] = byteBuffer.getLong();
+			}
+			SortedMap<Integer, IndexedRecord> best = new TreeMap<>();
+			for (int i = byteBuffer.getInt(); i > 0; i--) {
+				IndexedRecord indexedRecord = readIndexedRecord(byteBuffer);
+				best.put(indexedRecord.record.getLength(), indexedRecord);
+			}
+			List<IndexedRecord> top = new ArrayList<>(TOP_GAME_CAPACITY + 1);
+			for (int i = byteBuffer.getInt(); i > 0; i--) {
+				top.add(readIndexedRecord(byteBuffer));
+			}
+
+			indexedRecordCount = count;
+			scoreHistogram = histogram;
+			bestGames = best;
+			topGames = top;
+			return true;
+		} catch (IOException | RuntimeException e) {
+			// The index is rebuilt from the games:
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	private static IndexedRecord readIndexedRecord(ByteBuffer byteBuffer) {
+		long index = byteBuffer.getLong();
+		return new IndexedRecord(index, GameRecord.read(byteBuffer));
+	}
+
+	/**
+	 * Replace the index file atomically, so a crash leaves the old index or the
+	 * new one.
+	 */
+	private void writeIndex() throws IOException {
+		int indexedRecordBytes = 8 + GameRecord.BYTES;
+		ByteBuffer byteBuffer = ByteBuffer.allocate(4 + 1 + 8 + 8 * SCORE_HISTOGRAM_BUCKETS + 4 + (bestGames.size() + topGames.size()) * indexedRecordBytes + 4)
+				.order(ByteOrder.LITTLE_ENDIAN);
+
+		byteBuffer.putInt(INDEX_MAGIC).put(VERSION).putLong(recordCount);
+		for (long count : scoreHistogram) {
+			byteBuffer.putLong(count);
+		}
+		byteBuffer.putInt(bestGames.size());
+		for (IndexedRecord indexedRecord : bestGames.values()) {
+			byteBuffer.putLong(indexedRecord.index);
+			indexedRecord.record.write(byteBuffer);
+		}
+		byteBuffer.putInt(topGames.size());
+		for (IndexedRecord indexedRecord : topGames) {
+			byteBuffer.putLong(indexedRecord.index);
+			indexedRecord.record.write(byteBuffer);
+		}
+		byteBuffer.flip();
+
+		FileChannels.replaceAtomically(indexFile, indexFileChannel -> FileChannels.writeFully(indexFileChannel, byteBuffer));
+
+		indexedRecordCount = recordCount;
+	}
+
+	/**
+	 * A game with its position in the file, which orders games of equal score.
+	 */
+	private static class IndexedRecord {
+		private final long index;
+		private final GameRecord record;
+
+		private IndexedRecord(long index, GameRecord record) {
+			this.index = index;
+			this.record = record;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.github.ants280.slidegame.store;
+
+import com.github.ants280.slidegame.logic.Tile;
+import java.nio.ByteBuffer;
+
+/**
+ * The result of one finished game, as kept by a GameHistoryStore.
+ */
+public class GameRecord {
+	/**
+	 * The number of bytes of a record in a GameHistoryStore file: the score, the
+	 * seed, the duration, the number of moves, the board length, the max and goal
+	 * tile exponents and a byte reserved for later versions.
+	 */
+	static final int BYTES = 8 + 8 + 8 + 4 + 1 + 1 + 1 + 1;
+	private static final int MAX_LENGTH = 0xFF;
+	private final long score;
+	private final int maxTileExponent;
+	private final int moveCount;
+	private final long durationMillis;
+	private final int length;
+	private final int goalTileExponent;
+	private final long seed;
+
+	/**
+	 * @param score
+	 *            The final score.
+	 * @param maxTileExponent
+	 *            The exponent of the largest tile on the final board.
+	 * @param moveCount
+	 *            The number of moves that led to the end of the game.
+	 * @param durationMillis
+	 *            How long the game took.
+	 * @param length
+	 *            The width and height of the board.
+	 * @param goalTileExponent
+	 *            The exponent of the goal tile.
+	 * @param seed
+	 *            The seed of the random tiles, or 0 if it is not known.
+	 */
+	public GameRecord(long score, int maxTileExponent, int moveCount, long durationMillis, int length, int goalTileExponent, long seed) {
+		if (score < 0L || moveCount < 0 || durationMillis < 0L
+				|| length < 1 || length > MAX_LENGTH
+				|| maxTileExponent < 0 || maxTileExponent > Tile.MAX_EXPONENT
+				|| goalTileExponent < 0 || goalTileExponent > Tile.MAX_EXPONENT) {
+			throw new IllegalArgumentException(String.format("Invalid game record: score=%d, maxTileExponent=%d, moveCount=%d, durationMillis=%d, length=%d, goalTileExponent=%d",
+					score, maxTileExponent, moveCount, durationMillis, length, goalTileExponent));
+		}
+
+		this.score = score;
+		this.maxTileExponent = maxTileExponent;
+		this.moveCount = moveCount;
+		this.durationMillis = durationMillis;
+		this.length = length;
+		this.goalTileExponent = goalTileExponent;
+		this.seed = seed;
+	}
+
+	/**
+	 * Read a record at the position of the buffer, which must be little-endian.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If the record is not valid.
+	 */
+	static GameRecord read(ByteBuffer byteBuffer) {
+		long score = byteBuffer.getLong();
+		long seed = byteBuffer.getLong();
+		long durationMillis = byteBuffer.getLong();
+		int moveCount = byteBuffer.getInt();
+		int length = byteBuffer.get() & 0xFF;
+		int maxTileExponent = byteBuffer.get();
+		int goalTileExponent = byteBuffer.get();
+		byteBuffer.get();
+
+		return new GameRecord(score, maxTileExponent, moveCount, durationMillis, length, goalTileExponent, seed);
+	}
+
+	/**
+	 * Write the record at the position of the buffer, which must be
+	 * little-endian.
+	 */
+	void write(ByteBuffer byteBuffer) {
+		byteBuffer.putLong(score);
+		byteBuffer.putLong(seed);
+		byteBuffer.putLong(durationMillis);
+		byteBuffer.putInt(moveCount);
+		byteBuffer.put((byte) length);
+		byteBuffer.put((byte) maxTileExponent);
+		byteBuffer.put((byte) goalTileExponent);
+		byteBuffer.put((byte) 0);
+	}
+
+	public long getScore() {
+		return score;
+	}
+
+	public int getMaxTileExponent() {
+		return maxTileExponent;
+	}
+
+	public long getMaxTileValue() {
+		return 1L << maxTileExponent;
+	}
+
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	public int getGoalTileExponent() {
+		return goalTileExponent;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(score) * 31 + Long.hashCode(seed);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || this.getClass() != obj.getClass()) {
+			return false;
+		}
+
+		GameRecord other = (GameRecord) obj;
+		return score == other.score
+				&& maxTileExponent == other.maxTileExponent
+				&& moveCount == other.moveCount
+				&& durationMillis == other.durationMillis
+				&& length == other.length
+				&& goalTileExponent == other.goalTileExponent
+				&& seed == other.seed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("GameRecord{score=%d, maxTile=%d, moves=%d, durationMillis=%d, length=%d, goalTile=%d, seed=%d}",
+				score, this.getMaxTileValue(), moveCount, durationMillis, length, 1L << goalTileExponent, seed);
+	}
+}
@@ -0,0 +1,242 @@
+package com.github.ants280.slidegame.store;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+/**
+ * Keeps properties in memory and writes them to a file behind the backs of its
+ * callers, so getting and setting them never waits for the disk.
+ *
+ * The file is read on a background thread as soon as the store is created.
+ * A property set before then replaces the value in the file, and a property
+ * merged before then, such as a high score, is merged with it. Setting a
+ * property schedules a write a short delay later, and every property
+ * set before that write is saved by it, so bursts of changes cost one write.
+ * Each write goes to a temporary file that is forced to the disk and then
+ * renamed over the file, so a crash leaves either the old file or the new
+ * one, never a mix.
+ *
+ * Reads and writes of the file all happen in order on the same thread, so a
+ * write never happens before the file is read. If the file cannot be read, it
+ * is never written, so properties set meanwhile are only kept in memory. A
+ * file that holds malformed properties is first moved aside with ".corrupt"
+ * after its name, and then written as usual. Thread-safe.
+ */
+public class PropertiesStore implements Closeable {
+	public static final long DEFAULT_WRITE_DELAY_MILLIS = 500L;
+	private final Path file;
+	private final long writeDelayMillis;
+	private final ScheduledExecutorService executorService;
+	private final CompletableFuture<Void> loaded;
+	private final Properties properties = new Properties();
+	/**
+	 * How to merge the value in the file of each key set before the file was
+	 * read with the value it was set to.
+	 */
+	private final Map<String, BinaryOperator<String>> pendingMerges = new HashMap<>();
+	private boolean fileRead;
+	/**
+	 * Whether the file may be replaced, which it may not if it could not be
+	 * read.
+	 */
+	private boolean writable = true;
+	private boolean dirty;
+	private boolean writeScheduled;
+
+	public PropertiesStore(Path file, Properties defaults) {
+		this(file, defaults, DEFAULT_WRITE_DELAY_MILLIS);
+	}
+
+	/**
+	 * @param file
+	 *            The file to keep the properties in.
+	 * @param defaults
+	 *            The values of the properties that are not in the file. They
+	 *            are saved in the file with the other properties.
+	 * @param writeDelayMillis
+	 *            How long after a property is set to write the file.
+	 */
+	public PropertiesStore(Path file, Properties defaults, long writeDelayMillis) {
+		this(file, defaults, writeDelayMillis, Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "properties-store");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	/**
+	 * @param executorService
+	 *            The single thread to read and write the file on, which is shut
+	 *            down when the store is closed.
+	 */
+	PropertiesStore(Path file, Properties defaults, long writeDelayMillis, ScheduledExecutorService executorService) {
+		this.file = file.toAbsolutePath();
+		this.writeDelayMillis = writeDelayMillis;
+		this.executorService = executorService;
+		for (String key : defaults.stringPropertyNames()) {
+			properties.setProperty(key, defaults.getProperty(key));
+		}
+
+		this.loaded = CompletableFuture.runAsync(this::read, executorService);
+	}
+
+	/**
+	 * @return Completes once the file is read, or exceptionally if it could not
+	 *         be read or was malformed. A missing file is read as an empty one.
+	 */
+	public CompletableFuture<Void> whenLoaded() {
+		return loaded;
+	}
+
+	public synchronized String get(String key) {
+		return properties.getProperty(key);
+	}
+
+	/**
+	 * Set the property, replacing its value in the file even if the file is read
+	 * later.
+	 */
+	public void set(String key, String value) {
+		this.merge(key, value, (oldValue, newValue) -> newValue);
+	}
+
+	/**
+	 * Set the property to its value merged with the given value, such as the
+	 * larger of the two. If the file is read later, the value in the file is
+	 * merged with the value set, so the function should not depend on the order
+	 * of merging.
+	 *
+	 * @param remappingFunction
+	 *            Merges the old value of the property with the given value.
+	 */
+	public synchronized void merge(String key, String value, BinaryOperator<String> remappingFunction) {
+		String oldValue = properties.getProperty(key);
+		String newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+		if (!fileRead) {
+			pendingMerges.put(key, remappingFunction);
+		}
+		if (newValue.equals(oldValue)) {
+			return;
+		}
+
+		properties.setProperty(key, newValue);
+		dirty = true;
+		// Properties set after closing are kept in memory only:
+		if (!writeScheduled && !executorService.isShutdown()) {
+			writeScheduled = true;
+			executorService.schedule(this::write, writeDelayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void read() {
+		Properties fileProperties = new Properties();
+
+		if (Files.exists(file)) {
+			try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file))) {
+				fileProperties.load(inputStream);
+			} catch (IOException e) {
+				// The file may be fine, so never replace it with what is in memory:
+				synchronized (this) {
+					writable = false;
+					this.finishRead(new Properties());
+				}
+				throw new UncheckedIOException(e);
+			} catch (IllegalArgumentException e) {
+				// The file holds a malformed escape, so keep it next to the file:
+				IOException ioException = new IOException("Malformed properties file: " + file, e);
+				try {
+					Files.move(file, this.getCorruptFile(), StandardCopyOption.REPLACE_EXISTING);
+				} catch (IOException moveException) {
+					ioException.addSuppressed(moveException);
+					synchronized (this) {
+						writable = false;
+					}
+				}
+				synchronized (this) {
+					this.finishRead(new Properties());
+				}
+				throw new UncheckedIOException(ioException);
+			}
+		}
+
+		synchronized (this) {
+			this.finishRead(fileProperties);
+		}
+	}
+
+	/**
+	 * @return Where a file that cannot be read as properties is moved to, so
+	 *         writes do not replace it.
+	 */
+	Path getCorruptFile() {
+		return file.resolveSibling(file.getFileName() + ".corrupt");
+	}
+
+	private void finishRead(Properties fileProperties) {
+		for (String key : fileProperties.stringPropertyNames()) {
+			BinaryOperator<String> remappingFunction = pendingMerges.get(key);
+			String fileValue = fileProperties.getProperty(key);
+			properties.setProperty(key, remappingFunction == null ? fileValue : remappingFunction.apply(fileValue, properties.getProperty(key)));
+		}
+		pendingMerges.clear();
+		fileRead = true;
+	}
+
+	private void write() {
+		Properties writtenProperties = new Properties();
+		synchronized (this) {
+			writeScheduled = false;
+			if (!dirty || !writable) {
+				return;
+			}
+			dirty = false;
+			writtenProperties.putAll(properties);
+		}
+
+		try {
+			FileChannels.replaceAtomically(file, fileChannel -> writtenProperties.store(Channels.newOutputStream(fileChannel), null));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Write any properties set since the last write now, and wait for it.
+	 */
+	public void flush() {
+		try {
+			executorService.submit(this::write).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Flush the properties and stop the writing thread.
+	 */
+	@Override
+	public void close() {
+		if (!executorService.isShutdown()) {
+			this.flush();
+			executorService.shutdown();
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.github.ants280.slidegame.ui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.Timer;
+
+/**
+ * Makes moves on a thread of its own at a chosen speed, while a Swing Timer
+ * renders on the Event Dispatch Thread at display rate. The two only meet in
+ * what the step and render actions share, so a slow paint never slows the
+ * moves and fast moves never flood the EDT.
+ *
+ * Start and stop must be called on the EDT. Stopping waits for the current
+ * step to finish, so the game is only touched by the EDT afterwards.
+ */
+public class Autoplayer {
+	/**
+	 * The speed of making moves as fast as possible.
+	 */
+	public static final int MAX_SPEED = 0;
+	private static final int[] SPEEDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, MAX_SPEED };
+	private static final int DEFAULT_SPEED_INDEX = 3;
+	private static final int RENDER_INTERVAL_MILLIS = 16;
+	private static final long RATE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+	/**
+	 * How far behind the schedule moves may fall before the lost time is given
+	 * up instead of being caught up with a burst of moves.
+	 */
+	private static final long MAX_LAG_NANOS = TimeUnit.SECONDS.toNanos(1);
+	private final Runnable step;
+	private final Timer renderTimer;
+	private final LongAdder moveCount = new LongAdder();
+	private volatile int speedIndex = DEFAULT_SPEED_INDEX;
+	private Thread thread;
+	private long rateStartNanos;
+	private long rateStartMoveCount;
+	private double movesPerSecond;
+
+	/**
+	 * @param step
+	 *            Makes one move, on the autoplay thread.
+	 * @param render
+	 *            Shows the latest state, on the EDT at display rate.
+	 */
+	public Autoplayer(Runnable step, Runnable render) {
+		this.step = step;
+		this.renderTimer = new Timer(RENDER_INTERVAL_MILLIS, actionEvent -> render.run());
+	}
+
+	public boolean isRunning() {
+		return thread != null;
+	}
+
+	public void start() {
+		if (thread != null) {
+			return;
+		}
+
+		rateStartNanos = System.nanoTime();
+		rateStartMoveCount = moveCount.sum();
+		movesPerSecond = 0d;
+		thread = new Thread(this::run, "autoplay");
+		thread.setDaemon(true);
+		thread.start();
+		renderTimer.start();
+	}
+
+	public void stop() {
+		if (thread == null) {
+			return;
+		}
+
+		thread.interrupt();
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		thread = null;
+		renderTimer.stop();
+	}
+
+	private void run() {
+		long nextStepNanos = System.nanoTime();
+
+		while (!Thread.currentThread().isInterrupted()) {
+			step.run();
+			moveCount.increment();
+
+			int speed = SPEEDS[speedIndex];
+			if (speed != MAX_SPEED) {
+				nextStepNanos += TimeUnit.SECONDS.toNanos(1) / speed;
+				long waitNanos = nextStepNanos - System.nanoTime();
+				if (waitNanos > 0L) {
+					LockSupport.parkNanos(this, waitNanos);
+				} else if (waitNanos < -MAX_LAG_NANOS) {
+					nextStepNanos = System.nanoTime();
+				}
+			}
+		}
+	}
+
+	public void faster() {
+		speedIndex = Math.min(speedIndex + 1, SPEEDS.length - 1);
+	}
+
+	public void slower() {
+		speedIndex = Math.max(speedIndex - 1, 0);
+	}
+
+	/**
+	 * @return The target number of moves per second, or MAX_SPEED.
+	 */
+	public int getSpeed() {
+		return SPEEDS[speedIndex];
+	}
+
+	/**
+	 * @return The measured number of moves per second, updated every half
+	 *         second. Must be called on the EDT.
+	 */
+	public double getMovesPerSecond() {
+		long nanos = System.nanoTime();
+
+		if (nanos - rateStartNanos >= RATE_INTERVAL_NANOS) {
+			long currentMoveCount = moveCount.sum();
+			movesPerSecond = (currentMoveCount - rateStartMoveCount) * (double) TimeUnit.SECONDS.toNanos(1) / (nanos - rateStartNanos);
+			rateStartNanos = nanos;
+			rateStartMoveCount = currentMoveCount;
+		}
+
+		return movesPerSecond;
+	}
+}
@@ -0,0 +1,97 @@
+package com.github.ants280.slidegame.ui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.ai.IterativeDeepeningSearch;
+import com.github.ants280.slidegame.logic.ai.SearchResult;
+
+/**
+ * Suggests moves without blocking the Event Dispatch Thread. The board is
+ * packed on the EDT, which takes microseconds, and searched on a background
+ * thread for the time budget. The suggestion is shown with invokeLater.
+ *
+ * Every hint request gets a new generation, and so does every change to the
+ * board, which also interrupts the running search. A suggestion is only shown
+ * if no newer request or change came after it, so a hint never describes an
+ * old board. The generation is only read and written on the EDT.
+ */
+public class HintService {
+	public static final long DEFAULT_TIME_BUDGET_MILLIS = 300L;
+	private final SlideGameLabelManager slideGameLabelManager;
+	private final long timeBudgetMillis;
+	private final ExecutorService executorService;
+	private final IterativeDeepeningSearch search;
+	private Future<?> pendingSearch;
+	private int generation;
+
+	public HintService(SlideGameLabelManager slideGameLabelManager) {
+		this(slideGameLabelManager, DEFAULT_TIME_BUDGET_MILLIS);
+	}
+
+	public HintService(SlideGameLabelManager slideGameLabelManager, long timeBudgetMillis) {
+		this.slideGameLabelManager = slideGameLabelManager;
+		this.timeBudgetMillis = timeBudgetMillis;
+		this.executorService = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "hint-search");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		this.search = new IterativeDeepeningSearch();
+	}
+
+	/**
+	 * Start searching for the best move on the board. Must be called on the EDT.
+	 */
+	public void requestHint(Board board) {
+		this.cancel();
+
+		if (board.getLength() != BitBoard.LENGTH) {
+			slideGameLabelManager.updateHintLabel("Hints need a 4x4 board");
+			return;
+		}
+
+		long tiles = BitBoard.pack(board);
+		int hintGeneration = generation;
+		slideGameLabelManager.updateHintLabel("Thinking...");
+		pendingSearch = executorService.submit(() -> {
+			SearchResult searchResult;
+			try {
+				searchResult = search.search(tiles, timeBudgetMillis, TimeUnit.MILLISECONDS);
+			} catch (CancellationException e) {
+				return;
+			}
+
+			SwingUtilities.invokeLater(() -> this.showHint(hintGeneration, searchResult));
+		});
+	}
+
+	private void showHint(int hintGeneration, SearchResult searchResult) {
+		if (hintGeneration == generation) {
+			slideGameLabelManager.updateHintLabel(searchResult.getMoveDirection() == null
+					? "No moves left"
+					: "Hint: " + searchResult.getMoveDirection().getDisplayValue());
+		}
+	}
+
+	/**
+	 * Stop any search and clear the hint, as the board changed. Must be called on
+	 * the EDT.
+	 */
+	public void cancel() {
+		generation++;
+		if (pendingSearch != null) {
+			pendingSearch.cancel(true);
+			pendingSearch = null;
+		}
+		slideGameLabelManager.updateHintLabel("");
+	}
+}
@@ -1,6 +1,6 @@
 package com.github.ants280.slidegame.ui;
 
-import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.Board;
 import com.github.ants280.slidegame.logic.Tile;
 import java.awt.Color;
 import java.awt.Font;
@@ -10,7 +10,7 @@ import java.awt.RenderingHints;
 import javax.swing.JComponent;
 
 public class SlideGameDisplayComponent {
-	private final Grid grid;
+	private Board grid;
 	private final JComponent component;
 	private static final RenderingHints ANTIALIAS_ON_RENDERING_HINT = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 	private static final double SPACER_PERCENTAGE = 0.10d;
@@ -20,7 +20,7 @@ public class SlideGameDisplayComponent {
 	private int tileSize;
 	private int spacerSize;
 
-	public SlideGameDisplayComponent(Grid grid) {
+	public SlideGameDisplayComponent(Board grid) {
 		super();
 
 		this.grid = grid;
@@ -33,6 +33,19 @@ public class SlideGameDisplayComponent {
 		return component;
 	}
 
+	/**
+	 * Paint another board from now on. Only the EDT may change the board while
+	 * it is shown.
+	 */
+	public void setBoard(Board board) {
+		boolean lengthChanged = board.getLength() != grid.getLength();
+		this.grid = board;
+		if (lengthChanged) {
+			this.componentResized();
+		}
+		component.repaint();
+	}
+
 	private void init() {
 		component.setFont(new Font("times", Font.PLAIN, 12));
 		component.addComponentListener(new SlideGameComponentListener(componentEvent -> this.componentResized()));
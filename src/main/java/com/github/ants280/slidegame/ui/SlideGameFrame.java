@@ -8,7 +8,7 @@ import java.awt.GridBagLayout;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
@@ -28,7 +28,10 @@ import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.border.Border;
 
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Board;
 import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.Tile;
 
 public class SlideGameFrame {
 	private final JFrame frame;
@@ -48,8 +51,10 @@ public class SlideGameFrame {
 			e.printStackTrace();
 		}
 
-		Grid grid = new Grid();
-		JComponent slideGameDisplayComponent = new SlideGameDisplayComponent(grid).getComponent();
+		// -Dslidegame.bitboard=true plays on the packed 4x4 engine.
+		Board grid = Boolean.getBoolean("slidegame.bitboard") ? new BitBoard() : new Grid();
+		SlideGameDisplayComponent slideGameDisplay = new SlideGameDisplayComponent(grid);
+		JComponent slideGameDisplayComponent = slideGameDisplay.getComponent();
 
 		JLabel gameOverLabel = this.createBigFontJLabel(false);
 
@@ -59,15 +64,17 @@ public class SlideGameFrame {
 
 		JLabel goalLabel = this.createJLabel(false);
 		JLabel moveLabel = this.createJLabel(false);
+		JLabel hintLabel = this.createJLabel(false);
+		JLabel autoplayLabel = this.createJLabel(false);
 		
 		JLabel timerLabel = this.createBigFontJLabel(true);
 
-		this.slideGameManager = new SlideGameManager(grid, frame, slideGameDisplayComponent, new SlideGameLabelManager(scoreLabel, highScoreLabel, moveLabel, goalLabel, gameOverLabel, timerLabel));
+		this.slideGameManager = new SlideGameManager(grid, frame, slideGameDisplay, new SlideGameLabelManager(scoreLabel, highScoreLabel, moveLabel, goalLabel, gameOverLabel, timerLabel, hintLabel, autoplayLabel));
 
-		this.doLayout(slideGameDisplayComponent, gameOverLabel, scoreLabel, highScoreLabel, goalLabel, moveLabel, timerLabel);
+		this.doLayout(slideGameDisplayComponent, gameOverLabel, scoreLabel, highScoreLabel, goalLabel, moveLabel, timerLabel, hintLabel, autoplayLabel);
 	}
 
-	private void doLayout(JComponent slideGameDisplayComponent, JLabel gameOverLabel, JLabel scoreLabel, JLabel highScoreLabel, JLabel goalLabel, JLabel moveLabel, JLabel timerLabel) {
+	private void doLayout(JComponent slideGameDisplayComponent, JLabel gameOverLabel, JLabel scoreLabel, JLabel highScoreLabel, JLabel goalLabel, JLabel moveLabel, JLabel timerLabel, JLabel hintLabel, JLabel autoplayLabel) {
 		JPanel scorePanel = new JPanel();
 		scorePanel.setBorder(EMPTY_BORDER);
 		scorePanel.setLayout(new GridBagLayout());
@@ -121,9 +128,12 @@ public class SlideGameFrame {
 
 		JPanel momentPanel = new JPanel();
 		momentPanel.setLayout(new BoxLayout(momentPanel, BoxLayout.Y_AXIS));
-		momentPanel.add(new JLabel("1024 puzzle, press N to new game"));
+		momentPanel.add(new JLabel("1024 puzzle, press N to new game, Z/Y to undo/redo, H for a hint, L for the leaderboard"));
+		momentPanel.add(new JLabel("P to autoplay, -/= to change its speed"));
 		momentPanel.add(goalLabel);
+		momentPanel.add(autoplayLabel);
 		momentPanel.add(Box.createGlue());
+		momentPanel.add(hintLabel);
 		momentPanel.add(moveLabel);
 		slideGameDisplayComponent.setBorder(EMPTY_BORDER);
 
@@ -213,26 +223,26 @@ public class SlideGameFrame {
 
 	private void showSetGridLengthPopup() {
 		String message = "Set grid length";
-		int goalTileValue = slideGameManager.getGoalTileValue();
-		int minimumGridLength = (int) Math.ceil(Math.sqrt(Math.log(goalTileValue) / Math.log(2d) - 1));
-		Object[] selectionValues = IntStream.range(minimumGridLength, minimumGridLength + 10).boxed().toArray();
+		int goalTileExponent = slideGameManager.getGoalTileExponent();
+		int minimumGridLength = (int) Math.ceil(Math.sqrt(goalTileExponent - 1d));
+		Object[] selectionValues = IntStream.range(minimumGridLength, minimumGridLength + 10).filter(slideGameManager::isSupportedGridLength).boxed().toArray();
 		int initialSelectionValue = slideGameManager.getGridLength();
-		this.showOptionDialog(message, selectionValues, initialSelectionValue, slideGameManager::setGridLength);
+		this.showOptionDialog(message, selectionValues, initialSelectionValue, length -> slideGameManager.setGridLength((int) length));
 	}
 
 	private void showSetGoalTileValuePopup() {
 		String message = "Set goal tile value";
 		int gridLength = slideGameManager.getGridLength();
-		int maximumGoalTileValue = (int) Math.pow(2, Math.pow(gridLength, 2));
-		Object[] selectionValues = IntStream.range(0, 10).map(i -> (int) Math.pow(2d, i + 3d)).filter(possibleGoalTileValue -> possibleGoalTileValue <= maximumGoalTileValue).boxed().toArray();
-		int initialSelectionValue = slideGameManager.getGoalTileValue();
+		long maximumGoalTileExponent = Math.min((long) gridLength * gridLength, Tile.MAX_EXPONENT);
+		Object[] selectionValues = IntStream.range(3, 13).filter(goalTileExponent -> goalTileExponent <= maximumGoalTileExponent).mapToObj(goalTileExponent -> 1L << goalTileExponent).toArray();
+		long initialSelectionValue = slideGameManager.getGoalTileValue();
 		this.showOptionDialog(message, selectionValues, initialSelectionValue, slideGameManager::setGoalTileValue);
 	}
 
-	private void showOptionDialog(String message, Object[] selectionValues, Object initialSelectionValue, IntConsumer setValueFunction) {
+	private void showOptionDialog(String message, Object[] selectionValues, Object initialSelectionValue, LongConsumer setValueFunction) {
 		Object optionChoice = JOptionPane.showInputDialog(frame, message, "Change field for " + frame.getTitle(), JOptionPane.QUESTION_MESSAGE, null, selectionValues, initialSelectionValue);
 		if (optionChoice != null) {
-			setValueFunction.accept(Integer.parseInt(optionChoice.toString()));
+			setValueFunction.accept(Long.parseLong(optionChoice.toString()));
 		}
 	}
 }
@@ -16,20 +16,24 @@ public class SlideGameLabelManager {
 	private final JLabel gameOverLabel;
 	private final Timer moveLabelClearingTimer;
 	private final JLabel timerLabel;
+	private final JLabel hintLabel;
+	private final JLabel autoplayLabel;
 
-	public SlideGameLabelManager(JLabel scoreLabel, JLabel highScoreLabel, JLabel moveLabel, JLabel goalLabel, JLabel gameOverLabel, JLabel timerLabel) {
+	public SlideGameLabelManager(JLabel scoreLabel, JLabel highScoreLabel, JLabel moveLabel, JLabel goalLabel, JLabel gameOverLabel, JLabel timerLabel, JLabel hintLabel, JLabel autoplayLabel) {
 		this.scoreLabel = scoreLabel;
 		this.highScoreLabel = highScoreLabel;
 		this.moveLabel = moveLabel;
 		this.goalLabel = goalLabel;
 		this.gameOverLabel = gameOverLabel;
 		this.timerLabel=timerLabel;
+		this.hintLabel = hintLabel;
+		this.autoplayLabel = autoplayLabel;
 
 		this.moveLabelClearingTimer = new Timer((int) TimeUnit.MILLISECONDS.convert(1, TimeUnit.SECONDS), actiovEvent -> this.clearMoveLabel());
 		moveLabelClearingTimer.setRepeats(false);
 	}
 
-	public void updateScoreLabels(boolean gameOver, boolean gameWon, int score, int highScore) {
+	public void updateScoreLabels(boolean gameOver, boolean gameWon, long score, long highScore) {
 		String gameOverLabelText = "";
 		if (gameOver) {
 			gameOverLabelText = gameWon ? "You Win:)" : "You Lose:(";
@@ -46,7 +50,7 @@ public class SlideGameLabelManager {
 		highScoreLabel.setText("" + highScore);
 	}
 
-	public void updateGoalLabel(int goalTileValue) {
+	public void updateGoalLabel(long goalTileValue) {
 		goalLabel.setText(String.format("Goal: Create %d tile", goalTileValue));
 	}
 
@@ -73,4 +77,24 @@ public class SlideGameLabelManager {
 		gameOverLabel.setText(txt);
 		gameOverLabel.setForeground(c);
 	}
+
+	public void updateHintLabel(String text) {
+		hintLabel.setText(text);
+	}
+
+	/**
+	 * @param speed
+	 *            The target moves per second, or Autoplayer.MAX_SPEED.
+	 * @param movesPerSecond
+	 *            The measured moves per second.
+	 */
+	public void updateAutoplayLabel(int speed, double movesPerSecond) {
+		autoplayLabel.setText(String.format("Autoplay at %s: %.0f moves/sec",
+				speed == Autoplayer.MAX_SPEED ? "max speed" : speed + " moves/sec",
+				movesPerSecond));
+	}
+
+	public void clearAutoplayLabel() {
+		autoplayLabel.setText("");
+	}
 }
@@ -4,40 +4,88 @@ import java.awt.Color;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Date;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.JComponent;
 import javax.swing.JFrame;
+import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Board;
 import com.github.ants280.slidegame.logic.Grid;
 import com.github.ants280.slidegame.logic.MoveDirection;
-
+import com.github.ants280.slidegame.logic.MoveHistory;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.ai.ArrayTranspositionTable;
+import com.github.ants280.slidegame.logic.ai.ExpectimaxMoveStrategy;
+import com.github.ants280.slidegame.logic.ai.ExpectimaxSearch;
+import com.github.ants280.slidegame.logic.ai.HeuristicEvaluator;
+import com.github.ants280.slidegame.logic.ai.MoveStrategy;
+import com.github.ants280.slidegame.logic.ai.RandomMoveStrategy;
+import com.github.ants280.slidegame.replay.ReplayWriter;
+import com.github.ants280.slidegame.store.FileAppender;
+import com.github.ants280.slidegame.store.GameHistoryStore;
+import com.github.ants280.slidegame.store.GameRecord;
+import com.github.ants280.slidegame.store.PropertiesStore;
+
+/**
+ * Runs the game for the ui. Everything happens on the Event Dispatch Thread,
+ * except while autoplaying: then the Autoplayer thread alone plays the game,
+ * publishing a Snapshot of it about once a frame, and the display paints a
+ * copy of the board restored from the latest Snapshot instead of the board
+ * being played on.
+ */
 public class SlideGameManager {
 	private static final String COUNTDOWN2 = "countdown";
+	private static final int AUTOPLAY_DEPTH = 2;
+	private static final int AUTOPLAY_TABLE_CAPACITY = 1 << 16;
 	private static final String HIGHESTSCORE = "highestscore";
-	private final Grid grid;
+	private static final String SETTINGS_FILE_NAME = ".2048puzzle";
+	private static final String REPLAY_FILE_NAME = ".2048puzzle-replays";
+	private static final String GAME_HISTORY_FILE_NAME = ".2048puzzle-history";
+	private static final int LEADERBOARD_GAME_COUNT = 10;
+	private final Board grid;
 	private final JFrame slideGameRootComponent;
+	private final SlideGameDisplayComponent slideGameDisplay;
 	private final JComponent slideGameDisplayComponent;
 	private final SlideGameLabelManager slideGameLabelManager;
 	private final KeyListener keyListener;
+	private final MoveResult moveResult;
+	private final MoveHistory moveHistory;
+	private final SplittableRandom gameSeedSource;
+	private final ByteArrayOutputStream replayBytes;
+	private final ReplayWriter replayWriter;
+	private final FileAppender replayFileAppender;
+	private final GameHistoryStore gameHistoryStore;
+	private final HintService hintService;
+	private final Autoplayer autoplayer;
+	private final AtomicReference<Snapshot> autoplaySnapshot = new AtomicReference<>();
+	private Board autoplayDisplayBoard;
+	private MoveStrategy autoplayMoveStrategy;
+	private boolean autoplayed;
 	//private final MouseListener mouseListener;
-	private int score;
-	private int highScore;
+	private long score;
+	private long highScore;
 	private boolean gameOver=true;
 	private boolean gameWon;
+	private long gameSeed;
+	private int gameMoveCount;
+	private long gameStartNanos;
 	private boolean listenersAdded;
 	private MouseEvent mousePressedLocation;
 
@@ -46,20 +94,26 @@ public class SlideGameManager {
 	private AtomicBoolean froozen = new AtomicBoolean(true);
 	private AtomicInteger countdown=new AtomicInteger(0);
 
-	private Properties store = new Properties();
-	{
-		// default values
-		store.setProperty(HIGHESTSCORE, "0");
-		store.setProperty(COUNTDOWN2, "120");
-	}
+	private final PropertiesStore store;
 
-	public SlideGameManager(Grid grid, JFrame slideGameRootComponent, JComponent slideGameDisplayComponent, SlideGameLabelManager slideGameLabelManager) {
+	public SlideGameManager(Board grid, JFrame slideGameRootComponent, SlideGameDisplayComponent slideGameDisplay, SlideGameLabelManager slideGameLabelManager) {
 		this.grid = grid;
 		this.slideGameRootComponent = slideGameRootComponent;
-		this.slideGameDisplayComponent = slideGameDisplayComponent;
+		this.slideGameDisplay = slideGameDisplay;
+		this.slideGameDisplayComponent = slideGameDisplay.getComponent();
 		this.slideGameLabelManager = slideGameLabelManager;
 
+		this.store = createStore();
 		this.keyListener = new SlideGameKeyListener(this::keyReleased);
+		this.moveResult = new MoveResult();
+		this.moveHistory = new MoveHistory();
+		this.gameSeedSource = new SplittableRandom();
+		this.replayBytes = new ByteArrayOutputStream();
+		this.replayWriter = new ReplayWriter(replayBytes);
+		this.replayFileAppender = createReplayFileAppender();
+		this.gameHistoryStore = createGameHistoryStore();
+		this.hintService = new HintService(slideGameLabelManager);
+		this.autoplayer = new Autoplayer(this::autoplayStep, this::renderAutoplay);
 		//this.mouseListener = new SlideGameMouseListener(this::mousePressed, this::mouseReleased);
 		this.score = 0;
 		this.highScore = 0;
@@ -69,73 +123,107 @@ public class SlideGameManager {
 
 		this.initGame();
 
-		loadData();
+		store.whenLoaded().whenComplete((ignored, e) -> {
+			if (e != null) {
+				e.printStackTrace();
+			}
+			SwingUtilities.invokeLater(this::storeLoaded);
+		});
 	}
 
-	private void loadData() {
-		try {
-			InputStream in = new FileInputStream(new File(System.getProperty("user.home") + File.separator + ".2048puzzle"));
-			store.load(in);
-			in.close();
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+	/**
+	 * @return The store of the high score and settings, which is read in the
+	 *         background and written whenever it changes and when the JVM exits.
+	 */
+	private static PropertiesStore createStore() {
+		Properties defaults = new Properties();
+		defaults.setProperty(HIGHESTSCORE, "0");
+		defaults.setProperty(COUNTDOWN2, "120");
+
+		PropertiesStore store = new PropertiesStore(Paths.get(System.getProperty("user.home"), SETTINGS_FILE_NAME), defaults);
+		Runtime.getRuntime().addShutdownHook(new Thread(store::close, "properties-store-flush"));
+		return store;
 	}
 
-	private void saveData() {
+	/**
+	 * Show the saved high score once the store is read, if it is higher than
+	 * any score made meanwhile.
+	 */
+	private void storeLoaded() {
 		try {
-			OutputStream out = new FileOutputStream(new File(System.getProperty("user.home") + File.separator + ".2048puzzle"));
-			store.store(out, new Date().toString());
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
+			long savedHighScore = Long.parseLong(store.get(HIGHESTSCORE));
+			if (savedHighScore > highScore) {
+				highScore = savedHighScore;
+				if (!autoplayer.isRunning()) {
+					slideGameLabelManager.updateScoreLabels(gameOver, gameWon, score, highScore);
+				}
+			}
+		} catch (NumberFormatException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * @return The appender of each recorded game to the replay file, which opens
+	 *         the file in the background and is closed when the JVM exits.
+	 */
+	private static FileAppender createReplayFileAppender() {
+		FileAppender replayFileAppender = new FileAppender(Paths.get(System.getProperty("user.home"), REPLAY_FILE_NAME));
+		Runtime.getRuntime().addShutdownHook(new Thread(replayFileAppender::close, "replay-file-close"));
+		return replayFileAppender;
+	}
+
+	/**
+	 * @return The store of the finished games, which is closed when the JVM
+	 *         exits.
+	 */
+	private static GameHistoryStore createGameHistoryStore() {
+		GameHistoryStore gameHistoryStore = new GameHistoryStore(Paths.get(System.getProperty("user.home"), GAME_HISTORY_FILE_NAME));
+		Runtime.getRuntime().addShutdownHook(new Thread(gameHistoryStore::close, "game-history-store-close"));
+		return gameHistoryStore;
+	}
+
 	public int getGridLength() {
 		return grid.getLength();
 	}
 
+	public boolean isSupportedGridLength(int length) {
+		return grid.isSupportedLength(length);
+	}
+
 	public void setGridLength(int length) {
+		this.stopAutoplay();
+		this.endReplay();
 		grid.setLength(length);
 		this.newGame();
 	}
 
-	public int getGoalTileValue() {
+	public int getGoalTileExponent() {
+		return grid.getGoalTileExponent();
+	}
+
+	public long getGoalTileValue() {
 		return grid.getGoalTileValue();
 	}
 
-	public void setGoalTileValue(int goalTileValue) {
+	public void setGoalTileValue(long goalTileValue) {
+		this.stopAutoplay();
+		this.endReplay();
 		grid.setGoalTileValue(goalTileValue);
 		this.newGame();
 		slideGameLabelManager.updateGoalLabel(grid.getGoalTileValue());
 	}
 
 	public void makeMove(MoveDirection moveDirection) {
-		boolean validMove = moveDirection != null && grid.canSlideTiles(moveDirection);
+		boolean validMove = moveDirection != null && this.applyMove(moveDirection);
 
 		if (validMove) {
-
-			int moveScore = grid.slideTiles(moveDirection);
-
-			this.incrementScore(moveScore);
-
-			if (!grid.canSlideInAnyDirection() || grid.goalTileCreated()) {
-				gameWon = grid.goalTileCreated();
-				this.endGame();
-			} else {
-				grid.addRandomTile();
-
-				if (!grid.canSlideInAnyDirection()) {
-					this.endGame();
-				}
-			}
+			hintService.cancel();
+			this.updateHighScore();
 
 			slideGameLabelManager.updateScoreLabels(gameOver, gameWon, score, highScore);
 			if(gameOver&&timer!=null) {
 				timer.cancel();
-				saveData();
 			}
 
 			slideGameDisplayComponent.repaint();
@@ -144,23 +232,98 @@ public class SlideGameManager {
 		slideGameLabelManager.updateMoveLabel(moveDirection, validMove);
 	}
 
+	/**
+	 * Make a move on the board, without touching the ui.
+	 *
+	 * @return Whether the move changed the board.
+	 */
+	private boolean applyMove(MoveDirection moveDirection) {
+		grid.move(moveDirection, moveResult);
+		if (!moveResult.isChanged()) {
+			return false;
+		}
+
+		if (this.isRecordingReplay()) {
+			replayWriter.move(moveDirection);
+		}
+
+		score += moveResult.getScore();
+		gameMoveCount++;
+
+		if (!moveResult.canSlideInAnyDirection() || moveResult.isGoalTileCreated()) {
+			gameWon = moveResult.isGoalTileCreated();
+			this.endGame();
+		} else {
+			this.addRandomTile();
+
+			// Only a filled board can be stuck after the new tile, so this is
+			// usually answered without looking at the tiles.
+			if (grid.isFilled() && !grid.canSlideInAnyDirection()) {
+				this.endGame();
+			}
+		}
+
+		moveHistory.record(grid, score);
+
+		if (gameOver) {
+			this.endReplay();
+			this.recordGame();
+		}
+
+		return true;
+	}
+
 	private void initGame() {
-		gameOver = false;
-		gameWon = false;
-		score = 0;
-		grid.addRandomTile();
-		grid.addRandomTile();
+		hintService.cancel();
+		autoplayed = false;
+		this.startGame();
 		this.addListeners();
 		slideGameLabelManager.updateScoreLabels(gameOver, gameWon, score, highScore);
 		slideGameLabelManager.updateGoalLabel(grid.getGoalTileValue());
 		slideGameLabelManager.clearMoveLabel();
 	}
 
+	/**
+	 * Start a game on the cleared board, without touching the ui.
+	 */
+	private void startGame() {
+		gameOver = false;
+		gameWon = false;
+		score = 0;
+		gameSeed = this.nextGameSeed();
+		gameMoveCount = 0;
+		gameStartNanos = System.nanoTime();
+		grid.setRandom(new SplittableRandom(gameSeed));
+		// Games of the Autoplayer would fill the replay file at its full speed:
+		if (!autoplayed) {
+			// Only a Grid draws its tiles the way the ReplayVerifier draws them again:
+			replayWriter.startGame(grid.getLength(), grid.getGoalTileExponent(), grid instanceof Grid ? gameSeed : 0L);
+		}
+		this.addRandomTile();
+		this.addRandomTile();
+		moveHistory.clear();
+		moveHistory.record(grid, score);
+	}
+
+	/**
+	 * @return The seed of the random tiles of a new game. Never 0, which stands
+	 *         for no seed.
+	 */
+	private long nextGameSeed() {
+		long seed;
+		do {
+			seed = gameSeedSource.nextLong();
+		} while (seed == 0L);
+		return seed;
+	}
+
 	public void newGame() {
+		this.stopAutoplay();
+		// Record the game being replaced, even if it was not over:
+		this.endReplay();
 		grid.clear();
 		this.initGame();
 		slideGameDisplayComponent.repaint();
-		this.saveData();
 		this.resetTimer();
 	}
 
@@ -169,7 +332,7 @@ public class SlideGameManager {
 			timer.cancel();
 			timer = null;
 		}
-		countdown.set(Integer.parseInt(store.getProperty(COUNTDOWN2, "120")));
+		countdown.set(Integer.parseInt(store.get(COUNTDOWN2)));
 		froozen.set(true);
 		slideGameLabelManager.updateTimerLabel("0", Color.BLACK);
 		timer = new Timer();
@@ -184,7 +347,6 @@ public class SlideGameManager {
 							slideGameLabelManager.updateTimerLabel(""+iref, Color.BLUE);
 						}
 					});
-					saveData();
 					try {
 						Thread.sleep(1000);
 					} catch (InterruptedException e) {
@@ -206,7 +368,6 @@ public class SlideGameManager {
 					froozen.set(true);
 					slideGameLabelManager.updateScoreLabels(gameOver, gameWon, score, highScore);
 					slideGameLabelManager.updateGameOverLabel("Time up", Color.RED);
-					saveData();
 					cancel();
 				}
 				
@@ -215,6 +376,147 @@ public class SlideGameManager {
 		}, 3000, 1000);
 	}
 
+	/**
+	 * Go back to the state before the last move, including the tile added after
+	 * it.
+	 */
+	public void undoMove() {
+		if (moveHistory.canUndo()) {
+			this.restoreMove(moveHistory.undo(grid));
+			gameMoveCount--;
+			if (this.isRecordingReplay()) {
+				replayWriter.undoMove();
+			}
+		}
+	}
+
+	/**
+	 * Make the last undone move again, adding the same tile after it.
+	 */
+	public void redoMove() {
+		if (moveHistory.canRedo()) {
+			this.restoreMove(moveHistory.redo(grid));
+			gameMoveCount++;
+			if (this.isRecordingReplay()) {
+				replayWriter.redoMove();
+			}
+		}
+	}
+
+	private void restoreMove(long restoredScore) {
+		hintService.cancel();
+		score = restoredScore;
+		slideGameLabelManager.updateScoreLabels(gameOver, gameWon, score, highScore);
+		slideGameLabelManager.clearMoveLabel();
+		slideGameDisplayComponent.repaint();
+	}
+
+	private void addRandomTile() {
+		int cell = grid.addRandomTile();
+
+		if (this.isRecordingReplay()) {
+			replayWriter.spawn(cell, grid.getTile(cell % grid.getLength(), cell / grid.getLength()).exponent());
+		}
+	}
+
+	/**
+	 * @return Whether the game being played is recorded, which it is unless the
+	 *         Autoplayer played part of it.
+	 */
+	private boolean isRecordingReplay() {
+		return replayWriter.isGameStarted();
+	}
+
+	/**
+	 * Record the end of the game in memory and hand its bytes to the replay
+	 * file appender, so the disk is not touched on the EDT.
+	 */
+	private void endReplay() {
+		if (this.isRecordingReplay()) {
+			try {
+				replayWriter.endGame(score, grid.goalTileCreated(), !grid.canSlideInAnyDirection());
+				replayWriter.flush();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			replayFileAppender.append(replayBytes.toByteArray()).exceptionally(e -> {
+				e.printStackTrace();
+				return null;
+			});
+			replayBytes.reset();
+		}
+	}
+
+	/**
+	 * Add the game that just ended to the game history, unless the game was
+	 * played by the Autoplayer. The game is written on the thread of the store.
+	 */
+	private void recordGame() {
+		if (autoplayed) {
+			return;
+		}
+
+		int maxTileExponent = 0;
+		for (int r = 0; r < grid.getLength(); r++) {
+			for (int c = 0; c < grid.getLength(); c++) {
+				if (grid.getTile(c, r) != null) {
+					maxTileExponent = Math.max(maxTileExponent, grid.getTile(c, r).exponent());
+				}
+			}
+		}
+
+		gameHistoryStore.add(new GameRecord(score, maxTileExponent, gameMoveCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - gameStartNanos), grid.getLength(), grid.getGoalTileExponent(), gameSeed))
+				.exceptionally(e -> {
+					e.printStackTrace();
+					return null;
+				});
+	}
+
+	/**
+	 * Query the game history on the thread of the store, then show the results
+	 * on the EDT.
+	 */
+	private void showLeaderboard() {
+		CompletableFuture<List<GameRecord>> topGames = gameHistoryStore.getTopGames(LEADERBOARD_GAME_COUNT);
+		CompletableFuture<SortedMap<Integer, GameRecord>> bestGames = gameHistoryStore.getBestGames();
+		CompletableFuture<long[]> scoreHistogram = gameHistoryStore.getScoreHistogram();
+
+		CompletableFuture.allOf(topGames, bestGames, scoreHistogram).whenComplete((ignored, e) -> {
+			String message = e != null
+					? "Cannot read the game history: " + e.getMessage()
+					: formatLeaderboard(topGames.join(), bestGames.join(), scoreHistogram.join());
+			SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(slideGameRootComponent, message, "Leaderboard", JOptionPane.INFORMATION_MESSAGE));
+		});
+	}
+
+	private static String formatLeaderboard(List<GameRecord> topGames, SortedMap<Integer, GameRecord> bestGames, long[] scoreHistogram) {
+		if (topGames.isEmpty()) {
+			return "No games finished yet.";
+		}
+
+		StringBuilder sb = new StringBuilder("Top games:");
+		for (int i = 0; i < topGames.size(); i++) {
+			GameRecord gameRecord = topGames.get(i);
+			long durationSeconds = TimeUnit.MILLISECONDS.toSeconds(gameRecord.getDurationMillis());
+			sb.append(String.format("%n%2d. %d (%d tile, %dx%d, %d moves, %d:%02d)",
+					i + 1, gameRecord.getScore(), gameRecord.getMaxTileValue(), gameRecord.getLength(), gameRecord.getLength(), gameRecord.getMoveCount(), durationSeconds / 60, durationSeconds % 60));
+		}
+
+		sb.append(String.format("%n%nBest by board size:"));
+		for (Map.Entry<Integer, GameRecord> bestGame : bestGames.entrySet()) {
+			sb.append(String.format("%n%dx%d: %d", bestGame.getKey(), bestGame.getKey(), bestGame.getValue().getScore()));
+		}
+
+		sb.append(String.format("%n%nScores:"));
+		for (int scoreBucket = 0; scoreBucket < scoreHistogram.length; scoreBucket++) {
+			if (scoreHistogram[scoreBucket] != 0L) {
+				sb.append(String.format("%n%d+: %d games", GameHistoryStore.getScoreBucketMin(scoreBucket), scoreHistogram[scoreBucket]));
+			}
+		}
+
+		return sb.toString();
+	}
+
 	private void endGame() {
 		gameOver = true;
 		this.froozen.set(true);
@@ -237,14 +539,138 @@ public class SlideGameManager {
 		listenersAdded = false;
 	}*/
 
-	private void incrementScore(int additionalScore) {
-		if (additionalScore != 0) {
-			this.score += additionalScore;
-			if (score > highScore) {
-				highScore = score;
-				store.setProperty(HIGHESTSCORE, "" + highScore);
-				saveData();
-			}
+	/**
+	 * Keep the score as the high score if it is higher, unless the game was
+	 * played by the Autoplayer.
+	 */
+	private void updateHighScore() {
+		if (!autoplayed && score > highScore) {
+			highScore = score;
+			// The saved high score may not be read yet, so keep the higher one:
+			store.merge(HIGHESTSCORE, "" + highScore, SlideGameManager::maxScore);
+		}
+	}
+
+	private static String maxScore(String score, String otherScore) {
+		try {
+			return Long.parseLong(score) >= Long.parseLong(otherScore) ? score : otherScore;
+		} catch (NumberFormatException e) {
+			return otherScore;
+		}
+	}
+
+	/**
+	 * Start or stop the Autoplayer. Starting also ends the countdown.
+	 */
+	public void toggleAutoplay() {
+		if (autoplayer.isRunning()) {
+			this.stopAutoplay();
+			return;
+		}
+
+		hintService.cancel();
+		if (timer != null) {
+			timer.cancel();
+			timer = null;
+		}
+		slideGameLabelManager.updateTimerLabel("Auto", Color.BLUE);
+		slideGameLabelManager.clearMoveLabel();
+		// Record the moves played so far, as the rest are not recorded:
+		this.endReplay();
+		autoplayed = true;
+		autoplayMoveStrategy = createAutoplayMoveStrategy();
+		autoplayDisplayBoard = new Grid(grid.getLength(), grid.getGoalTileValue());
+		this.publishSnapshot();
+		this.renderAutoplay();
+		slideGameDisplay.setBoard(autoplayDisplayBoard);
+		autoplayer.start();
+	}
+
+	/**
+	 * Stop the Autoplayer, if it is running, and show the board it left. The
+	 * player can carry on with the game if it is not over.
+	 */
+	private void stopAutoplay() {
+		if (!autoplayer.isRunning()) {
+			return;
+		}
+
+		autoplayer.stop();
+		autoplaySnapshot.set(null);
+		autoplayDisplayBoard = null;
+		slideGameDisplay.setBoard(grid);
+		froozen.set(gameOver);
+		slideGameLabelManager.updateTimerLabel("", Color.BLACK);
+		slideGameLabelManager.updateScoreLabels(gameOver, gameWon, score, highScore);
+		slideGameLabelManager.clearAutoplayLabel();
+	}
+
+	/**
+	 * @return Expectimax on 4x4 boards, which it needs, and random moves
+	 *         otherwise.
+	 */
+	private MoveStrategy createAutoplayMoveStrategy() {
+		if (grid.getLength() != BitBoard.LENGTH) {
+			return new RandomMoveStrategy();
+		}
+
+		return new ExpectimaxMoveStrategy(new ExpectimaxSearch(new HeuristicEvaluator(), new ArrayTranspositionTable(AUTOPLAY_TABLE_CAPACITY), AUTOPLAY_DEPTH, ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF));
+	}
+
+	/**
+	 * Make one move on the Autoplayer thread, starting a new game after each
+	 * game that ends.
+	 */
+	private void autoplayStep() {
+		MoveDirection moveDirection = gameOver ? null : autoplayMoveStrategy.chooseMove(grid);
+
+		if (moveDirection == null) {
+			grid.clear();
+			this.startGame();
+			autoplayMoveStrategy.newGame(new SplittableRandom());
+		} else {
+			this.applyMove(moveDirection);
+		}
+
+		if (autoplaySnapshot.get() == null) {
+			this.publishSnapshot();
+		}
+	}
+
+	private void publishSnapshot() {
+		byte[] states = new byte[grid.getLength() * grid.getLength()];
+		grid.saveState(states, 0);
+		autoplaySnapshot.set(new Snapshot(states, score, gameOver, gameWon));
+	}
+
+	/**
+	 * Show the latest Snapshot on the EDT, if a new one was published.
+	 */
+	private void renderAutoplay() {
+		Snapshot snapshot = autoplaySnapshot.getAndSet(null);
+
+		if (snapshot != null && autoplayDisplayBoard != null) {
+			autoplayDisplayBoard.restoreState(snapshot.states, 0);
+			slideGameLabelManager.updateScoreLabels(snapshot.gameOver, snapshot.gameWon, snapshot.score, highScore);
+			slideGameDisplayComponent.repaint();
+		}
+		slideGameLabelManager.updateAutoplayLabel(autoplayer.getSpeed(), autoplayer.getMovesPerSecond());
+	}
+
+	/**
+	 * The state of the game after a move of the Autoplayer.
+	 */
+	private static class Snapshot {
+		private final byte[] states;
+		private final long score;
+		private final boolean gameOver;
+		private final boolean gameWon;
+
+		private Snapshot(byte[] states, long score, boolean gameOver, boolean gameWon) {
+			this.states = states;
+			this.score = score;
+			this.gameOver = gameOver;
+			this.gameWon = gameWon;
 		}
 	}
 
@@ -253,6 +679,22 @@ public class SlideGameManager {
 			this.newGame();
 			return;
 		}
+		if (e.getKeyCode() == KeyEvent.VK_P) {
+			this.toggleAutoplay();
+			return;
+		}
+		if (e.getKeyCode() == KeyEvent.VK_L) {
+			this.showLeaderboard();
+			return;
+		}
+		if (autoplayer.isRunning()) {
+			if (e.getKeyCode() == KeyEvent.VK_EQUALS) {
+				autoplayer.faster();
+			} else if (e.getKeyCode() == KeyEvent.VK_MINUS) {
+				autoplayer.slower();
+			}
+			return;
+		}
 
 		if(froozen.get()) {
 			/*JOptionPane.showMessageDialog(slideGameRootComponent,
@@ -261,6 +703,19 @@ public class SlideGameManager {
 					  JOptionPane.WARNING_MESSAGE);*/
 			return ;
 		}
+
+		if (e.getKeyCode() == KeyEvent.VK_Z) {
+			this.undoMove();
+			return;
+		}
+		if (e.getKeyCode() == KeyEvent.VK_Y) {
+			this.redoMove();
+			return;
+		}
+		if (e.getKeyCode() == KeyEvent.VK_H) {
+			hintService.requestHint(grid);
+			return;
+		}
 		
 		this.makeMove(MoveDirection.fromKeyEvent(e));
 	}
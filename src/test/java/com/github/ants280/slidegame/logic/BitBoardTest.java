@@ -0,0 +1,164 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BitBoardTest
+{
+	private static final int LENGTH = BitBoard.LENGTH;
+
+	@Test
+	public void testTranspose()
+	{
+		BitBoard bitBoard = new BitBoard();
+		Tile tile = Tile.TWO;
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				bitBoard.setTile(c, r, r == c ? null : tile);
+				tile = tile.getNext();
+			}
+		}
+		long tiles = bitBoard.getTiles();
+
+		long transposedTiles = BitBoard.transpose(tiles);
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				Assert.assertEquals(
+						tiles >>> ((r * LENGTH + c) * 4) & 0xF,
+						transposedTiles >>> ((c * LENGTH + r) * 4) & 0xF);
+			}
+		}
+	}
+
+	@Test
+	public void testCountEmptyCells()
+	{
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.setTile(0, 0, Tile.TWO);
+		bitBoard.setTile(3, 2, Tile.TWO.getNext());
+		bitBoard.setTile(3, 3, Tile.TWO);
+
+		int emptyCellCount = BitBoard.countEmptyCells(bitBoard.getTiles());
+
+		Assert.assertEquals(13, emptyCellCount);
+	}
+
+	@Test
+	public void testSlideTiles_sameAsGrid()
+	{
+		Random random = new Random(2048L);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			Grid grid = new Grid();
+			BitBoard bitBoard = new BitBoard();
+			for (int r = 0; r < LENGTH; r++)
+			{
+				for (int c = 0; c < LENGTH; c++)
+				{
+					Tile tile = createTile(random.nextInt(6));
+					grid.setTile(c, r, tile);
+					bitBoard.setTile(c, r, tile);
+				}
+			}
+
+			for (MoveDirection moveDirection : MoveDirection.values())
+			{
+				Assert.assertEquals(
+						grid.canSlideTiles(moveDirection),
+						bitBoard.canSlideTiles(moveDirection));
+			}
+
+			MoveDirection moveDirection = MoveDirection.values()[i % 4];
+			Assert.assertEquals(
+					grid.slideTiles(moveDirection),
+					bitBoard.slideTiles(moveDirection));
+			Assert.assertEquals(grid.goalTileCreated(), bitBoard.goalTileCreated());
+			for (int r = 0; r < LENGTH; r++)
+			{
+				for (int c = 0; c < LENGTH; c++)
+				{
+					Assert.assertEquals(grid.getTile(c, r), bitBoard.getTile(c, r));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPack()
+	{
+		Grid grid = new Grid();
+		grid.setTile(1, 2, Tile.TWO.getNext());
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.setTile(1, 2, Tile.TWO.getNext());
+
+		long packedTiles = BitBoard.pack(grid);
+
+		Assert.assertEquals(bitBoard.getTiles(), packedTiles);
+	}
+
+	@Test
+	public void testSlide_sameAsSlideTiles()
+	{
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.setTile(0, 0, Tile.TWO);
+		bitBoard.setTile(0, 3, Tile.TWO);
+		bitBoard.setTile(2, 1, Tile.TWO);
+		long tiles = bitBoard.getTiles();
+
+		bitBoard.slideTiles(MoveDirection.DOWN);
+
+		Assert.assertEquals(
+				bitBoard.getTiles(),
+				BitBoard.slide(tiles, MoveDirection.DOWN));
+	}
+
+	@Test
+	public void testGetScore_sameAsSlideTiles()
+	{
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.setTile(0, 0, Tile.TWO);
+		bitBoard.setTile(0, 3, Tile.TWO);
+		bitBoard.setTile(2, 1, Tile.TWO.getNext());
+		bitBoard.setTile(2, 2, Tile.TWO.getNext());
+		long tiles = bitBoard.getTiles();
+
+		long score = bitBoard.slideTiles(MoveDirection.UP);
+
+		Assert.assertEquals(12L, score);
+		Assert.assertEquals(score, BitBoard.getScore(tiles, MoveDirection.UP));
+		Assert.assertEquals(0L, BitBoard.getScore(tiles, MoveDirection.LEFT));
+	}
+
+	@Test
+	public void testAddRandomTile_fillsBoard()
+	{
+		BitBoard bitBoard = new BitBoard();
+
+		for (int i = 0; i < LENGTH * LENGTH; i++)
+		{
+			Assert.assertFalse(bitBoard.isFilled());
+			bitBoard.addRandomTile();
+		}
+
+		Assert.assertTrue(bitBoard.isFilled());
+	}
+
+	private static Tile createTile(int exponent)
+	{
+		Tile tile = null;
+
+		for (int i = 0; i < exponent; i++)
+		{
+			tile = tile == null ? Tile.TWO : tile.getNext();
+		}
+
+		return tile;
+	}
+}
@@ -0,0 +1,76 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ByteGridTest
+{
+	private static final int LENGTH = 256;
+
+	@Test
+	public void testMove_parallelSameAsGrid()
+	{
+		Random random = new Random(4096L);
+		Grid grid = new Grid(LENGTH, 1 << 20);
+		ByteGrid byteGrid = new ByteGrid(LENGTH, 1 << 20, 2);
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				int exponent = random.nextInt(4);
+				Tile tile = exponent == 0 ? null : Tile.ofExponent(exponent);
+				grid.setTile(c, r, tile);
+				byteGrid.setTile(c, r, tile);
+			}
+		}
+		MoveResult gridMoveResult = new MoveResult();
+		MoveResult byteGridMoveResult = new MoveResult();
+
+		for (int i = 0; i < 20; i++)
+		{
+			MoveDirection moveDirection = MoveDirection.values()[i % 4];
+
+			grid.move(moveDirection, gridMoveResult);
+			byteGrid.move(moveDirection, byteGridMoveResult);
+
+			Assert.assertEquals(gridMoveResult.toString(), byteGridMoveResult.toString());
+			Assert.assertEquals(grid.getEmptyCellCount(), byteGrid.getEmptyCellCount());
+			for (int r = 0; r < LENGTH; r++)
+			{
+				for (int c = 0; c < LENGTH; c++)
+				{
+					Assert.assertEquals(grid.getTile(c, r), byteGrid.getTile(c, r));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAddRandomTile_fewEmptyCells()
+	{
+		ByteGrid byteGrid = new ByteGrid(LENGTH, 1 << 20);
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				byteGrid.setTile(c, r, Tile.TWO);
+			}
+		}
+		byteGrid.setTile(7, 200, null);
+		byteGrid.setTile(250, 3, null);
+
+		byteGrid.addRandomTile();
+		byteGrid.addRandomTile();
+
+		Assert.assertTrue(byteGrid.isFilled());
+		Assert.assertNotNull(byteGrid.getTile(7, 200));
+		Assert.assertNotNull(byteGrid.getTile(250, 3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_goalTileValueTooLargeForLength()
+	{
+		new ByteGrid(5, 1 << 26);
+	}
+}
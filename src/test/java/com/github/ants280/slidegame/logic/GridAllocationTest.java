@@ -0,0 +1,63 @@
+package com.github.ants280.slidegame.logic;
+
+import java.lang.management.ManagementFactory;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class GridAllocationTest
+{
+	private static final int WARMUP_MOVE_COUNT = 200_000;
+	private static final int MOVE_COUNT = 1_000_000;
+	/**
+	 * Room for the odd allocation of the JIT or the JVM on this thread, far
+	 * below a byte per move.
+	 */
+	private static final long ALLOCATED_BYTES_BUDGET = 64 * 1024;
+
+	@Test
+	public void testMove_allocatesNothing()
+	{
+		Assume.assumeTrue(
+				"Thread allocation counting is not supported",
+				ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadMXBean
+				= (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(
+				"Thread allocation counting is not enabled",
+				threadMXBean.isThreadAllocatedMemorySupported()
+				&& threadMXBean.isThreadAllocatedMemoryEnabled());
+		long threadId = Thread.currentThread().getId();
+		Grid grid = new Grid(8, 1 << 20);
+		MoveResult moveResult = new MoveResult();
+		playMoves(grid, moveResult, WARMUP_MOVE_COUNT);
+
+		long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+		playMoves(grid, moveResult, MOVE_COUNT);
+		long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId)
+				- allocatedBytesBefore;
+
+		Assert.assertTrue(
+				allocatedBytes + " bytes allocated in " + MOVE_COUNT + " moves",
+				allocatedBytes < ALLOCATED_BYTES_BUDGET);
+	}
+
+	private static void playMoves(Grid grid, MoveResult moveResult, int moveCount)
+	{
+		MoveDirection[] moveDirections = MoveDirection.values();
+
+		for (int i = 0; i < moveCount; i++)
+		{
+			if (grid.isFilled() && !grid.canSlideInAnyDirection())
+			{
+				grid.clear();
+			}
+			if (!grid.isFilled())
+			{
+				grid.addRandomTile();
+			}
+
+			grid.move(moveDirections[i & 3], moveResult);
+		}
+	}
+}
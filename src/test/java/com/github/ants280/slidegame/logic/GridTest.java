@@ -1,13 +1,21 @@
 package com.github.ants280.slidegame.logic;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
+@RunWith(Parameterized.class)
 public class GridTest
 {
 	private static final int LENGTH = 4;
-	private Grid grid;
+	private final BoardFactory boardFactory;
+	private Board grid;
 
 	private static final Tile TILE_2 = Tile.TWO;
 	private static final Tile TILE_4 = TILE_2.getNext();
@@ -21,16 +29,39 @@ public class GridTest
 	private static final Tile TILE_1024 = TILE_512.getNext();
 	private static final Tile TILE_2048 = TILE_1024.getNext();
 
+	public GridTest(String name, BoardFactory boardFactory)
+	{
+		this.boardFactory = boardFactory;
+	}
+
+	@Parameterized.Parameters(name = "{0}")
+	public static Iterable<Object[]> data()
+	{
+		return Arrays.asList(
+				new Object[]
+				{
+					"Grid", (BoardFactory) Grid::new
+				},
+				new Object[]
+				{
+					"BitBoard", (BoardFactory) BitBoard::new
+				},
+				new Object[]
+				{
+					"ByteGrid", (BoardFactory) (length, goalTileValue, random) -> new ByteGrid(length, goalTileValue, ByteGrid.DEFAULT_PARALLEL_THRESHOLD, random)
+				});
+	}
+
 	@Before
 	public void setUp()
 	{
-		grid = new Grid(LENGTH);
+		grid = boardFactory.create(LENGTH, 1024);
 	}
 
 	@Test
 	public void testConstructor_length()
 	{
-		Grid grid1 = new Grid();
+		Board grid1 = boardFactory.create(LENGTH, 1024);
 
 		int length = grid1.getLength();
 
@@ -40,7 +71,7 @@ public class GridTest
 	@Test(expected = IllegalArgumentException.class)
 	public void testConstructor_bad_length()
 	{
-		Grid grid1 = new Grid(1);
+		Board grid1 = boardFactory.create(1, 1024);
 
 		Assert.fail("Should not be constructable: " + grid1);
 	}
@@ -48,7 +79,7 @@ public class GridTest
 	@Test(expected = IllegalArgumentException.class)
 	public void testConstructor_badGoalTileValue()
 	{
-		Grid grid2 = new Grid(4, 17);
+		Board grid2 = boardFactory.create(4, 17);
 
 		Assert.fail("Should not be constructable: " + grid2);
 	}
@@ -56,7 +87,7 @@ public class GridTest
 	@Test(expected = IllegalArgumentException.class)
 	public void testConstructor_badGoalTileValue2()
 	{
-		Grid grid3 = new Grid(4, Integer.MIN_VALUE);
+		Board grid3 = boardFactory.create(4, Integer.MIN_VALUE);
 
 		Assert.fail("Should not be constructable: " + grid3);
 	}
@@ -106,7 +137,7 @@ public class GridTest
 		{
 			for (int c = 0; c < LENGTH; c++)
 			{
-				grid.setTile(c, r, TILE_2);
+				setTile(c, r, TILE_2);
 			}
 		}
 
@@ -119,7 +150,7 @@ public class GridTest
 	@Test
 	public void testSlideTilesLeft()
 	{
-		grid.setTile(1, 1, TILE_2);
+		setTile(1, 1, TILE_2);
 
 		grid.slideTiles(MoveDirection.LEFT);
 
@@ -130,7 +161,7 @@ public class GridTest
 	@Test
 	public void testSlideTilesRight()
 	{
-		grid.setTile(1, 1, TILE_2);
+		setTile(1, 1, TILE_2);
 
 		grid.slideTiles(MoveDirection.RIGHT);
 
@@ -141,7 +172,7 @@ public class GridTest
 	@Test
 	public void testSlideTilesUp()
 	{
-		grid.setTile(1, 1, TILE_2);
+		setTile(1, 1, TILE_2);
 
 		grid.slideTiles(MoveDirection.UP);
 
@@ -152,7 +183,7 @@ public class GridTest
 	@Test
 	public void testSlideTilesDown()
 	{
-		grid.setTile(1, 1, TILE_2);
+		setTile(1, 1, TILE_2);
 
 		grid.slideTiles(MoveDirection.DOWN);
 
@@ -163,10 +194,10 @@ public class GridTest
 	@Test
 	public void testSlideTiles_0202()
 	{
-		grid.setTile(1, 0, TILE_2);
-		grid.setTile(3, 0, TILE_2);
+		setTile(1, 0, TILE_2);
+		setTile(3, 0, TILE_2);
 
-		int moveScore = grid.slideTiles(MoveDirection.LEFT);
+		long moveScore = grid.slideTiles(MoveDirection.LEFT);
 
 		Assert.assertEquals(4, moveScore);
 		Assert.assertEquals(TILE_4, grid.getTile(0, 0));
@@ -177,12 +208,12 @@ public class GridTest
 	@Test
 	public void testSlideTiles_2244()
 	{
-		grid.setTile(0, 0, TILE_2);
-		grid.setTile(1, 0, TILE_2);
-		grid.setTile(2, 0, TILE_4);
-		grid.setTile(3, 0, TILE_4);
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_2);
+		setTile(2, 0, TILE_4);
+		setTile(3, 0, TILE_4);
 
-		int moveScore = grid.slideTiles(MoveDirection.LEFT);
+		long moveScore = grid.slideTiles(MoveDirection.LEFT);
 
 		Assert.assertEquals(12, moveScore);
 		Assert.assertEquals(TILE_4, grid.getTile(0, 0));
@@ -194,16 +225,16 @@ public class GridTest
 	@Test
 	public void testSlideTiles_22_allRows()
 	{
-		grid.setTile(0, 0, TILE_2);
-		grid.setTile(1, 0, TILE_2);
-		grid.setTile(0, 1, TILE_2);
-		grid.setTile(1, 1, TILE_2);
-		grid.setTile(0, 2, TILE_2);
-		grid.setTile(1, 2, TILE_2);
-		grid.setTile(0, 3, TILE_2);
-		grid.setTile(1, 3, TILE_2);
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_2);
+		setTile(0, 1, TILE_2);
+		setTile(1, 1, TILE_2);
+		setTile(0, 2, TILE_2);
+		setTile(1, 2, TILE_2);
+		setTile(0, 3, TILE_2);
+		setTile(1, 3, TILE_2);
 
-		int moveScore = grid.slideTiles(MoveDirection.LEFT);
+		long moveScore = grid.slideTiles(MoveDirection.LEFT);
 
 		Assert.assertEquals(16, moveScore);
 	}
@@ -211,12 +242,12 @@ public class GridTest
 	@Test
 	public void testSlideTilesDown_16s4s()
 	{
-		grid.setTile(0, 0, TILE_16);
-		grid.setTile(0, 1, TILE_16);
-		grid.setTile(0, 2, TILE_4);
-		grid.setTile(0, 3, TILE_4);
+		setTile(0, 0, TILE_16);
+		setTile(0, 1, TILE_16);
+		setTile(0, 2, TILE_4);
+		setTile(0, 3, TILE_4);
 
-		int moveScore = grid.slideTiles(MoveDirection.DOWN);
+		long moveScore = grid.slideTiles(MoveDirection.DOWN);
 
 		Assert.assertEquals(40, moveScore);
 	}
@@ -230,8 +261,8 @@ public class GridTest
 	@Test
 	public void testHas2048TILE_smallTiles()
 	{
-		grid.setTile(0, 0, TILE_2);
-		grid.setTile(1, 0, TILE_2);
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_2);
 
 		grid.slideTiles(MoveDirection.LEFT);
 
@@ -241,14 +272,36 @@ public class GridTest
 	@Test
 	public void testHas2048TILE_slide1024Tiles()
 	{
-		grid.setTile(0, 0, TILE_1024);
-		grid.setTile(1, 0, TILE_1024);
+		setTile(0, 0, TILE_1024);
+		setTile(1, 0, TILE_1024);
 
 		grid.slideTiles(MoveDirection.LEFT);
 
 		Assert.assertTrue(grid.goalTileCreated());
 	}
 
+	@Test
+	public void testSlideTiles_32768Tiles()
+	{
+		Tile tile32768 = TILE_2048.getNext().getNext().getNext().getNext();
+		setTile(0, 0, tile32768);
+		setTile(1, 0, tile32768);
+
+		grid.slideTiles(MoveDirection.LEFT);
+
+		if (grid instanceof BitBoard)
+		{
+			// four bits cannot hold the exponent of 65536:
+			Assert.assertEquals(tile32768, grid.getTile(0, 0));
+			Assert.assertEquals(tile32768, grid.getTile(1, 0));
+		}
+		else
+		{
+			Assert.assertEquals(tile32768.getNext(), grid.getTile(0, 0));
+			Assert.assertNull(grid.getTile(1, 0));
+		}
+	}
+
 	@Test
 	public void testCanSlideTilesInAnyDirection_empty()
 	{
@@ -258,7 +311,7 @@ public class GridTest
 	@Test
 	public void testCanSlideTilesInAnyDirection_oneTile()
 	{
-		grid.setTile(1, 1, TILE_2);
+		setTile(1, 1, TILE_2);
 
 		Assert.assertTrue(grid.canSlideInAnyDirection());
 	}
@@ -266,7 +319,7 @@ public class GridTest
 	@Test
 	public void testCanSlideTiles_middle()
 	{
-		grid.setTile(1, 1, TILE_2);
+		setTile(1, 1, TILE_2);
 
 		Assert.assertTrue(grid.canSlideTiles(MoveDirection.LEFT));
 		Assert.assertTrue(grid.canSlideTiles(MoveDirection.RIGHT));
@@ -277,7 +330,7 @@ public class GridTest
 	@Test
 	public void testCanSlideTiles_topLeft()
 	{
-		grid.setTile(0, 0, TILE_2);
+		setTile(0, 0, TILE_2);
 
 		Assert.assertFalse(grid.canSlideTiles(MoveDirection.LEFT));
 		Assert.assertTrue(grid.canSlideTiles(MoveDirection.RIGHT));
@@ -288,10 +341,10 @@ public class GridTest
 	@Test
 	public void testCanSlideTiles_combine()
 	{
-		grid.setTile(0, 0, TILE_2);
-		grid.setTile(1, 0, TILE_4);
-		grid.setTile(2, 0, TILE_4);
-		grid.setTile(3, 0, TILE_8);
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_4);
+		setTile(2, 0, TILE_4);
+		setTile(3, 0, TILE_8);
 
 		Assert.assertTrue(grid.canSlideTiles(MoveDirection.LEFT));
 	}
@@ -299,11 +352,12 @@ public class GridTest
 	@Test
 	public void testCanSlideTiles_staggered()
 	{
-		grid = new Grid(2, 8);
-		grid.setTile(0, 0, TILE_2);
-		grid.setTile(1, 0, TILE_4);
-		grid.setTile(0, 1, TILE_4);
-		grid.setTile(1, 1, TILE_2);
+		assumeLengthSupported(2);
+		grid = boardFactory.create(2, 8);
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_4);
+		setTile(0, 1, TILE_4);
+		setTile(1, 1, TILE_2);
 
 		Assert.assertFalse(grid.canSlideInAnyDirection());
 	}
@@ -311,10 +365,11 @@ public class GridTest
 	@Test
 	public void testCanSlideTiles_staggered_oddLength()
 	{
-		grid = new Grid(3, 512);
-		grid.setTile(0, 0, TILE_2);
-		grid.setTile(1, 0, TILE_4);
-		grid.setTile(2, 0, TILE_8);
+		assumeLengthSupported(3);
+		grid = boardFactory.create(3, 512);
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_4);
+		setTile(2, 0, TILE_8);
 
 		Assert.assertFalse(grid.canSlideTiles(MoveDirection.LEFT));
 		Assert.assertFalse(grid.canSlideTiles(MoveDirection.RIGHT));
@@ -323,7 +378,7 @@ public class GridTest
 	@Test
 	public void testClear()
 	{
-		grid.setTile(1, 1, TILE_2);
+		setTile(1, 1, TILE_2);
 
 		grid.clear();
 
@@ -333,8 +388,8 @@ public class GridTest
 	@Test
 	public void testClearOnWin()
 	{
-		grid.setTile(0, 0, TILE_1024);
-		grid.setTile(1, 0, TILE_1024);
+		setTile(0, 0, TILE_1024);
+		setTile(1, 0, TILE_1024);
 
 		grid.slideTiles(MoveDirection.LEFT);
 		grid.clear();
@@ -345,8 +400,8 @@ public class GridTest
 	@Test
 	public void testCombine2048Tiles()
 	{
-		grid.setTile(0, 0, TILE_2048);
-		grid.setTile(1, 0, TILE_2048);
+		setTile(0, 0, TILE_2048);
+		setTile(1, 0, TILE_2048);
 
 		grid.slideTiles(MoveDirection.LEFT);
 
@@ -358,24 +413,246 @@ public class GridTest
 	@Test
 	public void testStall()
 	{
-		grid.setTile(0, 0, TILE_2);
-		grid.setTile(1, 0, TILE_2);
-		grid.setTile(2, 0, TILE_4);
-		grid.setTile(3, 0, TILE_2);
-		grid.setTile(0, 1, TILE_8);
-		grid.setTile(1, 1, TILE_64);
-		grid.setTile(2, 1, TILE_8);
-		grid.setTile(3, 1, TILE_16);
-		grid.setTile(0, 2, TILE_4);
-		grid.setTile(1, 2, TILE_2);
-		grid.setTile(2, 2, TILE_32);
-		grid.setTile(3, 2, TILE_8);
-		grid.setTile(0, 3, TILE_2);
-		grid.setTile(1, 3, TILE_2);
-		grid.setTile(2, 3, TILE_4);
-		grid.setTile(3, 3, TILE_2);
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_2);
+		setTile(2, 0, TILE_4);
+		setTile(3, 0, TILE_2);
+		setTile(0, 1, TILE_8);
+		setTile(1, 1, TILE_64);
+		setTile(2, 1, TILE_8);
+		setTile(3, 1, TILE_16);
+		setTile(0, 2, TILE_4);
+		setTile(1, 2, TILE_2);
+		setTile(2, 2, TILE_32);
+		setTile(3, 2, TILE_8);
+		setTile(0, 3, TILE_2);
+		setTile(1, 3, TILE_2);
+		setTile(2, 3, TILE_4);
+		setTile(3, 3, TILE_2);
+
+		Assert.assertTrue(grid.isFilled());
+	}
+
+	@Test
+	public void testGetEmptyCellCount()
+	{
+		setTile(0, 0, TILE_2);
+		setTile(3, 2, TILE_4);
+		setTile(3, 2, TILE_8);
+		setTile(1, 1, TILE_2);
+		setTile(1, 1, null);
+
+		Assert.assertEquals(LENGTH * LENGTH - 2, grid.getEmptyCellCount());
+	}
+
+	@Test
+	public void testGetEmptyCellCount_afterSlideAndClear()
+	{
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_2);
+		grid.slideTiles(MoveDirection.RIGHT);
+
+		Assert.assertEquals(LENGTH * LENGTH - 1, grid.getEmptyCellCount());
+
+		grid.clear();
+
+		Assert.assertEquals(LENGTH * LENGTH, grid.getEmptyCellCount());
+	}
+
+	@Test
+	public void testAddRandomTile_fillsLastEmptyCell()
+	{
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				if (r != 2 || c != 1)
+				{
+					setTile(c, r, TILE_8);
+				}
+			}
+		}
+
+		grid.addRandomTile();
+
+		Assert.assertNotNull(grid.getTile(1, 2));
+		Assert.assertTrue(grid.isFilled());
+		Assert.assertEquals(0, grid.getEmptyCellCount());
+	}
+
+	@Test
+	public void testGetTile_columnAndRow()
+	{
+		setTile(1, 2, TILE_8);
+		setTile(3, 0, TILE_2);
+
+		grid.slideTiles(MoveDirection.DOWN);
+
+		Assert.assertEquals(TILE_8, grid.getTile(1, 3));
+		Assert.assertEquals(TILE_2, grid.getTile(3, 3));
+		Assert.assertNull(grid.getTile(3, 1));
+		Assert.assertNull(grid.getTile(1, 2));
+		Assert.assertNull(grid.getTile(2, 1));
+	}
+
+	@Test
+	public void testSlideTiles_scoreBeyondInt()
+	{
+		Assume.assumeFalse(
+				"BitBoard tiles are at most 2^15",
+				grid instanceof BitBoard);
+		setTile(0, 1, Tile.ofExponent(40));
+		setTile(2, 1, Tile.ofExponent(40));
+
+		long moveScore = grid.slideTiles(MoveDirection.RIGHT);
+
+		Assert.assertEquals(1L << 41, moveScore);
+		Assert.assertEquals(41, grid.getTile(3, 1).exponent());
+	}
+
+	@Test
+	public void testSetGoalTileExponent()
+	{
+		grid.setGoalTileExponent(5);
+		setTile(1, 1, TILE_16);
+		setTile(1, 3, TILE_16);
+
+		grid.slideTiles(MoveDirection.UP);
+
+		Assert.assertEquals(32L, grid.getGoalTileValue());
+		Assert.assertTrue(grid.goalTileCreated());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetGoalTileExponent_tooLargeForGridLength()
+	{
+		grid.setGoalTileExponent(LENGTH * LENGTH + 1);
+	}
+
+	@Test
+	public void testAddRandomTile_sameSeedSameTiles()
+	{
+		Board grid1 = boardFactory.create(LENGTH, 1024, new SplittableRandom(16L));
+		Board grid2 = boardFactory.create(LENGTH, 1024, new SplittableRandom(16L));
+
+		for (int i = 0; i < LENGTH * LENGTH; i++)
+		{
+			grid1.addRandomTile();
+			grid2.addRandomTile();
+		}
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				Assert.assertEquals(grid1.getTile(c, r), grid2.getTile(c, r));
+			}
+		}
+	}
+
+	@Test
+	public void testMove_2244()
+	{
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_2);
+		setTile(2, 0, TILE_4);
+		setTile(3, 0, TILE_4);
+		MoveResult moveResult = new MoveResult();
+
+		grid.move(MoveDirection.LEFT, moveResult);
+
+		Assert.assertTrue(moveResult.isChanged());
+		Assert.assertEquals(12, moveResult.getScore());
+		Assert.assertFalse(moveResult.isGoalTileCreated());
+		Assert.assertFalse(moveResult.canSlideTiles(MoveDirection.LEFT));
+		Assert.assertTrue(moveResult.canSlideTiles(MoveDirection.RIGHT));
+		Assert.assertFalse(moveResult.canSlideTiles(MoveDirection.UP));
+		Assert.assertTrue(moveResult.canSlideTiles(MoveDirection.DOWN));
+		Assert.assertEquals(TILE_4, grid.getTile(0, 0));
+		Assert.assertEquals(TILE_8, grid.getTile(1, 0));
+	}
+
+	@Test
+	public void testMove_unchanged()
+	{
+		setTile(0, 3, TILE_2);
+		setTile(1, 3, TILE_4);
+		MoveResult moveResult = new MoveResult();
+
+		grid.move(MoveDirection.DOWN, moveResult);
+
+		Assert.assertFalse(moveResult.isChanged());
+		Assert.assertEquals(0, moveResult.getScore());
+		Assert.assertTrue(moveResult.canSlideTiles(MoveDirection.UP));
+		Assert.assertTrue(moveResult.canSlideTiles(MoveDirection.RIGHT));
+		Assert.assertFalse(moveResult.canSlideTiles(MoveDirection.LEFT));
+		Assert.assertEquals(LENGTH * LENGTH - 2, grid.getEmptyCellCount());
+	}
+
+	@Test
+	public void testMove_goalTileCreated()
+	{
+		setTile(2, 1, TILE_512);
+		setTile(2, 2, TILE_512);
+		MoveResult moveResult = new MoveResult();
+
+		grid.move(MoveDirection.UP, moveResult);
+
+		Assert.assertTrue(moveResult.isGoalTileCreated());
+		Assert.assertEquals(1024, moveResult.getScore());
+	}
+
+	@Test
+	public void testMove_sameAsCanSlideTiles()
+	{
+		Random random = new Random(1024L);
+		MoveResult moveResult = new MoveResult();
+
+		for (int i = 0; i < 1000; i++)
+		{
+			grid.clear();
+			for (int r = 0; r < LENGTH; r++)
+			{
+				for (int c = 0; c < LENGTH; c++)
+				{
+					setTile(c, r, createTile(random.nextInt(5)));
+				}
+			}
+			MoveDirection moveDirection = MoveDirection.values()[i % 4];
+			boolean canSlideTiles = grid.canSlideTiles(moveDirection);
+
+			grid.move(moveDirection, moveResult);
+
+			Assert.assertEquals(canSlideTiles, moveResult.isChanged());
+			for (MoveDirection nextMoveDirection : MoveDirection.values())
+			{
+				Assert.assertEquals(
+						grid.canSlideTiles(nextMoveDirection),
+						moveResult.canSlideTiles(nextMoveDirection));
+			}
+			Assert.assertEquals(
+					grid.canSlideInAnyDirection(),
+					moveResult.canSlideInAnyDirection());
+		}
+	}
+
+	@Test
+	public void testCanSlideInAnyDirection_filledAndStuck()
+	{
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				setTile(c, r, (r + c) % 2 == 0 ? TILE_2 : TILE_4);
+			}
+		}
 
 		Assert.assertTrue(grid.isFilled());
+		Assert.assertFalse(grid.canSlideInAnyDirection());
+
+		setTile(3, 3, TILE_4);
+
+		Assert.assertTrue(grid.canSlideInAnyDirection());
 	}
 
 	@Test(expected = IllegalArgumentException.class)
@@ -402,7 +679,7 @@ public class GridTest
 		// stuck state: [[512,256,128],[64,32,16],[8,4,2]]
 		// Actually, it is possible to win if the last tile generated
 		// is a 4 (not a 2), but that depends on the random tile frequencies.
-		Grid gridX = new Grid(3, 1024);
+		Board gridX = boardFactory.create(3, 1024);
 
 		Assert.fail("It should not be possible to create a grid "
 				+ "with length = 3 and goalTileValue = 1024 : " + gridX);
@@ -411,10 +688,11 @@ public class GridTest
 	@Test
 	public void testSetLength()
 	{
-		grid.setTile(0, 0, TILE_1024);
-		grid.setTile(1, 0, TILE_1024);
+		setTile(0, 0, TILE_1024);
+		setTile(1, 0, TILE_1024);
 		grid.slideTiles(MoveDirection.LEFT);
 		int longerLength = LENGTH + 1;
+		assumeLengthSupported(longerLength);
 
 		grid.setLength(longerLength);
 		int length = grid.getLength();
@@ -429,7 +707,7 @@ public class GridTest
 	{
 		int expectedGoalTileValue = 2048;
 
-		int goalTileValue = grid.getGoalTileValue();
+		long goalTileValue = grid.getGoalTileValue();
 
 		Assert.assertEquals(expectedGoalTileValue, goalTileValue);
 	}
@@ -437,16 +715,94 @@ public class GridTest
 	@Test
 	public void testSetGoalTileValue()
 	{
-		grid.setTile(0, 0, TILE_1024);
-		grid.setTile(1, 0, TILE_1024);
+		setTile(0, 0, TILE_1024);
+		setTile(1, 0, TILE_1024);
 		grid.slideTiles(MoveDirection.LEFT);
-		int largerGoalTileValue = 2 * grid.getGoalTileValue();
+		long largerGoalTileValue = 2 * grid.getGoalTileValue();
 
 		grid.setGoalTileValue(largerGoalTileValue);
-		int goalTileValue = grid.getGoalTileValue();
+		long goalTileValue = grid.getGoalTileValue();
 		boolean goalTileCreated = grid.goalTileCreated();
 
 		Assert.assertEquals(largerGoalTileValue, goalTileValue);
 		Assert.assertFalse(goalTileCreated);
 	}
+
+	private void assumeLengthSupported(int length)
+	{
+		Assume.assumeTrue(
+				"BitBoard only supports a length of " + BitBoard.LENGTH,
+				!(grid instanceof BitBoard) || length == BitBoard.LENGTH);
+	}
+
+	@Test
+	public void testRestoreState_afterMove()
+	{
+		setTile(0, 0, TILE_2);
+		setTile(1, 0, TILE_2);
+		setTile(3, 2, TILE_8);
+		byte[] states = new byte[1 + LENGTH * LENGTH];
+		grid.saveState(states, 1);
+
+		grid.slideTiles(MoveDirection.RIGHT);
+		grid.addRandomTile();
+		grid.restoreState(states, 1);
+
+		Assert.assertEquals(TILE_2, grid.getTile(0, 0));
+		Assert.assertEquals(TILE_2, grid.getTile(1, 0));
+		Assert.assertEquals(TILE_8, grid.getTile(3, 2));
+		Assert.assertEquals(LENGTH * LENGTH - 3, grid.getEmptyCellCount());
+		Assert.assertFalse(grid.goalTileCreated());
+	}
+
+	@Test
+	public void testRestoreState_goalTileCreated()
+	{
+		byte[] states = new byte[LENGTH * LENGTH];
+		states[5] = (byte) TILE_1024.exponent();
+
+		grid.restoreState(states, 0);
+
+		Assert.assertEquals(TILE_1024, grid.getTile(1, 1));
+		Assert.assertTrue(grid.goalTileCreated());
+	}
+
+	private void setTile(int c, int r, Tile tile)
+	{
+		if (grid instanceof BitBoard)
+		{
+			((BitBoard) grid).setTile(c, r, tile);
+		}
+		else if (grid instanceof ByteGrid)
+		{
+			((ByteGrid) grid).setTile(c, r, tile);
+		}
+		else
+		{
+			((Grid) grid).setTile(c, r, tile);
+		}
+	}
+
+	private static Tile createTile(int exponent)
+	{
+		Tile tile = null;
+
+		for (int i = 0; i < exponent; i++)
+		{
+			tile = tile == null ? TILE_2 : tile.getNext();
+		}
+
+		return tile;
+	}
+
+	@FunctionalInterface
+	private interface BoardFactory
+	{
+		Board create(int length, long goalTileValue, SplittableRandom random);
+
+		default Board create(int length, long goalTileValue)
+		{
+			return this.create(length, goalTileValue, new SplittableRandom());
+		}
+	}
 }
@@ -0,0 +1,120 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MoveHistoryTest
+{
+	@Test
+	public void testUndo_redo()
+	{
+		Grid grid = new Grid(4, 1024, new SplittableRandom(15L));
+		MoveHistory moveHistory = new MoveHistory();
+		grid.addRandomTile();
+		grid.addRandomTile();
+		moveHistory.record(grid, 0L);
+		Tile[] initialTiles = getTiles(grid);
+		grid.slideTiles(MoveDirection.LEFT);
+		grid.slideTiles(MoveDirection.UP);
+		grid.addRandomTile();
+		moveHistory.record(grid, 4L);
+		Tile[] movedTiles = getTiles(grid);
+
+		long undoScore = moveHistory.undo(grid);
+		Tile[] undoneTiles = getTiles(grid);
+		long redoScore = moveHistory.redo(grid);
+
+		Assert.assertEquals(0L, undoScore);
+		Assert.assertArrayEquals(initialTiles, undoneTiles);
+		Assert.assertEquals(4L, redoScore);
+		Assert.assertArrayEquals(movedTiles, getTiles(grid));
+		Assert.assertFalse(moveHistory.canRedo());
+	}
+
+	@Test
+	public void testRecord_forgetsRedo()
+	{
+		Grid grid = new Grid();
+		MoveHistory moveHistory = new MoveHistory();
+		moveHistory.record(grid, 0L);
+		moveHistory.record(grid, 1L);
+		moveHistory.undo(grid);
+
+		moveHistory.record(grid, 2L);
+
+		Assert.assertFalse(moveHistory.canRedo());
+		Assert.assertEquals(0L, moveHistory.undo(grid));
+		Assert.assertFalse(moveHistory.canUndo());
+	}
+
+	@Test
+	public void testRecord_full_dropsOldest()
+	{
+		Grid grid = new Grid();
+		MoveHistory moveHistory = new MoveHistory(3);
+
+		for (long score = 0L; score < 100_000L; score++)
+		{
+			moveHistory.record(grid, score);
+		}
+
+		Assert.assertEquals(99_998L, moveHistory.undo(grid));
+		Assert.assertEquals(99_997L, moveHistory.undo(grid));
+		Assert.assertFalse(moveHistory.canUndo());
+	}
+
+	@Test
+	public void testRollback_tryEachMove()
+	{
+		BitBoard bitBoard = new BitBoard(4, 1024, new SplittableRandom(15L));
+		MoveHistory moveHistory = new MoveHistory();
+		for (int i = 0; i < 6; i++)
+		{
+			bitBoard.addRandomTile();
+		}
+		long tiles = bitBoard.getTiles();
+		moveHistory.record(bitBoard, 12L);
+
+		for (MoveDirection moveDirection : MoveDirection.values())
+		{
+			bitBoard.slideTiles(moveDirection);
+			Assert.assertEquals(BitBoard.slide(tiles, moveDirection), bitBoard.getTiles());
+
+			Assert.assertEquals(12L, moveHistory.rollback(bitBoard));
+			Assert.assertEquals(tiles, bitBoard.getTiles());
+		}
+		Assert.assertFalse(moveHistory.canUndo());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUndo_nothingRecorded()
+	{
+		new MoveHistory().undo(new Grid());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRollback_otherLength()
+	{
+		MoveHistory moveHistory = new MoveHistory();
+		moveHistory.record(new Grid(4), 0L);
+
+		moveHistory.rollback(new Grid(5));
+	}
+
+	private static Tile[] getTiles(Board board)
+	{
+		int length = board.getLength();
+		Tile[] tiles = new Tile[length * length];
+
+		for (int r = 0; r < length; r++)
+		{
+			for (int c = 0; c < length; c++)
+			{
+				tiles[r * length + c] = board.getTile(c, r);
+			}
+		}
+
+		return tiles;
+	}
+}
@@ -0,0 +1,64 @@
+package com.github.ants280.slidegame.logic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RowTableTest
+{
+	@Test
+	public void testSlide_2244_left()
+	{
+		int row = packRow(1, 1, 2, 2);
+
+		long slideResult = RowTable.slide(row, true);
+
+		Assert.assertEquals(packRow(2, 3, 0, 0), RowTable.getRow(slideResult));
+		Assert.assertEquals(12, RowTable.getSum(slideResult));
+		Assert.assertEquals(
+				1 << 2 | 1 << 3,
+				RowTable.getMergedExponents(slideResult));
+	}
+
+	@Test
+	public void testSlide_2220_right()
+	{
+		int row = packRow(1, 1, 1, 0);
+
+		long slideResult = RowTable.slide(row, false);
+
+		Assert.assertEquals(packRow(0, 0, 1, 2), RowTable.getRow(slideResult));
+		Assert.assertEquals(4, RowTable.getSum(slideResult));
+	}
+
+	@Test
+	public void testSlide_unchanged()
+	{
+		int row = packRow(1, 2, 3, 4);
+
+		Assert.assertEquals(row, RowTable.getRow(RowTable.slide(row, true)));
+		Assert.assertEquals(row, RowTable.getRow(RowTable.slide(row, false)));
+	}
+
+	@Test
+	public void testSlide_maxExponentNotCombined()
+	{
+		int row = packRow(15, 15, 0, 0);
+
+		long slideResult = RowTable.slide(row, true);
+
+		Assert.assertEquals(row, RowTable.getRow(slideResult));
+		Assert.assertEquals(0, RowTable.getSum(slideResult));
+	}
+
+	private static int packRow(int... exponents)
+	{
+		int row = 0;
+
+		for (int i = 0; i < exponents.length; i++)
+		{
+			row |= exponents[i] << (i * 4);
+		}
+
+		return row;
+	}
+}
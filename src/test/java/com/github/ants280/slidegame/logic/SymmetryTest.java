@@ -0,0 +1,104 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SymmetryTest
+{
+	private static final long[] BOARDS = createBoards();
+
+	@Test
+	public void testApply_rotateClockwise()
+	{
+		// 1 2 3 4 / 5 6 7 8 / 9 A B C / D E F 0
+		long tiles = 0x0FEDCBA987654321L;
+
+		long rotatedTiles = Symmetry.ROTATE_CLOCKWISE.apply(tiles);
+
+		// D 9 5 1 / E A 6 2 / F B 7 3 / 0 C 8 4
+		Assert.assertEquals(0x48C037BF26AE159DL, rotatedTiles);
+	}
+
+	@Test
+	public void testApply_slideInTransformedDirection()
+	{
+		for (Symmetry symmetry : Symmetry.values())
+		{
+			for (MoveDirection moveDirection : MoveDirection.values())
+			{
+				for (long tiles : BOARDS)
+				{
+					Assert.assertEquals(
+							symmetry + " " + moveDirection,
+							symmetry.apply(BitBoard.slide(tiles, moveDirection)),
+							BitBoard.slide(symmetry.apply(tiles), symmetry.apply(moveDirection)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInverse()
+	{
+		for (Symmetry symmetry : Symmetry.values())
+		{
+			for (long tiles : BOARDS)
+			{
+				Assert.assertEquals(tiles, symmetry.inverse().apply(symmetry.apply(tiles)));
+			}
+			for (MoveDirection moveDirection : MoveDirection.values())
+			{
+				Assert.assertEquals(moveDirection, symmetry.inverse().apply(symmetry.apply(moveDirection)));
+			}
+		}
+	}
+
+	@Test
+	public void testApply_eightDistinctBoards()
+	{
+		Set<Long> transformedTiles = new HashSet<>();
+
+		for (Symmetry symmetry : Symmetry.values())
+		{
+			transformedTiles.add(symmetry.apply(0x0FEDCBA987654321L));
+		}
+
+		Assert.assertEquals(8, transformedTiles.size());
+	}
+
+	@Test
+	public void testCanonicalize_sameForAllSymmetries()
+	{
+		for (long tiles : BOARDS)
+		{
+			long canonicalTiles = Symmetry.canonicalize(tiles);
+
+			for (Symmetry symmetry : Symmetry.values())
+			{
+				Assert.assertEquals(canonicalTiles, Symmetry.canonicalize(symmetry.apply(tiles)));
+			}
+			Assert.assertEquals(canonicalTiles, Symmetry.getCanonicalSymmetry(tiles).apply(tiles));
+		}
+	}
+
+	private static long[] createBoards()
+	{
+		Random random = new Random(2048L);
+		long[] boards = new long[1000];
+
+		for (int i = 0; i < boards.length; i++)
+		{
+			for (int cell = 0; cell < 16; cell++)
+			{
+				// mostly small tiles, so many can be combined:
+				long exponent = random.nextInt(3) == 0 ? 0L : random.nextInt(4) + random.nextInt(13) / 12 * 11;
+				boards[i] |= exponent << (cell * 4);
+			}
+		}
+
+		return boards;
+	}
+}
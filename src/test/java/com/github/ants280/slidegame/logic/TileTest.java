@@ -1,6 +1,7 @@
 package com.github.ants280.slidegame.logic;
 
 import java.util.Arrays;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.Assert;
 import org.junit.Test;
@@ -141,6 +142,64 @@ public class TileTest
 		Assert.assertTrue(compareTo > 0);
 	}
 
+	@Test
+	public void testOfExponent()
+	{
+		Tile tile = Tile.ofExponent(11);
+
+		Assert.assertEquals(2048, tile.getValue());
+		Assert.assertEquals(11, tile.exponent());
+		Assert.assertSame(Tile.TWO, Tile.ofExponent(1));
+		Assert.assertNull(Tile.ofExponent(0));
+	}
+
+	@Test
+	public void testGetValue_beyondInt()
+	{
+		Tile tile = Tile.ofExponent(Tile.MAX_EXPONENT);
+
+		Assert.assertEquals(1L << Tile.MAX_EXPONENT, tile.getValue());
+		Assert.assertEquals(
+				String.valueOf(1L << Tile.MAX_EXPONENT),
+				tile.getDisplayValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOfExponent_tooLarge()
+	{
+		Tile.ofExponent(Tile.MAX_EXPONENT + 1);
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testGetNext_overflow()
+	{
+		Tile.ofExponent(Tile.MAX_EXPONENT).getNext();
+	}
+
+	@Test
+	public void testGetNext_sameInstanceOnAllThreads()
+	{
+		Tile[] expectedTiles = Stream.iterate(Tile.TWO, Tile::getNext)
+				.limit(Tile.MAX_EXPONENT)
+				.toArray(Tile[]::new);
+
+		boolean allSame = IntStream.range(0, 10_000)
+				.parallel()
+				.allMatch(i ->
+				{
+					int exponent = i % Tile.MAX_EXPONENT + 1;
+					Tile tile = Tile.TWO;
+					while (tile.exponent() != exponent)
+					{
+						tile = tile.getNext();
+					}
+					return tile == expectedTiles[exponent - 1]
+							&& tile == Tile.ofExponent(exponent);
+				});
+
+		Assert.assertTrue(allSame);
+	}
+
 	@Test
 	public void testToString()
 	{
@@ -0,0 +1,45 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArrayTranspositionTableTest
+{
+	@Test
+	public void testGet_empty()
+	{
+		TranspositionTable transpositionTable = new ArrayTranspositionTable(16);
+
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x12L, 1)));
+	}
+
+	@Test
+	public void testGet_deeperEntry()
+	{
+		TranspositionTable transpositionTable = new ArrayTranspositionTable(16);
+		transpositionTable.put(0x12L, 3, 42f);
+
+		Assert.assertEquals(42f, transpositionTable.get(0x12L, 2), 0f);
+		Assert.assertEquals(42f, transpositionTable.get(0x12L, 3), 0f);
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x12L, 4)));
+	}
+
+	@Test
+	public void testClear()
+	{
+		TranspositionTable transpositionTable = new ArrayTranspositionTable(16);
+		transpositionTable.put(0x12L, 3, 42f);
+
+		transpositionTable.clear();
+
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x12L, 1)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_badCapacity()
+	{
+		TranspositionTable transpositionTable = new ArrayTranspositionTable(0);
+
+		Assert.fail("Should not be constructable: " + transpositionTable);
+	}
+}
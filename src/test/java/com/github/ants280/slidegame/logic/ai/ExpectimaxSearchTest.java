@@ -0,0 +1,99 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExpectimaxSearchTest
+{
+	@Test
+	public void testSearch_lostBoard()
+	{
+		// 2 4 2 4 / 4 2 4 2 / ...
+		long tiles = 0x1212212112122121L;
+
+		SearchResult searchResult = new ExpectimaxSearch().search(tiles);
+
+		Assert.assertNull(searchResult.getMoveDirection());
+	}
+
+	@Test
+	public void testSearch_onlyHorizontalMoves()
+	{
+		// Only the 2 tiles in the top row can be combined.
+		long tiles = 0x7654654354323211L;
+
+		SearchResult searchResult = new ExpectimaxSearch().search(tiles);
+
+		MoveDirection moveDirection = searchResult.getMoveDirection();
+		Assert.assertTrue(
+				moveDirection == MoveDirection.LEFT
+				|| moveDirection == MoveDirection.RIGHT);
+		Assert.assertTrue(searchResult.getExpectedValue() > 0f);
+	}
+
+	@Test
+	public void testSearch_legalMove()
+	{
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.addRandomTile();
+		bitBoard.addRandomTile();
+		ExpectimaxSearch expectimaxSearch = new ExpectimaxSearch();
+
+		for (int i = 0; i < 50 && bitBoard.canSlideInAnyDirection(); i++)
+		{
+			MoveDirection moveDirection
+					= expectimaxSearch.search(bitBoard).getMoveDirection();
+
+			Assert.assertTrue(bitBoard.canSlideTiles(moveDirection));
+			bitBoard.slideTiles(moveDirection);
+			bitBoard.addRandomTile();
+		}
+	}
+
+	@Test
+	public void testSearch_usesTranspositionTable()
+	{
+		long tiles = 0x0000000000120021L;
+		ArrayTranspositionTable transpositionTable
+				= new ArrayTranspositionTable(1 << 16);
+		ExpectimaxSearch expectimaxSearch = new ExpectimaxSearch(
+				new HeuristicEvaluator(),
+				transpositionTable,
+				2,
+				ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+
+		SearchResult searchResult = expectimaxSearch.search(tiles);
+		long slidTiles = BitBoard.slide(tiles, searchResult.getMoveDirection());
+
+		Assert.assertEquals(
+				searchResult.getExpectedValue(),
+				transpositionTable.get(slidTiles, 2),
+				0f);
+	}
+
+	@Test
+	public void testSearch_symmetricTranspositionTable()
+	{
+		long tiles = 0x0000000100120021L;
+		ExpectimaxSearch expectimaxSearch = new ExpectimaxSearch(
+				new HeuristicEvaluator(),
+				new ArrayTranspositionTable(1 << 16),
+				2,
+				0f);
+		ExpectimaxSearch symmetricExpectimaxSearch = new ExpectimaxSearch(
+				new HeuristicEvaluator(),
+				new SymmetricTranspositionTable(new ArrayTranspositionTable(1 << 16)),
+				2,
+				0f);
+
+		SearchResult searchResult = expectimaxSearch.search(tiles);
+		SearchResult symmetricSearchResult = symmetricExpectimaxSearch.search(tiles);
+
+		Assert.assertEquals(
+				searchResult.getExpectedValue(),
+				symmetricSearchResult.getExpectedValue(),
+				searchResult.getExpectedValue() * 1e-6f);
+	}
+}
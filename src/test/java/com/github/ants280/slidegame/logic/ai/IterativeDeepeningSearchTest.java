@@ -0,0 +1,79 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IterativeDeepeningSearchTest
+{
+	// A mixed board with plenty of empty cells, which is slow to search deeply.
+	private static final long TILES = 0x0000002100130241L;
+
+	@Test
+	public void testSearch_stopsAtTimeBudget()
+	{
+		IterativeDeepeningSearch search = new IterativeDeepeningSearch(
+				new HeuristicEvaluator(),
+				new ArrayTranspositionTable(1 << 16),
+				100,
+				0f);
+
+		SearchResult searchResult = search.search(TILES, 50L, TimeUnit.MILLISECONDS);
+
+		// Without a probability cutoff, a search of depth 100 never finishes, so
+		// the deadline must have stopped the deepening:
+		Assert.assertTrue(BitBoard.slide(TILES, searchResult.getMoveDirection()) != TILES);
+		Assert.assertTrue(
+				"Searched depth " + search.getSearchedDepth(),
+				search.getSearchedDepth() >= 1 && search.getSearchedDepth() < 100);
+	}
+
+	@Test
+	public void testSearch_sameAsExpectimaxSearchWithinBudget()
+	{
+		IterativeDeepeningSearch search = new IterativeDeepeningSearch(
+				new HeuristicEvaluator(),
+				new ArrayTranspositionTable(1 << 16),
+				2,
+				ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+		ExpectimaxSearch expectimaxSearch = new ExpectimaxSearch(
+				new HeuristicEvaluator(),
+				new ArrayTranspositionTable(1 << 16),
+				2,
+				ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+
+		SearchResult searchResult = search.search(TILES, 1L, TimeUnit.MINUTES);
+
+		Assert.assertEquals(2, search.getSearchedDepth());
+		Assert.assertEquals(
+				expectimaxSearch.search(TILES).getMoveDirection(),
+				searchResult.getMoveDirection());
+	}
+
+	@Test
+	public void testSearch_lostBoard()
+	{
+		long tiles = 0x1212212112122121L;
+
+		SearchResult searchResult = new IterativeDeepeningSearch()
+				.search(tiles, 1L, TimeUnit.SECONDS);
+
+		Assert.assertNull(searchResult.getMoveDirection());
+	}
+
+	@Test(expected = CancellationException.class)
+	public void testSearch_interrupted()
+	{
+		Thread.currentThread().interrupt();
+		try
+		{
+			new IterativeDeepeningSearch().search(TILES, 1L, TimeUnit.MINUTES);
+		}
+		finally
+		{
+			Thread.interrupted();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LocklessTranspositionTableTest
+{
+	@Test
+	public void testGet_empty()
+	{
+		TranspositionTable transpositionTable
+				= new LocklessTranspositionTable(16);
+
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0L, 1)));
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x12L, 1)));
+	}
+
+	@Test
+	public void testGet_deeperEntry()
+	{
+		TranspositionTable transpositionTable
+				= new LocklessTranspositionTable(16);
+		transpositionTable.put(0x12L, 3, -42f);
+
+		Assert.assertEquals(-42f, transpositionTable.get(0x12L, 3), 0f);
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x12L, 4)));
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x13L, 1)));
+	}
+
+	@Test
+	public void testPut_concurrentWritersNeverMixEntries() throws Exception
+	{
+		// A tiny table makes every thread write to the same few slots.
+		TranspositionTable transpositionTable
+				= new LocklessTranspositionTable(2);
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < 4; t++)
+		{
+			futures.add(executorService.submit(() ->
+			{
+				for (long tiles = 1L; tiles < 100_000L; tiles++)
+				{
+					// each board's value is derived from the board:
+					transpositionTable.put(tiles, 1, tiles);
+					float value = transpositionTable.get(tiles ^ 1L, 1);
+					if (!Float.isNaN(value))
+					{
+						Assert.assertEquals((float) (tiles ^ 1L), value, 0f);
+					}
+				}
+			}));
+		}
+
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+		executorService.shutdown();
+		executorService.awaitTermination(1, TimeUnit.SECONDS);
+	}
+}
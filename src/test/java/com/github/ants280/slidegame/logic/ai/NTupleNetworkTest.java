@@ -0,0 +1,154 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.Symmetry;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NTupleNetworkTest
+{
+	private static final int[][] LINE_TUPLES = {
+		{ 0, 1, 2, 3 },
+		{ 4, 5, 6, 7 },
+		{ 0, 1, 4, 5 }
+	};
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testEvaluate_sameForEverySymmetry()
+	{
+		NTupleNetwork network = createTrainedNetwork(new SplittableRandom(4L));
+		long tiles = 0x0123400100520031L;
+
+		for (Symmetry symmetry : Symmetry.values())
+		{
+			Assert.assertEquals(
+					symmetry.name(),
+					network.evaluate(tiles),
+					network.evaluate(symmetry.apply(tiles)),
+					1e-3f);
+		}
+	}
+
+	@Test
+	public void testUpdate_movesValue()
+	{
+		NTupleNetwork network = new NTupleNetwork(LINE_TUPLES);
+		long tiles = 0x0000000000000021L;
+
+		network.update(tiles, 1f);
+
+		Assert.assertEquals(24, network.getFeatureCount());
+		Assert.assertTrue(network.evaluate(tiles) >= network.getFeatureCount());
+		Assert.assertTrue(
+				network.evaluate(tiles)
+				> network.evaluate(0x0000000000000033L));
+	}
+
+	@Test
+	public void testLoad_sameAsSaved() throws IOException
+	{
+		SplittableRandom random = new SplittableRandom(8L);
+		NTupleNetwork network = createTrainedNetwork(random);
+		Path file = temporaryFolder.newFile().toPath();
+
+		network.save(file);
+		NTupleNetwork loadedNetwork = NTupleNetwork.load(file);
+		NTupleNetwork mappedNetwork = NTupleNetwork.map(file);
+
+		for (int i = 0; i < 100; i++)
+		{
+			long tiles = random.nextLong() & 0x3333333333333333L;
+			Assert.assertEquals(
+					network.evaluate(tiles),
+					loadedNetwork.evaluate(tiles),
+					0f);
+			Assert.assertEquals(
+					network.evaluate(tiles),
+					mappedNetwork.evaluate(tiles),
+					0f);
+		}
+	}
+
+	@Test(expected = ReadOnlyBufferException.class)
+	public void testUpdate_mapped() throws IOException
+	{
+		Path file = temporaryFolder.newFile().toPath();
+		new NTupleNetwork(LINE_TUPLES).save(file);
+
+		NTupleNetwork.map(file).update(0L, 1f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreate_repeatedCell()
+	{
+		new NTupleNetwork(new int[][] { { 0, 1, 0 } });
+	}
+
+	@Test
+	public void testMap_corrupt() throws IOException
+	{
+		File file = temporaryFolder.newFile();
+		new NTupleNetwork(LINE_TUPLES).save(file.toPath());
+
+		// Unsupported version:
+		assertMapFails(file, 4, 2);
+		// A tuple of eight cells:
+		assertMapFails(file, 12, 8);
+		// A repeated cell:
+		assertMapFails(file, 14, 0);
+	}
+
+	private static void assertMapFails(File file, int offset, int value) throws IOException
+	{
+		byte originalValue;
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+		{
+			randomAccessFile.seek(offset);
+			originalValue = randomAccessFile.readByte();
+			randomAccessFile.seek(offset);
+			randomAccessFile.writeByte(value);
+		}
+
+		try
+		{
+			NTupleNetwork.map(file.toPath());
+			Assert.fail("Mapped a corrupt weight file");
+		}
+		catch (IOException e)
+		{
+			// expected
+		}
+		finally
+		{
+			try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+			{
+				randomAccessFile.seek(offset);
+				randomAccessFile.writeByte(originalValue);
+			}
+		}
+	}
+
+	private static NTupleNetwork createTrainedNetwork(SplittableRandom random)
+	{
+		NTupleNetwork network = new NTupleNetwork(LINE_TUPLES);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			network.update(
+					random.nextLong() & 0x3333333333333333L,
+					(float) random.nextDouble(-1d, 1d));
+		}
+
+		return network;
+	}
+}
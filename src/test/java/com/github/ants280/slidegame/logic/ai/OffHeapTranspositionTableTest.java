@@ -0,0 +1,132 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapTranspositionTableTest
+{
+	private static final long BUCKET_BYTES = 64L;
+
+	@Test
+	public void testGet_empty()
+	{
+		TranspositionTable transpositionTable
+				= new OffHeapTranspositionTable(1 << 10);
+
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0L, 1)));
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x12L, 1)));
+	}
+
+	@Test
+	public void testGet_deeperEntry()
+	{
+		TranspositionTable transpositionTable
+				= new OffHeapTranspositionTable(1 << 10);
+		transpositionTable.put(0x12L, 3, -42f);
+
+		Assert.assertEquals(-42f, transpositionTable.get(0x12L, 3), 0f);
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x12L, 4)));
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(0x13L, 1)));
+	}
+
+	@Test
+	public void testPut_fullBucket_replacesShallowest()
+	{
+		// A single bucket holds every board:
+		TranspositionTable transpositionTable
+				= new OffHeapTranspositionTable(BUCKET_BYTES);
+		transpositionTable.put(1L, 4, 1f);
+		transpositionTable.put(2L, 2, 2f);
+		transpositionTable.put(3L, 5, 3f);
+		transpositionTable.put(4L, 3, 4f);
+
+		transpositionTable.put(5L, 1, 5f);
+
+		Assert.assertTrue(Float.isNaN(transpositionTable.get(2L, 1)));
+		Assert.assertEquals(1f, transpositionTable.get(1L, 1), 0f);
+		Assert.assertEquals(3f, transpositionTable.get(3L, 1), 0f);
+		Assert.assertEquals(4f, transpositionTable.get(4L, 1), 0f);
+		Assert.assertEquals(5f, transpositionTable.get(5L, 1), 0f);
+	}
+
+	@Test
+	public void testPut_shallowerThanEntry_keepsEntry()
+	{
+		TranspositionTable transpositionTable
+				= new OffHeapTranspositionTable(BUCKET_BYTES);
+		transpositionTable.put(7L, 3, 1f);
+
+		transpositionTable.put(7L, 2, 2f);
+
+		Assert.assertEquals(1f, transpositionTable.get(7L, 3), 0f);
+	}
+
+	@Test
+	public void testClear()
+	{
+		TranspositionTable transpositionTable
+				= new OffHeapTranspositionTable(1 << 10);
+		transpositionTable.put(0x12L, 3, -42f);
+
+		transpositionTable.clear();
+		float clearedValue = transpositionTable.get(0x12L, 1);
+		transpositionTable.put(0x12L, 1, 6f);
+
+		Assert.assertTrue(Float.isNaN(clearedValue));
+		Assert.assertEquals(6f, transpositionTable.get(0x12L, 1), 0f);
+	}
+
+	@Test
+	public void testGetSizeBytes_roundedDown()
+	{
+		Assert.assertEquals(1L << 20, new OffHeapTranspositionTable((1 << 20) + (1 << 19)).getSizeBytes());
+	}
+
+	@Test
+	public void testParseSize()
+	{
+		Assert.assertEquals(123L, OffHeapTranspositionTable.parseSize("123"));
+		Assert.assertEquals(512L << 20, OffHeapTranspositionTable.parseSize("512m"));
+		Assert.assertEquals(4L << 30, OffHeapTranspositionTable.parseSize("4G"));
+	}
+
+	@Test
+	public void testPut_concurrentWritersNeverMixEntries() throws Exception
+	{
+		// A tiny table makes every thread write to the same few slots.
+		TranspositionTable transpositionTable
+				= new OffHeapTranspositionTable(2 * BUCKET_BYTES);
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < 4; t++)
+		{
+			futures.add(executorService.submit(() ->
+			{
+				for (long tiles = 1L; tiles < 100_000L; tiles++)
+				{
+					// each board's value is derived from the board:
+					transpositionTable.put(tiles, 1, tiles);
+					float value = transpositionTable.get(tiles ^ 1L, 1);
+					if (!Float.isNaN(value))
+					{
+						Assert.assertEquals((float) (tiles ^ 1L), value, 0f);
+					}
+				}
+			}));
+		}
+
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+		executorService.shutdown();
+		executorService.awaitTermination(1, TimeUnit.SECONDS);
+	}
+}
@@ -0,0 +1,84 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelExpectimaxSearchTest
+{
+	private ForkJoinPool forkJoinPool;
+
+	@Before
+	public void setUp()
+	{
+		forkJoinPool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void tearDown()
+	{
+		forkJoinPool.shutdownNow();
+	}
+
+	@Test
+	public void testSearch_lostBoard()
+	{
+		long tiles = 0x1212212112122121L;
+
+		SearchResult searchResult
+				= new ParallelExpectimaxSearch(forkJoinPool).search(tiles);
+
+		Assert.assertNull(searchResult.getMoveDirection());
+	}
+
+	@Test
+	public void testSearch_sameAsSequentialSearch()
+	{
+		long[] positions =
+		{
+			0x0000000000120021L,
+			0x0000001000210123L,
+			0x1000213223143235L,
+			0x7654654354323211L
+		};
+
+		for (long tiles : positions)
+		{
+			SearchResult sequentialSearchResult
+					= createSequentialSearch().search(tiles);
+			SearchResult parallelSearchResult
+					= createParallelSearch().search(tiles);
+
+			MoveDirection moveDirection = parallelSearchResult.getMoveDirection();
+			Assert.assertEquals(
+					sequentialSearchResult.getMoveDirection(),
+					moveDirection);
+			Assert.assertEquals(
+					sequentialSearchResult.getExpectedValue(),
+					parallelSearchResult.getExpectedValue(),
+					Math.abs(sequentialSearchResult.getExpectedValue()) * 1e-3f);
+		}
+	}
+
+	private static ExpectimaxSearch createSequentialSearch()
+	{
+		return new ExpectimaxSearch(
+				new HeuristicEvaluator(),
+				new ArrayTranspositionTable(1 << 16),
+				2,
+				ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+	}
+
+	private ExpectimaxSearch createParallelSearch()
+	{
+		return new ParallelExpectimaxSearch(
+				forkJoinPool,
+				new HeuristicEvaluator(),
+				new LocklessTranspositionTable(1 << 16),
+				2,
+				ExpectimaxSearch.DEFAULT_PROBABILITY_CUTOFF);
+	}
+}
@@ -0,0 +1,35 @@
+package com.github.ants280.slidegame.logic.ai;
+
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RandomMoveStrategyTest
+{
+	@Test
+	public void testChooseMove_emptyBoard()
+	{
+		MoveDirection moveDirection
+				= new RandomMoveStrategy().chooseMove(new Grid());
+
+		Assert.assertNull(moveDirection);
+	}
+
+	@Test
+	public void testChooseMove_legalMove()
+	{
+		Grid grid = new Grid(7);
+		MoveStrategy moveStrategy = new RandomMoveStrategy();
+		grid.addRandomTile();
+
+		for (int i = 0; i < 100; i++)
+		{
+			MoveDirection moveDirection = moveStrategy.chooseMove(grid);
+
+			Assert.assertTrue(grid.canSlideTiles(moveDirection));
+			grid.slideTiles(moveDirection);
+			grid.addRandomTile();
+		}
+	}
+}
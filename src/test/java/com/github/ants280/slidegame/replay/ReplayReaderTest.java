@@ -0,0 +1,172 @@
+package com.github.ants280.slidegame.replay;
+
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.MoveResult;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReplayReaderTest
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS = MoveDirection.values();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testNext_sameAsWritten() throws IOException
+	{
+		File file = temporaryFolder.newFile();
+		List<List<String>> writtenEvents = new ArrayList<>();
+		SplittableRandom random = new SplittableRandom(16L);
+		try (ReplayWriter replayWriter = new ReplayWriter(new BufferedOutputStream(new FileOutputStream(file))))
+		{
+			for (int game = 0; game < 20; game++)
+			{
+				writtenEvents.add(writeGame(replayWriter, 2 + game % 4, random));
+			}
+		}
+
+		// A small window makes most games start in a new mapping:
+		try (ReplayReader replayReader = new ReplayReader(file.toPath(), 1 << 10))
+		{
+			for (List<String> events : writtenEvents)
+			{
+				Replay replay = replayReader.next();
+				List<String> readEvents = new ArrayList<>();
+				replay.play(new EventListener(readEvents));
+
+				Assert.assertEquals(events, readEvents);
+				Assert.assertTrue(replay.isGameOver());
+			}
+			Assert.assertNull(replayReader.next());
+		}
+	}
+
+	@Test
+	public void testNext_undoneMovesNotWritten() throws IOException
+	{
+		File file = temporaryFolder.newFile();
+		try (ReplayWriter replayWriter = new ReplayWriter(new FileOutputStream(file)))
+		{
+			replayWriter.startGame(4, 10, 7L);
+			replayWriter.spawn(0, 1);
+			replayWriter.move(MoveDirection.RIGHT);
+			replayWriter.spawn(5, 2);
+			replayWriter.move(MoveDirection.DOWN);
+			replayWriter.spawn(6, 1);
+			replayWriter.undoMove();
+			replayWriter.undoMove();
+			replayWriter.redoMove();
+			replayWriter.move(MoveDirection.LEFT);
+			replayWriter.endGame(4L, false, false);
+		}
+
+		try (ReplayReader replayReader = new ReplayReader(file.toPath()))
+		{
+			Replay replay = replayReader.next();
+			List<String> events = new ArrayList<>();
+			replay.play(new EventListener(events));
+
+			// The tiles after an undone move no longer follow the seed:
+			Assert.assertEquals(0L, replay.getSeed());
+			Assert.assertEquals(10, replay.getGoalTileExponent());
+			Assert.assertEquals(4L, replay.getScore());
+			Assert.assertEquals(2, replay.getMoveCount());
+			Assert.assertFalse(replay.isGameOver());
+			Assert.assertEquals(Arrays.asList("spawn 0 1", "move Right", "spawn 5 2", "move Left"), events);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testNext_cutOff() throws IOException
+	{
+		File file = temporaryFolder.newFile();
+		try (ReplayWriter replayWriter = new ReplayWriter(new FileOutputStream(file)))
+		{
+			writeGame(replayWriter, 4, new SplittableRandom(16L));
+		}
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+		{
+			randomAccessFile.setLength(randomAccessFile.length() - 1);
+		}
+
+		try (ReplayReader replayReader = new ReplayReader(file.toPath()))
+		{
+			replayReader.next();
+		}
+	}
+
+	/**
+	 * Play a random game on a Grid to the end, writing it and keeping each move
+	 * and added tile.
+	 */
+	private static List<String> writeGame(ReplayWriter replayWriter, int length, SplittableRandom random) throws IOException
+	{
+		Grid grid = new Grid(length, 1L << (length * length), random);
+		List<String> events = new ArrayList<>();
+		EventListener eventListener = new EventListener(events);
+		MoveResult moveResult = new MoveResult();
+
+		replayWriter.startGame(length, grid.getGoalTileExponent(), 0L);
+		for (int i = 0; i < 2; i++)
+		{
+			spawn(grid, replayWriter, eventListener);
+		}
+		while (grid.canSlideInAnyDirection())
+		{
+			MoveDirection moveDirection = MOVE_DIRECTIONS[random.nextInt(MOVE_DIRECTIONS.length)];
+			grid.move(moveDirection, moveResult);
+			if (moveResult.isChanged())
+			{
+				replayWriter.move(moveDirection);
+				eventListener.move(moveDirection);
+				spawn(grid, replayWriter, eventListener);
+			}
+		}
+		replayWriter.endGame(0L, grid.goalTileCreated(), true);
+
+		return events;
+	}
+
+	private static void spawn(Grid grid, ReplayWriter replayWriter, EventListener eventListener)
+	{
+		int cell = grid.addRandomTile();
+		int exponent = grid.getTile(cell % grid.getLength(), cell / grid.getLength()).exponent();
+		replayWriter.spawn(cell, exponent);
+		eventListener.spawn(cell, exponent);
+	}
+
+	private static class EventListener implements ReplayListener
+	{
+		private final List<String> events;
+
+		private EventListener(List<String> events)
+		{
+			this.events = events;
+		}
+
+		@Override
+		public void spawn(int cell, int exponent)
+		{
+			events.add("spawn " + cell + " " + exponent);
+		}
+
+		@Override
+		public void move(MoveDirection moveDirection)
+		{
+			events.add("move " + moveDirection.getDisplayValue());
+		}
+	}
+}
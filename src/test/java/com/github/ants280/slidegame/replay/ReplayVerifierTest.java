@@ -0,0 +1,138 @@
+package com.github.ants280.slidegame.replay;
+
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.ai.RandomMoveStrategy;
+import com.github.ants280.slidegame.sim.GameSimulator;
+import com.github.ants280.slidegame.sim.SimulationResult;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReplayVerifierTest
+{
+	private static final int SCORE_OFFSET = 19;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testVerify_simulatedGames() throws Exception
+	{
+		File replayDirectory = temporaryFolder.newFolder();
+		GameSimulator gameSimulator = new GameSimulator(3000, 2, 4, 2048L, false, 2048L, RandomMoveStrategy::new);
+		gameSimulator.setReplayDirectory(replayDirectory.toPath());
+		SimulationResult simulationResult = gameSimulator.run();
+
+		VerificationResult verificationResult = verify(replayDirectory);
+
+		Assert.assertTrue(verificationResult.getFailures().toString(), verificationResult.isValid());
+		Assert.assertEquals(3000, verificationResult.getGameCount());
+		Assert.assertEquals(simulationResult.getMoveCount(), verificationResult.getMoveCount());
+	}
+
+	@Test
+	public void testVerify_changedScore() throws Exception
+	{
+		File replayDirectory = temporaryFolder.newFolder();
+		GameSimulator gameSimulator = new GameSimulator(10, 1, 4, 2048L, false, 2048L, RandomMoveStrategy::new);
+		gameSimulator.setReplayDirectory(replayDirectory.toPath());
+		gameSimulator.run();
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(new File(replayDirectory, "replays-0.bin"), "rw"))
+		{
+			randomAccessFile.seek(SCORE_OFFSET);
+			long score = randomAccessFile.readLong();
+			randomAccessFile.seek(SCORE_OFFSET);
+			randomAccessFile.writeLong(score + 4);
+		}
+
+		VerificationResult verificationResult = verify(replayDirectory);
+
+		Assert.assertFalse(verificationResult.isValid());
+		Assert.assertEquals(10, verificationResult.getGameCount());
+		Assert.assertEquals(1, verificationResult.getFailedGameCount());
+	}
+
+	@Test
+	public void testVerify_tileNotDrawnFromSeed() throws Exception
+	{
+		File replayDirectory = temporaryFolder.newFolder();
+		try (ReplayWriter replayWriter = new ReplayWriter(new BufferedOutputStream(new FileOutputStream(new File(replayDirectory, "replays.bin")))))
+		{
+			writeOneMoveGame(replayWriter, 5L, false);
+			writeOneMoveGame(replayWriter, 6L, true);
+		}
+
+		VerificationResult verificationResult = verify(replayDirectory);
+
+		Assert.assertEquals(2, verificationResult.getGameCount());
+		Assert.assertEquals(1, verificationResult.getFailedGameCount());
+	}
+
+	/**
+	 * Record a game of one move on a Grid with a seeded source.
+	 *
+	 * @param tileMoved
+	 *            Whether to record the tile added after the move in another
+	 *            empty cell than the one it was added to, which is a possible
+	 *            game, but not one drawn from the seed.
+	 */
+	private static void writeOneMoveGame(ReplayWriter replayWriter, long seed, boolean tileMoved) throws IOException
+	{
+		Grid grid = new Grid(4, 2048L, new SplittableRandom(seed));
+		replayWriter.startGame(grid.getLength(), grid.getGoalTileExponent(), seed);
+		for (int i = 0; i < 2; i++)
+		{
+			int cell = grid.addRandomTile();
+			replayWriter.spawn(cell, grid.getTile(cell % 4, cell / 4).exponent());
+		}
+
+		MoveDirection moveDirection = Arrays.stream(MoveDirection.values())
+				.filter(grid::canSlideTiles)
+				.findFirst()
+				.get();
+		MoveResult moveResult = new MoveResult();
+		grid.move(moveDirection, moveResult);
+		replayWriter.move(moveDirection);
+
+		int cell = grid.addRandomTile();
+		int exponent = grid.getTile(cell % 4, cell / 4).exponent();
+		int recordedCell = cell;
+		while (tileMoved && (recordedCell == cell || grid.getTile(recordedCell % 4, recordedCell / 4) != null))
+		{
+			recordedCell = (recordedCell + 1) % 16;
+		}
+		replayWriter.spawn(recordedCell, exponent);
+		replayWriter.endGame(moveResult.getScore(), false, false);
+	}
+
+	private static VerificationResult verify(File replayDirectory)
+	{
+		List<Path> replayFiles = Arrays.stream(replayDirectory.listFiles())
+				.map(File::toPath)
+				.sorted()
+				.collect(Collectors.toList());
+		ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+		try
+		{
+			return new ReplayVerifier(forkJoinPool).verify(replayFiles);
+		}
+		finally
+		{
+			forkJoinPool.shutdown();
+		}
+	}
+}
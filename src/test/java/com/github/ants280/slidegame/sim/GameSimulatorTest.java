@@ -0,0 +1,77 @@
+package com.github.ants280.slidegame.sim;
+
+import com.github.ants280.slidegame.logic.ai.GreedyMoveStrategy;
+import com.github.ants280.slidegame.logic.ai.RandomMoveStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GameSimulatorTest
+{
+	@Test
+	public void testRun_allGamesPlayed() throws Exception
+	{
+		GameSimulator gameSimulator = new GameSimulator(
+				50, 3, 4, 2048, false, RandomMoveStrategy::new);
+
+		SimulationResult simulationResult = gameSimulator.run();
+
+		Assert.assertEquals(50, simulationResult.getGameCount());
+		Assert.assertTrue(simulationResult.getMoveCount() > 0);
+		Assert.assertTrue(simulationResult.getScorePercentile(0d) > 0);
+		Assert.assertTrue(
+				simulationResult.getScorePercentile(0d)
+				<= simulationResult.getScorePercentile(100d));
+	}
+
+	@Test
+	public void testRun_stopAtGoal() throws Exception
+	{
+		GameSimulator gameSimulator = new GameSimulator(
+				10, 2, 4, 16, true, GreedyMoveStrategy::new);
+
+		SimulationResult simulationResult = gameSimulator.run();
+
+		Assert.assertEquals(1d, simulationResult.getGoalTileRate(), 0d);
+	}
+
+	@Test
+	public void testRun_sameSeedSameGamesOnAnyThreadCount() throws Exception
+	{
+		SimulationResult oneThreadResult = new GameSimulator(
+				40, 1, 4, 2048, false, 2048L, RandomMoveStrategy::new).run();
+		SimulationResult threeThreadResult = new GameSimulator(
+				40, 3, 4, 2048, false, 2048L, RandomMoveStrategy::new).run();
+
+		Assert.assertEquals(
+				oneThreadResult.getMoveCount(),
+				threeThreadResult.getMoveCount());
+		for (int percentile = 0; percentile <= 100; percentile += 10)
+		{
+			Assert.assertEquals(
+					oneThreadResult.getScorePercentile(percentile),
+					threeThreadResult.getScorePercentile(percentile));
+		}
+		Assert.assertEquals(
+				oneThreadResult.getMeanScore(),
+				threeThreadResult.getMeanScore(),
+				0d);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_badGoalTileValue()
+	{
+		GameSimulator gameSimulator = new GameSimulator(
+				1, 1, 4, 17, false, RandomMoveStrategy::new);
+
+		Assert.fail("Should not be constructable: " + gameSimulator);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMain_expectimaxOnOtherLength() throws Exception
+	{
+		GameSimulator.main(new String[]
+		{
+			"--games=1", "--strategy=expectimax", "--length=5"
+		});
+	}
+}
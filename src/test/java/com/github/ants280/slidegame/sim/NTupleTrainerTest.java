@@ -0,0 +1,64 @@
+package com.github.ants280.slidegame.sim;
+
+import com.github.ants280.slidegame.logic.ai.NTupleNetwork;
+import java.io.File;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NTupleTrainerTest
+{
+	private static final int[][] TUPLES = {
+		{ 0, 1, 2, 3 },
+		{ 4, 5, 6, 7 },
+		{ 0, 1, 4, 5 },
+		{ 1, 2, 5, 6 }
+	};
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testTrain_learns() throws Exception
+	{
+		NTupleNetwork network = new NTupleNetwork(TUPLES);
+		NTupleTrainer nTupleTrainer = new NTupleTrainer(
+				network, 1, NTupleTrainer.DEFAULT_LEARNING_RATE, 2048L);
+
+		SimulationResult untrainedResult = nTupleTrainer.train(200);
+		nTupleTrainer.train(2000);
+		SimulationResult trainedResult = nTupleTrainer.train(200);
+
+		Assert.assertEquals(200, trainedResult.getGameCount());
+		Assert.assertTrue(
+				untrainedResult.getMeanScore() + " < " + trainedResult.getMeanScore(),
+				untrainedResult.getMeanScore() < trainedResult.getMeanScore());
+	}
+
+	@Test
+	public void testTrain_savesWeights() throws Exception
+	{
+		File weightsFile = temporaryFolder.newFile();
+		NTupleNetwork network = new NTupleNetwork(TUPLES);
+		NTupleTrainer nTupleTrainer = new NTupleTrainer(
+				network, 2, NTupleTrainer.DEFAULT_LEARNING_RATE, 2048L);
+		nTupleTrainer.setWeightsFile(weightsFile.toPath());
+
+		SimulationResult simulationResult = nTupleTrainer.train(100);
+
+		Assert.assertEquals(100, simulationResult.getGameCount());
+		Assert.assertTrue(simulationResult.getMoveCount() > 0);
+		NTupleNetwork savedNetwork = NTupleNetwork.map(weightsFile.toPath());
+		SplittableRandom random = new SplittableRandom(16L);
+		for (int i = 0; i < 100; i++)
+		{
+			long tiles = random.nextLong() & 0x3333333333333333L;
+			Assert.assertEquals(
+					network.evaluate(tiles),
+					savedNetwork.evaluate(tiles),
+					0f);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.github.ants280.slidegame.store;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileAppenderTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testAppend_inOrderAfterExistingBytes() throws Exception
+	{
+		Path file = temporaryFolder.newFile().toPath();
+		Files.write(file, new byte[] { 1, 2 });
+
+		try (FileAppender fileAppender = new FileAppender(file))
+		{
+			fileAppender.append(new byte[] { 3 });
+			fileAppender.append(new byte[] { 4, 5 }).get();
+
+			Assert.assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, Files.readAllBytes(file));
+		}
+	}
+
+	@Test
+	public void testClose_writesAppendedBytes() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("replays");
+
+		FileAppender fileAppender = new FileAppender(file);
+		fileAppender.append(new byte[] { 6, 7 });
+		fileAppender.close();
+
+		Assert.assertArrayEquals(new byte[] { 6, 7 }, Files.readAllBytes(file));
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void testAppend_cannotOpen() throws Exception
+	{
+		Path file = temporaryFolder.newFolder().toPath();
+
+		try (FileAppender fileAppender = new FileAppender(file))
+		{
+			fileAppender.append(new byte[] { 8 }).get();
+		}
+	}
+}
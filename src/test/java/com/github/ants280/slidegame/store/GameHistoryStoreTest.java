@@ -0,0 +1,260 @@
+package com.github.ants280.slidegame.store;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GameHistoryStoreTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testQueries_empty() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("history");
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			Assert.assertEquals(0L, (long) gameHistoryStore.getGameCount().get());
+			Assert.assertTrue(gameHistoryStore.getTopGames(10).get().isEmpty());
+			Assert.assertTrue(gameHistoryStore.getBestGames().get().isEmpty());
+			Assert.assertArrayEquals(
+					new long[GameHistoryStore.SCORE_HISTOGRAM_BUCKETS],
+					gameHistoryStore.getScoreHistogram().get());
+		}
+	}
+
+	@Test
+	public void testQueries()
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("history");
+		GameRecord smallBoardGame = new GameRecord(60L, 4, 20, 5000L, 3, 5, 0L);
+		GameRecord firstGame = new GameRecord(1000L, 7, 100, 60000L, 4, 11, 1L);
+		GameRecord secondGame = new GameRecord(3000L, 8, 250, 90000L, 4, 11, 2L);
+		GameRecord tiedGame = new GameRecord(1000L, 7, 110, 61000L, 4, 11, 3L);
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			for (GameRecord gameRecord : Arrays.asList(smallBoardGame, firstGame, secondGame, tiedGame))
+			{
+				gameHistoryStore.add(gameRecord);
+			}
+
+			assertQueries(gameHistoryStore, smallBoardGame, firstGame, secondGame, tiedGame);
+		}
+	}
+
+	@Test
+	public void testReopen_readsIndexAndNewerGames() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("history");
+		List<GameRecord> gameRecords = createGameRecords(
+				GameHistoryStore.INDEX_WRITE_INTERVAL + 10, 16L);
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			for (GameRecord gameRecord : gameRecords)
+			{
+				gameHistoryStore.add(gameRecord);
+			}
+			// Drop the index written on closing, leaving the one written
+			// after INDEX_WRITE_INTERVAL games:
+			gameHistoryStore.getGameCount().get();
+			Files.copy(file.resolveSibling("history.idx"), file.resolveSibling("old.idx"));
+		}
+		Files.move(
+				file.resolveSibling("old.idx"),
+				file.resolveSibling("history.idx"),
+				StandardCopyOption.REPLACE_EXISTING);
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			assertQueries(gameHistoryStore, gameRecords.toArray(new GameRecord[0]));
+		}
+	}
+
+	@Test
+	public void testReopen_rebuildsMissingIndex() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("history");
+		List<GameRecord> gameRecords = createGameRecords(200, 32L);
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			for (GameRecord gameRecord : gameRecords)
+			{
+				gameHistoryStore.add(gameRecord);
+			}
+		}
+		Files.delete(file.resolveSibling("history.idx"));
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			assertQueries(gameHistoryStore, gameRecords.toArray(new GameRecord[0]));
+		}
+	}
+
+	@Test
+	public void testReopen_rebuildsCorruptIndex() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("history");
+		List<GameRecord> gameRecords = createGameRecords(20, 48L);
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			for (GameRecord gameRecord : gameRecords)
+			{
+				gameHistoryStore.add(gameRecord);
+			}
+		}
+		Path indexFile = file.resolveSibling("history.idx");
+		byte[] indexBytes = Files.readAllBytes(indexFile);
+		Files.write(indexFile, Arrays.copyOf(indexBytes, indexBytes.length / 2));
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			assertQueries(gameHistoryStore, gameRecords.toArray(new GameRecord[0]));
+		}
+	}
+
+	@Test
+	public void testReopen_dropsPartialRecord() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("history");
+		List<GameRecord> gameRecords = createGameRecords(5, 64L);
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			for (GameRecord gameRecord : gameRecords)
+			{
+				gameHistoryStore.add(gameRecord);
+			}
+		}
+		try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE))
+		{
+			fileChannel.truncate(fileChannel.size() - GameRecord.BYTES / 2);
+		}
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			assertQueries(gameHistoryStore, gameRecords.subList(0, 4).toArray(new GameRecord[0]));
+
+			gameHistoryStore.add(gameRecords.get(4));
+			assertQueries(gameHistoryStore, gameRecords.toArray(new GameRecord[0]));
+		}
+		Assert.assertEquals(
+				GameHistoryStore.HEADER_BYTES + 5L * GameRecord.BYTES,
+				Files.size(file));
+	}
+
+	@Test
+	public void testGetTopGames_moreThanIndexed() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("history");
+		List<GameRecord> gameRecords = createGameRecords(GameHistoryStore.TOP_GAME_CAPACITY * 3, 80L);
+
+		try (GameHistoryStore gameHistoryStore = new GameHistoryStore(file))
+		{
+			for (GameRecord gameRecord : gameRecords)
+			{
+				gameHistoryStore.add(gameRecord);
+			}
+
+			int count = GameHistoryStore.TOP_GAME_CAPACITY * 2;
+			Assert.assertEquals(
+					sortBestFirst(gameRecords).subList(0, count),
+					gameHistoryStore.getTopGames(count).get());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGameRecord_invalid()
+	{
+		new GameRecord(-1L, 1, 1, 1L, 4, 11, 0L);
+	}
+
+	@Test
+	public void testGetScoreBucketMin()
+	{
+		for (int scoreBucket = 0; scoreBucket < GameHistoryStore.SCORE_HISTOGRAM_BUCKETS; scoreBucket++)
+		{
+			long scoreBucketMin = GameHistoryStore.getScoreBucketMin(scoreBucket);
+			Assert.assertEquals(scoreBucket, GameHistoryStore.getScoreBucket(scoreBucketMin));
+			if (scoreBucket > 0)
+			{
+				Assert.assertEquals(scoreBucket - 1, GameHistoryStore.getScoreBucket(scoreBucketMin - 1));
+			}
+		}
+	}
+
+	private static void assertQueries(GameHistoryStore gameHistoryStore, GameRecord... gameRecords)
+	{
+		List<GameRecord> bestFirst = sortBestFirst(Arrays.asList(gameRecords));
+		long[] expectedHistogram = new long[GameHistoryStore.SCORE_HISTOGRAM_BUCKETS];
+		SortedMap<Integer, GameRecord> expectedBestGames = new TreeMap<>();
+		for (GameRecord gameRecord : gameRecords)
+		{
+			expectedHistogram[GameHistoryStore.getScoreBucket(gameRecord.getScore())]++;
+			GameRecord bestGame = expectedBestGames.get(gameRecord.getLength());
+			if (bestGame == null || gameRecord.getScore() > bestGame.getScore())
+			{
+				expectedBestGames.put(gameRecord.getLength(), gameRecord);
+			}
+		}
+
+		try
+		{
+			Assert.assertEquals(gameRecords.length, (long) gameHistoryStore.getGameCount().get());
+			Assert.assertEquals(
+					bestFirst.subList(0, Math.min(10, bestFirst.size())),
+					gameHistoryStore.getTopGames(10).get());
+			Assert.assertEquals(expectedBestGames, gameHistoryStore.getBestGames().get());
+			Assert.assertArrayEquals(expectedHistogram, gameHistoryStore.getScoreHistogram().get());
+		}
+		catch (Exception e)
+		{
+			throw new AssertionError(e);
+		}
+	}
+
+	private static List<GameRecord> sortBestFirst(List<GameRecord> gameRecords)
+	{
+		List<GameRecord> bestFirst = new ArrayList<>(gameRecords);
+		// A stable sort keeps games of equal score in the order they were added:
+		bestFirst.sort(Comparator.comparingLong(GameRecord::getScore).reversed());
+		return bestFirst;
+	}
+
+	private static List<GameRecord> createGameRecords(int count, long seed)
+	{
+		SplittableRandom random = new SplittableRandom(seed);
+		List<GameRecord> gameRecords = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			// Few distinct scores, so there are ties:
+			gameRecords.add(new GameRecord(
+					random.nextInt(50) * 100L,
+					random.nextInt(1, 12),
+					random.nextInt(1000),
+					random.nextInt(1000000),
+					random.nextInt(3, 7),
+					11,
+					random.nextLong()));
+		}
+		return gameRecords;
+	}
+}
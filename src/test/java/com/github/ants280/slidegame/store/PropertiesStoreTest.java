@@ -0,0 +1,205 @@
+package com.github.ants280.slidegame.store;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PropertiesStoreTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testLoad_missingFile() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("settings");
+
+		try (PropertiesStore propertiesStore = new PropertiesStore(file, createDefaults()))
+		{
+			propertiesStore.whenLoaded().get();
+
+			Assert.assertEquals("0", propertiesStore.get("highestscore"));
+			Assert.assertEquals("120", propertiesStore.get("countdown2"));
+		}
+		Assert.assertFalse(Files.exists(file));
+	}
+
+	@Test
+	public void testLoad_mergesDefaults() throws Exception
+	{
+		Path file = temporaryFolder.newFile().toPath();
+		Properties fileProperties = new Properties();
+		fileProperties.setProperty("highestscore", "4096");
+		try (OutputStream outputStream = Files.newOutputStream(file))
+		{
+			fileProperties.store(outputStream, null);
+		}
+
+		try (PropertiesStore propertiesStore = new PropertiesStore(file, createDefaults()))
+		{
+			propertiesStore.whenLoaded().get();
+
+			Assert.assertEquals("4096", propertiesStore.get("highestscore"));
+			Assert.assertEquals("120", propertiesStore.get("countdown2"));
+		}
+	}
+
+	@Test
+	public void testMerge_beforeLoad() throws Exception
+	{
+		Path file = temporaryFolder.newFile().toPath();
+		Properties fileProperties = new Properties();
+		fileProperties.setProperty("highestscore", "4096");
+		fileProperties.setProperty("countdown2", "90");
+		try (OutputStream outputStream = Files.newOutputStream(file))
+		{
+			fileProperties.store(outputStream, null);
+		}
+		// Hold the thread of the store, so the file is read after the merge:
+		CountDownLatch readLatch = new CountDownLatch(1);
+		ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+		executorService.execute(() ->
+		{
+			try
+			{
+				readLatch.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		try (PropertiesStore propertiesStore = new PropertiesStore(file, createDefaults(), 60000L, executorService))
+		{
+			propertiesStore.merge("highestscore", "100", PropertiesStoreTest::max);
+			propertiesStore.set("countdown2", "60");
+			Assert.assertEquals("100", propertiesStore.get("highestscore"));
+			readLatch.countDown();
+			propertiesStore.whenLoaded().get();
+
+			Assert.assertEquals("4096", propertiesStore.get("highestscore"));
+			Assert.assertEquals("60", propertiesStore.get("countdown2"));
+			propertiesStore.merge("highestscore", "8192", PropertiesStoreTest::max);
+			propertiesStore.merge("highestscore", "1024", PropertiesStoreTest::max);
+			propertiesStore.flush();
+
+			Assert.assertEquals("8192", load(file).getProperty("highestscore"));
+			Assert.assertEquals("60", load(file).getProperty("countdown2"));
+		}
+	}
+
+	@Test
+	public void testLoad_malformedFileMovedAside() throws Exception
+	{
+		Path file = temporaryFolder.newFile().toPath();
+		byte[] malformedBytes = "highestscore=\\u12".getBytes(StandardCharsets.ISO_8859_1);
+		Files.write(file, malformedBytes);
+
+		try (PropertiesStore propertiesStore = new PropertiesStore(file, createDefaults(), 60000L))
+		{
+			assertLoadFails(propertiesStore);
+			propertiesStore.set("countdown2", "60");
+			propertiesStore.flush();
+
+			Assert.assertArrayEquals(malformedBytes, Files.readAllBytes(propertiesStore.getCorruptFile()));
+			Assert.assertEquals("60", load(file).getProperty("countdown2"));
+		}
+	}
+
+	@Test
+	public void testLoad_unreadableFileNotReplaced() throws Exception
+	{
+		// A directory exists but cannot be read as a file:
+		Path file = temporaryFolder.newFolder().toPath();
+
+		try (PropertiesStore propertiesStore = new PropertiesStore(file, createDefaults(), 60000L))
+		{
+			assertLoadFails(propertiesStore);
+			propertiesStore.set("highestscore", "8");
+			propertiesStore.flush();
+
+			Assert.assertEquals("8", propertiesStore.get("highestscore"));
+			Assert.assertTrue(Files.isDirectory(file));
+			Assert.assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+		}
+	}
+
+	@Test
+	public void testSet_flushWritesFile() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("settings");
+
+		try (PropertiesStore propertiesStore = new PropertiesStore(file, createDefaults(), 60000L))
+		{
+			propertiesStore.set("highestscore", "1024");
+			propertiesStore.set("highestscore", "2048");
+			propertiesStore.flush();
+
+			Properties fileProperties = load(file);
+			Assert.assertEquals("2048", fileProperties.getProperty("highestscore"));
+			Assert.assertEquals("120", fileProperties.getProperty("countdown2"));
+			Assert.assertFalse(Files.exists(file.resolveSibling("settings.tmp")));
+		}
+	}
+
+	@Test
+	public void testClose_writesFile() throws Exception
+	{
+		Path file = temporaryFolder.getRoot().toPath().resolve("settings");
+
+		PropertiesStore propertiesStore = new PropertiesStore(file, createDefaults(), 60000L);
+		propertiesStore.set("countdown2", "60");
+		propertiesStore.close();
+
+		Assert.assertEquals("60", load(file).getProperty("countdown2"));
+	}
+
+	private static void assertLoadFails(PropertiesStore propertiesStore) throws InterruptedException
+	{
+		try
+		{
+			propertiesStore.whenLoaded().get();
+			Assert.fail("Loaded an unreadable file");
+		}
+		catch (ExecutionException e)
+		{
+			Assert.assertTrue(e.getCause() instanceof UncheckedIOException);
+		}
+	}
+
+	private static String max(String value, String otherValue)
+	{
+		return Long.parseLong(value) >= Long.parseLong(otherValue) ? value : otherValue;
+	}
+
+	private static Properties createDefaults()
+	{
+		Properties defaults = new Properties();
+		defaults.setProperty("highestscore", "0");
+		defaults.setProperty("countdown2", "120");
+		return defaults;
+	}
+
+	private static Properties load(Path file) throws Exception
+	{
+		Properties properties = new Properties();
+		try (InputStream inputStream = Files.newInputStream(file))
+		{
+			properties.load(inputStream);
+		}
+		return properties;
+	}
+}